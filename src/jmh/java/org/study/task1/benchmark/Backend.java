@@ -0,0 +1,111 @@
+package org.study.task1.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.study.task1.trie.ConcurrentRWayTrie;
+import org.study.task1.trie.DawgTrie;
+import org.study.task1.trie.DoubleArrayTrie;
+import org.study.task1.trie.MappedTrie;
+import org.study.task1.trie.PersistentTrie;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.RadixTrie;
+import org.study.task1.trie.TernarySearchTrie;
+import org.study.task1.trie.Trie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Trie implementations compared by benchmarks
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public enum Backend {
+
+    RWAY {
+	@Override
+	public Trie create(List<Tuple> tuples) {
+	    return fill(new RWayTrie(new EnglishAlphabet()), tuples);
+	}
+    },
+
+    DOUBLE_ARRAY {
+	@Override
+	public Trie create(List<Tuple> tuples) {
+	    return new DoubleArrayTrie(new EnglishAlphabet(), tuples);
+	}
+    },
+
+    TERNARY {
+	@Override
+	public Trie create(List<Tuple> tuples) {
+	    return fill(new TernarySearchTrie(new EnglishAlphabet()), tuples);
+	}
+    },
+
+    RADIX {
+	@Override
+	public Trie create(List<Tuple> tuples) {
+	    return fill(new RadixTrie(new EnglishAlphabet()), tuples);
+	}
+    },
+
+    PERSISTENT {
+	@Override
+	public Trie create(List<Tuple> tuples) {
+	    return fill(new PersistentTrie(new EnglishAlphabet()), tuples);
+	}
+    },
+
+    CONCURRENT {
+	@Override
+	public Trie create(List<Tuple> tuples) {
+	    return fill(new ConcurrentRWayTrie(new EnglishAlphabet()), tuples);
+	}
+    },
+
+    DAWG {
+	@Override
+	public Trie create(List<Tuple> tuples) {
+	    return new DawgTrie(new EnglishAlphabet(), tuples);
+	}
+    },
+
+    MAPPED {
+	@Override
+	public Trie create(List<Tuple> tuples) {
+	    try {
+		Path file = Files.createTempFile("trie", ".bin");
+		file.toFile().deleteOnExit();
+
+		MappedTrie.write((RWayTrie) RWAY.create(tuples), file);
+
+		return new MappedTrie(file);
+	    } catch (IOException e) {
+		throw new UncheckedIOException(e);
+	    }
+	}
+    };
+
+    /**
+     * Creates trie that contains the specified tuples
+     * 
+     * @param tuples
+     *            - the specified tuples
+     * @return trie of this backend
+     */
+    public abstract Trie create(List<Tuple> tuples);
+
+    private static Trie fill(Trie trie, List<Tuple> tuples) {
+	for (Tuple tuple : tuples) {
+	    trie.add(tuple);
+	}
+
+	return trie;
+    }
+
+}
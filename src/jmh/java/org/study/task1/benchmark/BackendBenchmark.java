@@ -0,0 +1,98 @@
+package org.study.task1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.study.task1.PrefixMatches;
+import org.study.task1.trie.Trie;
+
+/**
+ * Benchmarks of read operations of every Trie implementation on the same
+ * dictionary. Memory footprint of the same backends is printed by Footprint.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BackendBenchmark {
+
+    @Param({ Dictionaries.WIKTIONARY })
+    private String dictionary;
+
+    @Param
+    private Backend backend;
+
+    private String[] words;
+    private Trie trie;
+    private PrefixMatches matches;
+    private int next;
+
+    /**
+     * Loads the dictionary and builds the trie of the benchmark backend
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+	words = Dictionaries.words(Dictionaries.load(dictionary));
+	trie = backend.create(Dictionaries.load(dictionary));
+	matches = new PrefixMatches(trie);
+    }
+
+    /**
+     * State with the prefix of read benchmarks: empty, short and medium
+     */
+    @State(Scope.Benchmark)
+    public static class PrefixState {
+	@Param({ "", "co", "inter" })
+	private String prefix;
+    }
+
+    /**
+     * Checks presence of one dictionary word
+     */
+    @Benchmark
+    public boolean contains() {
+	if (++next == words.length) {
+	    next = 0;
+	}
+
+	return trie.contains(words[next]);
+    }
+
+    /**
+     * Iterates over all words with the benchmark prefix
+     */
+    @Benchmark
+    public void wordsWithPrefix(PrefixState state, Blackhole blackhole) {
+	for (String word : trie.wordsWithPrefix(state.prefix)) {
+	    blackhole.consume(word);
+	}
+    }
+
+    /**
+     * Iterates over three groups of words with the benchmark prefix
+     */
+    @Benchmark
+    public void prefixMatches(PrefixState state, Blackhole blackhole) {
+	for (String word : matches.wordsWithPrefix(state.prefix, 3)) {
+	    blackhole.consume(word);
+	}
+    }
+
+}
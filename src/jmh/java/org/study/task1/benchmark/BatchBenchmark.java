@@ -0,0 +1,102 @@
+package org.study.task1.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.study.task1.PrefixMatches;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Benchmarks of completion of a batch of prefixes: completeAll against
+ * wordsWithPrefix calls one after another. Sample time mode reports the
+ * percentiles of the whole batch.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    @Param({ Dictionaries.WIKTIONARY })
+    private String dictionary;
+
+    @Param({ "8", "32" })
+    private int batch;
+
+    @Param({ "3" })
+    private int k;
+
+    private PrefixMatches matches;
+    private List<String> prefixes;
+
+    /**
+     * Fills the table with the dictionary words and takes the batch of
+     * different two letter prefixes
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+	List<Tuple> tuples = Dictionaries.load(dictionary);
+	TreeSet<String> distinct = new TreeSet<String>();
+
+	matches = new PrefixMatches(new RWayTrie(new EnglishAlphabet()));
+	matches.add(Dictionaries.words(tuples));
+
+	for (Tuple tuple : tuples) {
+	    if (tuple.getWord().length() > 2) {
+		distinct.add(tuple.getWord().substring(0, 2));
+	    }
+	}
+
+	prefixes = new ArrayList<String>(distinct).subList(0, Math.min(batch, distinct.size()));
+    }
+
+    /**
+     * Finds words of every prefix in parallel
+     */
+    @Benchmark
+    public List<List<String>> completeAll() {
+	return matches.completeAll(prefixes, k);
+    }
+
+    /**
+     * Finds words of every prefix in the calling thread
+     */
+    @Benchmark
+    public List<List<String>> sequential() {
+	List<List<String>> result = new ArrayList<List<String>>(prefixes.size());
+
+	for (String prefix : prefixes) {
+	    List<String> words = new ArrayList<String>();
+
+	    for (String word : matches.wordsWithPrefix(prefix, k)) {
+		words.add(word);
+	    }
+
+	    result.add(words);
+	}
+
+	return result;
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.study.task1.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.study.task1.trie.Trie;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Benchmarks of add and contains operations of thread-safe tries called from
+ * many threads. Every iteration starts with a trie that contains a half of the
+ * dictionary, so add benchmark both inserts new words and updates present
+ * ones. RWAY backend is guarded by one global lock. Run with "-t 1", "-t 2",
+ * ... "-t max" to see how throughput scales with the number of threads.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentBenchmark {
+
+    @Param({ Dictionaries.WIKTIONARY })
+    private String dictionary;
+
+    @Param({ "CONCURRENT", "PERSISTENT", "RWAY" })
+    private Backend backend;
+
+    private List<Tuple> tuples;
+    private Trie trie;
+
+    /**
+     * Loads the dictionary
+     */
+    @Setup(Level.Trial)
+    public void load() {
+	tuples = Dictionaries.load(dictionary);
+    }
+
+    /**
+     * Builds the trie of the benchmark backend from a half of the dictionary
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+	trie = backend.create(tuples.subList(0, tuples.size() / 2));
+
+	if (backend == Backend.RWAY) {
+	    trie = new SynchronizedTrie(trie);
+	}
+    }
+
+    /**
+     * Position of the thread in the dictionary, starts at random word
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+	private int next = -1;
+
+	private Tuple next(List<Tuple> tuples) {
+	    if (next < 0) {
+		next = ThreadLocalRandom.current().nextInt(tuples.size());
+	    }
+
+	    if (++next == tuples.size()) {
+		next = 0;
+	    }
+
+	    return tuples.get(next);
+	}
+    }
+
+    /**
+     * Adds one dictionary word
+     */
+    @Benchmark
+    public void add(Cursor cursor) {
+	trie.add(cursor.next(tuples));
+    }
+
+    /**
+     * Checks presence of one dictionary word
+     */
+    @Benchmark
+    public boolean contains(Cursor cursor) {
+	return trie.contains(cursor.next(tuples).getWord());
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.study.task1.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Helper class that loads benchmark dictionaries in the "count&lt;TAB&gt;word"
+ * format of wiktionary.txt. Only words that consist of English lower case
+ * letters are kept, so every entry can be added to a trie with EnglishAlphabet.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public final class Dictionaries {
+
+    /**
+     * Path of the default benchmark dictionary, relative to the project root
+     */
+    public static final String WIKTIONARY = "src/test/resources/wiktionary.txt";
+
+    private Dictionaries() {
+    }
+
+    /**
+     * Loads the dictionary from the specified file
+     * 
+     * @param path
+     *            - path of the dictionary file
+     * @return list of tuples in file order, weighted by corpus frequency
+     */
+    public static List<Tuple> load(String path) {
+	List<Tuple> tuples = new ArrayList<Tuple>();
+
+	try (BufferedReader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+	    String line;
+
+	    while ((line = reader.readLine()) != null) {
+		String[] fields = line.trim().split("\\s+");
+
+		if (fields.length == 2 && isEnglishWord(fields[1])) {
+		    long count = Long.parseLong(fields[0]);
+		    tuples.add(new Tuple(fields[1], (int) Math.max(1, Math.min(count, Integer.MAX_VALUE))));
+		}
+	    }
+	} catch (IOException e) {
+	    throw new UncheckedIOException(e);
+	}
+
+	return tuples;
+    }
+
+    /**
+     * Returns words of the specified tuples
+     * 
+     * @param tuples
+     *            - the specified tuples
+     * @return array of words in the same order
+     */
+    public static String[] words(List<Tuple> tuples) {
+	String[] words = new String[tuples.size()];
+
+	for (int i = 0; i < words.length; i++) {
+	    words[i] = tuples.get(i).getWord();
+	}
+
+	return words;
+    }
+
+    private static boolean isEnglishWord(String word) {
+	for (int i = 0; i < word.length(); i++) {
+	    char character = word.charAt(i);
+
+	    if (character < 'a' || character > 'z') {
+		return false;
+	    }
+	}
+
+	return !word.isEmpty();
+    }
+
+}
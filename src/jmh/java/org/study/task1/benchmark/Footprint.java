@@ -0,0 +1,42 @@
+package org.study.task1.benchmark;
+
+import java.util.List;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.study.task1.trie.Trie;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Prints retained heap size of every Trie implementation built from the same
+ * dictionary. Run with:
+ * java -cp target/benchmarks.jar org.study.task1.benchmark.Footprint [path]
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public final class Footprint {
+
+    private Footprint() {
+    }
+
+    /**
+     * Entry point
+     * 
+     * @param args
+     *            - optional path of the dictionary file
+     */
+    public static void main(String[] args) {
+	String path = args.length > 0 ? args[0] : Dictionaries.WIKTIONARY;
+	List<Tuple> tuples = Dictionaries.load(path);
+
+	System.out.printf("%-14s %8s %14s %12s%n", "backend", "words", "bytes", "bytes/word");
+
+	for (Backend backend : Backend.values()) {
+	    Trie trie = backend.create(tuples);
+	    long bytes = GraphLayout.parseInstance(trie).totalSize();
+
+	    System.out.printf("%-14s %8d %14d %12.1f%n", backend, trie.size(), bytes, (double) bytes / trie.size());
+	}
+    }
+
+}
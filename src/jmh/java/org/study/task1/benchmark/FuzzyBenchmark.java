@@ -0,0 +1,89 @@
+package org.study.task1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.Trie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+
+/**
+ * Benchmarks of fuzzy prefix search: the walk of RWayTrie that skips
+ * subtrees out of the edit limit, the same walk that also skips subtrees by
+ * their caches of the heaviest words, and the default scan of every word
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FuzzyBenchmark {
+
+    @Param({ Dictionaries.WIKTIONARY })
+    private String dictionary;
+
+    @Param({ "a", "intrn", "comunic" })
+    private String prefix;
+
+    @Param({ "1", "2" })
+    private int maxEdits;
+
+    @Param({ "10" })
+    private int k;
+
+    private RWayTrie trie;
+    private RWayTrie ranked;
+    private Trie scan;
+
+    /**
+     * Fills the trie with the dictionary words
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+	trie = new RWayTrie(new EnglishAlphabet());
+	trie.addAll(Dictionaries.load(dictionary));
+	ranked = new RWayTrie(new EnglishAlphabet(), k);
+	ranked.addAll(Dictionaries.load(dictionary));
+	scan = new SynchronizedTrie(trie);
+    }
+
+    /**
+     * Walks the trie rows of the edit distance table
+     */
+    @Benchmark
+    public Object walk() {
+	return trie.fuzzyWordsWithPrefix(prefix, maxEdits, k);
+    }
+
+    /**
+     * Walks the trie with caches of k heaviest words in every node
+     */
+    @Benchmark
+    public Object rankedWalk() {
+	return ranked.fuzzyWordsWithPrefix(prefix, maxEdits, k);
+    }
+
+    /**
+     * Checks every word with default implementation of Trie
+     */
+    @Benchmark
+    public Object scan() {
+	return scan.fuzzyWordsWithPrefix(prefix, maxEdits, k);
+    }
+
+}
@@ -0,0 +1,158 @@
+package org.study.task1.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.study.task1.DictionaryLoader;
+import org.study.task1.trie.MappedTrie;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Benchmarks of loading the whole dictionary into an empty RWayTrie: one add
+ * call per word against the bulk loader on sorted and unsorted tuples and the
+ * parallel loader in the common fork/join pool, reading the dictionary file
+ * line by line against the streaming loader, and opening the same words
+ * written as a MappedTrie file
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+
+    @Param({ Dictionaries.WIKTIONARY })
+    private String dictionary;
+
+    private List<Tuple> tuples;
+    private List<Tuple> sorted;
+    private Path file;
+    private DictionaryLoader loader;
+
+    /**
+     * Loads the dictionary in file order and sorted by words and writes it to
+     * a temporary MappedTrie file
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+	tuples = Dictionaries.load(dictionary);
+	sorted = new ArrayList<Tuple>(tuples);
+
+	Collections.sort(sorted, new Comparator<Tuple>() {
+
+	    @Override
+	    public int compare(Tuple first, Tuple second) {
+		return first.getWord().compareTo(second.getWord());
+	    }
+
+	});
+
+	file = Files.createTempFile("trie", ".bin");
+	file.toFile().deleteOnExit();
+	MappedTrie.write((RWayTrie) Backend.RWAY.create(tuples), file);
+	loader = new DictionaryLoader(new EnglishAlphabet());
+    }
+
+    /**
+     * Adds words one by one in file order
+     */
+    @Benchmark
+    public RWayTrie add() {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+
+	for (Tuple tuple : tuples) {
+	    trie.add(tuple);
+	}
+
+	return trie;
+    }
+
+    /**
+     * Loads words that are already sorted
+     */
+    @Benchmark
+    public RWayTrie addSorted() {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	trie.addSorted(sorted);
+	return trie;
+    }
+
+    /**
+     * Sorts words in file order and loads them
+     */
+    @Benchmark
+    public RWayTrie addAll() {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	trie.addAll(tuples);
+	return trie;
+    }
+
+    /**
+     * Sorts words in file order and loads every first character in its own
+     * task
+     */
+    @Benchmark
+    public RWayTrie addParallel() {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	trie.addParallel(tuples);
+	return trie;
+    }
+
+    /**
+     * Reads the dictionary file with BufferedReader and split and adds words
+     */
+    @Benchmark
+    public RWayTrie readLines() {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+
+	for (Tuple tuple : Dictionaries.load(dictionary)) {
+	    trie.add(tuple);
+	}
+
+	return trie;
+    }
+
+    /**
+     * Reads the dictionary file with DictionaryLoader
+     */
+    @Benchmark
+    public RWayTrie loadFile() throws IOException {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	loader.load(Paths.get(dictionary), trie);
+	return trie;
+    }
+
+    /**
+     * Maps the file written in setup
+     */
+    @Benchmark
+    public MappedTrie map() throws IOException {
+	return new MappedTrie(file);
+    }
+
+}
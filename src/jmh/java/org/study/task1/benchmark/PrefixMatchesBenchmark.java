@@ -0,0 +1,101 @@
+package org.study.task1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.study.task1.PrefixMatches;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.WordVisitor;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+
+/**
+ * Benchmarks of PrefixMatches auto completion on the wiktionary dictionary.
+ * Run with "-prof gc" to get allocation rate next to throughput and average
+ * time.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefixMatchesBenchmark {
+
+    @Param({ Dictionaries.WIKTIONARY })
+    private String dictionary;
+
+    @Param({ "", "co", "inter" })
+    private String prefix;
+
+    @Param({ "1", "3" })
+    private int k;
+
+    private PrefixMatches matches;
+    private PrefixMatches cached; // Same trie with cache of results
+
+    /**
+     * Fills the table with the dictionary words
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	matches = new PrefixMatches(trie);
+	matches.add(Dictionaries.words(Dictionaries.load(dictionary)));
+	cached = PrefixMatches.withCache(trie, 1024);
+    }
+
+    /**
+     * Iterates over k groups of words with the benchmark prefix
+     */
+    @Benchmark
+    public void wordsWithPrefix(Blackhole blackhole) {
+	for (String word : matches.wordsWithPrefix(prefix, k)) {
+	    blackhole.consume(word);
+	}
+    }
+
+    /**
+     * Iterates over k groups of words with the benchmark prefix that are
+     * found in cache after the first call
+     */
+    @Benchmark
+    public void wordsWithPrefixCached(Blackhole blackhole) {
+	for (String word : cached.wordsWithPrefix(prefix, k)) {
+	    blackhole.consume(word);
+	}
+    }
+
+    /**
+     * Visits k groups of words with the benchmark prefix without creating
+     * strings
+     */
+    @Benchmark
+    public void forEachWithPrefix(Blackhole blackhole) {
+	matches.forEachWithPrefix(prefix, k, new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		blackhole.consume(word[length - 1]);
+		blackhole.consume(weight);
+		return true;
+	    }
+
+	});
+    }
+
+}
@@ -0,0 +1,160 @@
+package org.study.task1.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Benchmarks of RWayTrie operations on the wiktionary dictionary. Run with
+ * "-prof gc" to get allocation rate next to throughput and average time.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RWayTrieBenchmark {
+
+    @Param({ Dictionaries.WIKTIONARY })
+    private String dictionary;
+
+    private List<Tuple> tuples;
+    private String[] words;
+    private RWayTrie trie;
+    private int next;
+
+    /**
+     * Loads the dictionary and fills the trie used by read benchmarks
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+	tuples = Dictionaries.load(dictionary);
+	words = Dictionaries.words(tuples);
+	trie = fill(tuples);
+    }
+
+    /**
+     * State with the prefix of read benchmarks: empty, short and medium
+     */
+    @State(Scope.Benchmark)
+    public static class PrefixState {
+	@Param({ "", "co", "inter" })
+	private String prefix;
+    }
+
+    /**
+     * State with a freshly filled trie for every invocation of delete
+     * benchmark
+     */
+    @State(Scope.Thread)
+    public static class FilledTrie {
+	private RWayTrie trie;
+
+	@Setup(Level.Invocation)
+	public void setUp(RWayTrieBenchmark benchmark) {
+	    trie = fill(benchmark.tuples);
+	}
+    }
+
+    /**
+     * Adds the whole dictionary to an empty trie
+     */
+    @Benchmark
+    public RWayTrie add() {
+	return fill(tuples);
+    }
+
+    /**
+     * Checks presence of one dictionary word
+     */
+    @Benchmark
+    public boolean contains() {
+	if (++next == words.length) {
+	    next = 0;
+	}
+
+	return trie.contains(words[next]);
+    }
+
+    /**
+     * Removes the whole dictionary from a filled trie. The gc profiler counts
+     * allocations of the per-invocation fill as well, see add benchmark
+     */
+    @Benchmark
+    public int delete(FilledTrie filled) {
+	for (String word : words) {
+	    filled.trie.delete(word);
+	}
+
+	return filled.trie.size();
+    }
+
+    /**
+     * Removes all words with the benchmark prefix by cutting off their subtree
+     */
+    @Benchmark
+    public int deleteWithPrefix(FilledTrie filled, PrefixState state) {
+	return filled.trie.deleteWithPrefix(state.prefix);
+    }
+
+    /**
+     * Removes all words with the benchmark prefix one by one, the way
+     * deleteWithPrefix benchmark is measured against
+     */
+    @Benchmark
+    public int deleteEachWithPrefix(FilledTrie filled, PrefixState state) {
+	List<String> purged = new ArrayList<String>();
+
+	for (String word : filled.trie.wordsWithPrefix(state.prefix)) {
+	    purged.add(word);
+	}
+
+	for (String word : purged) {
+	    filled.trie.delete(word);
+	}
+
+	return filled.trie.size();
+    }
+
+    /**
+     * Iterates over all words with the benchmark prefix
+     */
+    @Benchmark
+    public void wordsWithPrefix(PrefixState state, Blackhole blackhole) {
+	for (String word : trie.wordsWithPrefix(state.prefix)) {
+	    blackhole.consume(word);
+	}
+    }
+
+    private static RWayTrie fill(List<Tuple> tuples) {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+
+	for (Tuple tuple : tuples) {
+	    trie.add(tuple);
+	}
+
+	return trie;
+    }
+
+}
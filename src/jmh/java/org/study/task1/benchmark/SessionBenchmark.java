@@ -0,0 +1,79 @@
+package org.study.task1.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.study.task1.PrefixMatches;
+import org.study.task1.PrefixMatches.Session;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+
+/**
+ * Benchmarks of auto completion while a word is typed one character at a
+ * time: a new wordsWithPrefix call for every keystroke against one session
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionBenchmark {
+
+    @Param({ Dictionaries.WIKTIONARY })
+    private String dictionary;
+
+    @Param({ "international", "communication" })
+    private String word;
+
+    private PrefixMatches matches;
+
+    /**
+     * Fills the table with the dictionary words
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+	matches = new PrefixMatches(new RWayTrie(new EnglishAlphabet()));
+	matches.add(Dictionaries.words(Dictionaries.load(dictionary)));
+    }
+
+    /**
+     * Types the word calling wordsWithPrefix with every typed prefix
+     */
+    @Benchmark
+    public void wordsWithPrefix(Blackhole blackhole) {
+	for (int i = 1; i <= word.length(); i++) {
+	    for (String match : matches.wordsWithPrefix(word.substring(0, i))) {
+		blackhole.consume(match);
+	    }
+	}
+    }
+
+    /**
+     * Types the word in one session
+     */
+    @Benchmark
+    public void session(Blackhole blackhole) {
+	Session session = matches.session();
+
+	for (int i = 0; i < word.length(); i++) {
+	    blackhole.consume(session.extend(word.charAt(i)));
+	}
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.study.task1.benchmark;
+
+import java.util.List;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.study.task1.trie.Trie;
+import org.study.task1.trie.TrieStats;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Prints shape statistics of every Trie implementation built from the same
+ * dictionary, with the estimated size next to the size measured by JOL. Run
+ * with:
+ * java -cp target/benchmarks.jar org.study.task1.benchmark.Shape [path [backend...]]
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public final class Shape {
+
+    private Shape() {
+    }
+
+    /**
+     * Entry point
+     * 
+     * @param args
+     *            - optional path of the dictionary file followed by optional
+     *            names of backends, all backends by default
+     */
+    public static void main(String[] args) {
+	String path = args.length > 0 ? args[0] : Dictionaries.WIKTIONARY;
+	List<Tuple> tuples = Dictionaries.load(path);
+	Backend[] backends = Backend.values();
+
+	if (args.length > 1) {
+	    backends = new Backend[args.length - 1];
+
+	    for (int i = 1; i < args.length; i++) {
+		backends[i - 1] = Backend.valueOf(args[i]);
+	    }
+	}
+
+	for (Backend backend : backends) {
+	    Trie trie = backend.create(tuples);
+	    TrieStats stats = trie.stats();
+
+	    System.out.printf("%s (measured %d bytes)%n%s%n", backend, GraphLayout.parseInstance(trie).totalSize(),
+		    stats);
+	}
+    }
+
+}
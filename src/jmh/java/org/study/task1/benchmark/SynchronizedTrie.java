@@ -0,0 +1,83 @@
+package org.study.task1.benchmark;
+
+import org.study.task1.trie.Trie;
+import org.study.task1.trie.TrieStats;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Trie guarded by one global lock, the baseline for concurrent benchmarks.
+ * Iteration is not guarded, it is not used by the benchmarks.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class SynchronizedTrie implements Trie {
+
+    private final Trie trie;
+
+    /**
+     * Constructs lock wrapper of the specified trie
+     * 
+     * @param trie
+     *            - the specified trie
+     */
+    public SynchronizedTrie(Trie trie) {
+	this.trie = trie;
+    }
+
+    @Override
+    public synchronized void add(Tuple tuple) {
+	trie.add(tuple);
+    }
+
+    @Override
+    public synchronized void add(CharSequence word, long weight) {
+	trie.add(word, weight);
+    }
+
+    @Override
+    public synchronized boolean contains(String word) {
+	return trie.contains(word);
+    }
+
+    @Override
+    public synchronized boolean delete(String word) {
+	return trie.delete(word);
+    }
+
+    @Override
+    public Iterable<String> words() {
+	return trie.words();
+    }
+
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+	return trie.wordsWithPrefix(pref);
+    }
+
+    @Override
+    public synchronized int size() {
+	return trie.size();
+    }
+
+    @Override
+    public synchronized int nodeCount() {
+	return trie.nodeCount();
+    }
+
+    @Override
+    public synchronized TrieStats stats() {
+	return trie.stats();
+    }
+
+    @Override
+    public synchronized long weight(String word) {
+	return trie.weight(word);
+    }
+
+    @Override
+    public synchronized long version() {
+	return trie.version();
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.study.task1.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Benchmarks of frequency ranked completion: RWayTrie with cached heaviest
+ * words against the walk of all words with the prefix.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+
+    private static final int RANK_CAPACITY = 10;
+
+    @Param({ Dictionaries.WIKTIONARY })
+    private String dictionary;
+
+    @Param({ "", "co", "inter" })
+    private String prefix;
+
+    @Param({ "1", "10" })
+    private int k;
+
+    private RWayTrie cached;
+    private RWayTrie walked;
+
+    /**
+     * Fills both tries with the dictionary words weighted by frequency
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+	List<Tuple> tuples = Dictionaries.load(dictionary);
+	cached = new RWayTrie(new EnglishAlphabet(), RANK_CAPACITY);
+	walked = new RWayTrie(new EnglishAlphabet());
+
+	for (Tuple tuple : tuples) {
+	    cached.add(tuple);
+	    walked.add(tuple);
+	}
+    }
+
+    /**
+     * Takes k heaviest words from the cache of the prefix node
+     */
+    @Benchmark
+    public List<String> cached() {
+	return cached.topK(prefix, k);
+    }
+
+    /**
+     * Finds k heaviest words by walking all words with the prefix
+     */
+    @Benchmark
+    public List<String> walked() {
+	return walked.topK(prefix, k);
+    }
+
+}
@@ -0,0 +1,349 @@
+package org.study.task1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.study.task1.trie.RWayTrie.Alphabet;
+import org.study.task1.trie.Trie;
+
+/**
+ * The DictionaryLoader class loads frequency dictionaries in the
+ * "count&lt;TAB&gt;word" format of wiktionary.txt into a trie. The file is
+ * read through a FileChannel into one direct buffer that is reused for every
+ * load, and lines are parsed byte by byte without regular expressions and
+ * without creating strings for lines or fields, so memory does not depend on
+ * the size of the file. Words are decoded from UTF-8. Lines that do not have
+ * exactly a count and a word, and words with characters outside of the
+ * alphabet are skipped. The count becomes the weight of the word, counts out
+ * of range of long are limited to its largest value. Words are passed to
+ * add method of trie as a view of the reused buffer, so no tuple or string is
+ * created for a word unless the trie keeps one. The loader is not
+ * thread-safe.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class DictionaryLoader {
+
+    /**
+     * Result of one load: numbers of lines and words and the time spent
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    public static class Report {
+	private final long lines;
+	private final long words;
+	private final long nanos;
+
+	public Report(long lines, long words, long nanos) {
+	    this.lines = lines;
+	    this.words = words;
+	    this.nanos = nanos;
+	}
+
+	/**
+	 * @return the number of read lines
+	 */
+	public long getLines() {
+	    return lines;
+	}
+
+	/**
+	 * @return the number of words passed to the trie
+	 */
+	public long getWords() {
+	    return words;
+	}
+
+	/**
+	 * @return the number of skipped lines
+	 */
+	public long getSkipped() {
+	    return lines - words;
+	}
+
+	/**
+	 * @return the time of the load in nanoseconds
+	 */
+	public long getNanos() {
+	    return nanos;
+	}
+
+	/**
+	 * @return the number of lines read per second
+	 */
+	public double getLinesPerSecond() {
+	    return nanos == 0 ? 0 : lines * 1e9 / nanos;
+	}
+
+	@Override
+	public String toString() {
+	    return String.format("%d lines, %d words, %d skipped in %.1f ms (%.0f lines/s)", lines, words,
+		    getSkipped(), nanos / 1e6, getLinesPerSecond());
+	}
+
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_WORD_LENGTH = 32;
+
+    private static final int LEADING = 0; // Blanks before the count
+    private static final int COUNT = 1;
+    private static final int GAP = 2; // Blanks between the count and the word
+    private static final int WORD = 3;
+    private static final int TRAILING = 4; // Blanks after the word
+    private static final int INVALID = 5; // Rest of the line is ignored
+
+    private final boolean[] letters; // Characters of the alphabet
+    private final ByteBuffer buffer;
+    private char[] word = new char[INITIAL_WORD_LENGTH];
+
+    /**
+     * Constructs loader for words of the specified alphabet
+     * 
+     * @param alphabet
+     *            - the specified alphabet
+     */
+    public DictionaryLoader(Alphabet alphabet) {
+	this(alphabet, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs loader for words of the specified alphabet with the buffer of
+     * the specified size
+     * 
+     * @param alphabet
+     *            - the specified alphabet
+     * @param bufferSize
+     *            - size of the read buffer in bytes
+     */
+    public DictionaryLoader(Alphabet alphabet, int bufferSize) {
+	char max = 0;
+
+	for (int i = 0; i < alphabet.size(); i++) {
+	    max = (char) Math.max(max, alphabet.character(i));
+	}
+
+	letters = new boolean[max + 1];
+
+	for (int i = 0; i < alphabet.size(); i++) {
+	    letters[alphabet.character(i)] = true;
+	}
+
+	buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Adds words of the specified file to the specified trie
+     * 
+     * @param file
+     *            - the specified dictionary file
+     * @param trie
+     *            - trie to add words to
+     * @return report of the load
+     * @throws IOException
+     *             if the file can not be read
+     */
+    public Report load(Path file, Trie trie) throws IOException {
+	long start = System.nanoTime();
+	Parser parser = new Parser(trie);
+
+	try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+	    buffer.clear();
+
+	    while (channel.read(buffer) >= 0) {
+		buffer.flip();
+
+		while (buffer.hasRemaining()) {
+		    parser.accept(buffer.get());
+		}
+
+		buffer.clear();
+	    }
+	}
+
+	parser.finish();
+
+	return new Report(parser.lines, parser.words, System.nanoTime() - start);
+    }
+
+    /**
+     * State of the parsing of one file. Bytes of a line may come in different
+     * reads, so the state is kept between them. The parser is also the view
+     * of the word of the current line.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class Parser implements CharSequence {
+	private final Trie trie;
+	private int state = LEADING;
+	private long count;
+	private int length; // Length of the word
+	private int codePoint; // Code point that is being decoded
+	private int pending; // Number of continuation bytes of the code point
+	private long lines;
+	private long words;
+
+	public Parser(Trie trie) {
+	    this.trie = trie;
+	}
+
+	/**
+	 * Parses the next byte of the file
+	 */
+	public void accept(byte b) {
+	    if (b == '\n') {
+		endLine();
+		return;
+	    }
+
+	    boolean blank = b == ' ' || b == '\t' || b == '\r';
+
+	    switch (state) {
+	    case LEADING:
+		if (!blank) {
+		    state = COUNT;
+		    digit(b);
+		}
+		break;
+	    case COUNT:
+		if (blank) {
+		    state = GAP;
+		} else {
+		    digit(b);
+		}
+		break;
+	    case GAP:
+		if (!blank) {
+		    state = WORD;
+		    letter(b);
+		}
+		break;
+	    case WORD:
+		if (blank) {
+		    state = pending == 0 ? TRAILING : INVALID;
+		} else {
+		    letter(b);
+		}
+		break;
+	    case TRAILING:
+		if (!blank) {
+		    state = INVALID;
+		}
+		break;
+	    default:
+		break;
+	    }
+	}
+
+	/**
+	 * Ends the last line if the file does not end with line feed
+	 */
+	public void finish() {
+	    if (state != LEADING) {
+		endLine();
+	    }
+	}
+
+	private void digit(byte b) {
+	    if (b < '0' || b > '9') {
+		state = INVALID;
+	    } else if (count > (Long.MAX_VALUE - (b - '0')) / 10) {
+		count = Long.MAX_VALUE;
+	    } else {
+		count = count * 10 + b - '0';
+	    }
+	}
+
+	/**
+	 * Decodes the next byte of the word from UTF-8
+	 */
+	private void letter(byte b) {
+	    if (pending > 0) {
+		if ((b & 0xC0) != 0x80) {
+		    state = INVALID;
+		    return;
+		}
+
+		codePoint = codePoint << 6 | b & 0x3F;
+
+		if (--pending == 0) {
+		    if (Character.isBmpCodePoint(codePoint)) {
+			append((char) codePoint);
+		    } else {
+			append(Character.highSurrogate(codePoint));
+			append(Character.lowSurrogate(codePoint));
+		    }
+		}
+	    } else if (b >= 0) {
+		append((char) b);
+	    } else if ((b & 0xE0) == 0xC0) {
+		codePoint = b & 0x1F;
+		pending = 1;
+	    } else if ((b & 0xF0) == 0xE0) {
+		codePoint = b & 0x0F;
+		pending = 2;
+	    } else if ((b & 0xF8) == 0xF0) {
+		codePoint = b & 0x07;
+		pending = 3;
+	    } else {
+		state = INVALID;
+	    }
+	}
+
+	private void append(char character) {
+	    if (character >= letters.length || !letters[character]) {
+		state = INVALID;
+		return;
+	    }
+
+	    if (length == word.length) {
+		word = Arrays.copyOf(word, length * 2);
+	    }
+
+	    word[length++] = character;
+	}
+
+	private void endLine() {
+	    lines++;
+
+	    if ((state == WORD || state == TRAILING) && pending == 0) {
+		trie.add(this, count);
+		words++;
+	    }
+
+	    state = LEADING;
+	    count = 0;
+	    length = 0;
+	    pending = 0;
+	}
+
+	@Override
+	public int length() {
+	    return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+	    return word[index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+	    return new String(word, start, end - start);
+	}
+
+	@Override
+	public String toString() {
+	    return new String(word, 0, length);
+	}
+
+    }
+
+}
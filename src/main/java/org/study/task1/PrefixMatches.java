@@ -1,9 +1,29 @@
 package org.study.task1;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.NoSuchElementException;
-
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.study.task1.metrics.TrieMetrics;
+import org.study.task1.metrics.TrieMetrics.Operation;
 import org.study.task1.trie.Trie;
+import org.study.task1.trie.TrieCursor;
+import org.study.task1.trie.WordVisitor;
 import org.study.task1.trie.tuple.Tuple;
 
 /**
@@ -13,7 +33,11 @@ import org.study.task1.trie.tuple.Tuple;
  * find the groups of words with specified prefix. The add, contains, delete,
  * operations take time proportional to the length of the key (in the worst
  * case). Construction takes constant time. The size operation takes constant
- * time.
+ * time. Table created by withCache method keeps results of wordsWithPrefix
+ * methods for the recently used prefixes until the version of trie changes.
+ * After enableMetrics is called, latencies of add, contains, delete and
+ * wordsWithPrefix calls are recorded and published through JMX. The
+ * completeAll methods find words of many prefixes in parallel.
  * 
  * @author Andrii_Lehuta
  *
@@ -22,7 +46,105 @@ public class PrefixMatches implements Iterable<String> {
 
     private static final int DEFAULTK = 3;
     private static final int MIN_PREFIX = 2;
+    private static final int MAX_ATTEMPTS = 3; // Attempts of completeAll to find lists at one version
     private Trie trie;
+    private final Cache cache; // Recently used results, null if disabled
+    private volatile TrieMetrics metrics; // Null if metrics are disabled
+
+    /**
+     * Key of cached result
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Key {
+	private final String pref;
+	private final int k;
+
+	public Key(String pref, int k) {
+	    this.pref = pref;
+	    this.k = k;
+	}
+
+	@Override
+	public int hashCode() {
+	    return 31 * pref.hashCode() + k;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+	    Key other = (Key) object;
+	    return k == other.k && pref.equals(other.pref);
+	}
+
+    }
+
+    /**
+     * Words found at the specified version of trie
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Result {
+	private final long version;
+	private final List<String> words;
+
+	public Result(long version, List<String> words) {
+	    this.version = version;
+	    this.words = words;
+	}
+
+    }
+
+    /**
+     * Recently used results split into segments by hash of key. Every segment
+     * is a map in access order with its own lock and evicts its least recently
+     * used result, so parallel calls for different prefixes rarely wait for
+     * each other and the order of eviction is close to LRU order of the whole
+     * cache. Small caches keep one segment and exact LRU order.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Cache {
+	private static final int MAX_SEGMENTS = 16;
+	private static final int MIN_SEGMENT_SIZE = 64;
+
+	private final Map<Key, Result>[] segments;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	@SuppressWarnings("unchecked")
+	public Cache(int size) {
+	    int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, size / MIN_SEGMENT_SIZE)));
+	    segments = new Map[count];
+
+	    for (int i = 0; i < count; i++) {
+		int capacity = size / count + (i < size % count ? 1 : 0);
+
+		segments[i] = new LinkedHashMap<Key, Result>(16, 0.75f, true) {
+
+		    private static final long serialVersionUID = 1L;
+
+		    @Override
+		    protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+			return size() > capacity;
+		    }
+
+		};
+	    }
+	}
+
+	/**
+	 * Returns the segment of the specified key, the segment is used under
+	 * its own lock
+	 */
+	Map<Key, Result> segment(Key key) {
+	    int hash = key.hashCode();
+	    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+	}
+
+    }
 
     /**
      * Consrtucts table with the help of specified trie
@@ -31,7 +153,38 @@ public class PrefixMatches implements Iterable<String> {
      *            - specified trie
      */
     public PrefixMatches(Trie trie) {
+	this(trie, null);
+    }
+
+    private PrefixMatches(Trie trie, Cache cache) {
 	this.trie = trie;
+	this.cache = cache;
+    }
+
+    /**
+     * Constructs table with the help of specified trie that keeps results of
+     * wordsWithPrefix methods for cacheSize recently used prefixes. A result
+     * is used only while the version of trie is the same as when it was
+     * found, so changes of trie are always visible. Caches of 128 results or
+     * more are split into segments with their own locks, and the least
+     * recently used result of a segment is evicted.
+     * 
+     * @param trie
+     *            - specified trie
+     * @param cacheSize
+     *            - maximal number of cached results, 0 disables cache
+     * @return the new table
+     */
+    public static PrefixMatches withCache(Trie trie, int cacheSize) {
+	if (cacheSize < 0) {
+	    throw new IllegalArgumentException();
+	}
+
+	if (cacheSize == 0) {
+	    return new PrefixMatches(trie);
+	}
+
+	return new PrefixMatches(trie, new Cache(cacheSize));
     }
 
     /**
@@ -49,7 +202,7 @@ public class PrefixMatches implements Iterable<String> {
 
 	    for (String word : words) {
 		if (word.length() >= 2) {
-		    trie.add(new Tuple(word, word.length()));
+		    addToTrie(new Tuple(word, word.length()));
 		}
 	    }
 	}
@@ -57,6 +210,40 @@ public class PrefixMatches implements Iterable<String> {
 	return trie.size() - oldSize;
     }
 
+    /**
+     * Adds the specified array of weighted words to this table. Weight is used
+     * by topK method, words shorter than two characters are skipped, and so
+     * are words with characters out of the alphabet of the trie.
+     * 
+     * @param tuples
+     *            - the specified array of words with their weights
+     * @return the number of added words
+     */
+    public int add(Tuple... tuples) {
+	int oldSize = trie.size();
+
+	for (Tuple tuple : tuples) {
+	    if (tuple.getWord().length() >= MIN_PREFIX) {
+		addToTrie(tuple);
+	    }
+	}
+
+	return trie.size() - oldSize;
+    }
+
+    private void addToTrie(Tuple tuple) {
+	TrieMetrics metrics = this.metrics;
+
+	if (metrics == null) {
+	    trie.add(tuple);
+	    return;
+	}
+
+	long start = System.nanoTime();
+	trie.add(tuple);
+	metrics.record(Operation.ADD, System.nanoTime() - start);
+    }
+
     /**
      * Returns true if table contains the specified word.
      * 
@@ -65,7 +252,17 @@ public class PrefixMatches implements Iterable<String> {
      * @return true if this table contains the specified word
      */
     public boolean contains(String word) {
-	return trie.contains(word);
+	TrieMetrics metrics = this.metrics;
+
+	if (metrics == null) {
+	    return trie.contains(word);
+	}
+
+	long start = System.nanoTime();
+	boolean result = trie.contains(word);
+	metrics.record(Operation.CONTAINS, System.nanoTime() - start);
+
+	return result;
     }
 
     /**
@@ -76,7 +273,17 @@ public class PrefixMatches implements Iterable<String> {
      * @return true if the specified word is deleted
      */
     public boolean delete(String word) {
-	return trie.delete(word);
+	TrieMetrics metrics = this.metrics;
+
+	if (metrics == null) {
+	    return trie.delete(word);
+	}
+
+	long start = System.nanoTime();
+	boolean result = trie.delete(word);
+	metrics.record(Operation.DELETE, System.nanoTime() - start);
+
+	return result;
     }
 
     /**
@@ -103,15 +310,287 @@ public class PrefixMatches implements Iterable<String> {
 
 	    public Iterator<String> iterator() {
 		if (pref.length() < MIN_PREFIX) {
-		    return new PrefixMatchesIterator(pref, 0, trie);
+		    return Collections.emptyIterator();
+		} else if (metrics == null && cache == null) {
+		    return trie.wordsWithPrefix(pref, k).iterator();
 		} else {
-		    return new PrefixMatchesIterator(pref, k, trie);
+		    return complete(pref, k).iterator();
 		}
 	    }
 
 	};
     }
 
+    /**
+     * Finds all words of k groups with the specified prefix, from cache if it
+     * is enabled, and records the time if metrics are enabled
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param k
+     *            - number of groups
+     * @return unmodifiable list of words
+     */
+    private List<String> complete(String pref, int k) {
+	if (pref.length() < MIN_PREFIX) {
+	    return Collections.emptyList();
+	}
+
+	TrieMetrics metrics = this.metrics;
+
+	if (metrics == null) {
+	    return cache != null ? cached(pref, k) : find(pref, k);
+	}
+
+	long start = System.nanoTime();
+	List<String> words = cache != null ? cached(pref, k) : find(pref, k);
+	metrics.record(Operation.WORDS_WITH_PREFIX, System.nanoTime() - start);
+
+	return words;
+    }
+
+    /**
+     * Returns k groups of words for every one of the specified prefixes, like
+     * wordsWithPrefix method, finding them in parallel in the common
+     * ForkJoinPool. If the common pool has no more than one thread, the words
+     * are found in the calling thread.
+     * 
+     * @param prefixes
+     *            - the specified prefixes
+     * @param k
+     *            - number of groups for every prefix
+     * @return lists of words in the order of prefixes
+     * @throws ConcurrentModificationException
+     *             if the trie changes during every attempt
+     */
+    public List<List<String>> completeAll(Collection<String> prefixes, int k) {
+	int parallelism = ForkJoinPool.getCommonPoolParallelism();
+
+	return completeAll(new ArrayList<String>(prefixes), k, ForkJoinPool.commonPool(),
+		parallelism > 1 ? parallelism : 0);
+    }
+
+    /**
+     * Returns k groups of words for every one of the specified prefixes, like
+     * wordsWithPrefix method, finding them in parallel on the specified
+     * executor. Any executor fits, for example a ForkJoinPool or an executor
+     * of virtual threads on Java 21. Prefixes are split into one task per
+     * thread of a ForkJoinPool or ThreadPoolExecutor, and into one task per
+     * prefix for other executors, the calling thread takes one of the tasks.
+     * All lists are found at the same version of trie: if the version changes
+     * or a walk fails with ConcurrentModificationException while they are
+     * found, they are found again, at most three times. Tasks of a failed
+     * attempt that have not started yet are cancelled.
+     * 
+     * @param prefixes
+     *            - the specified prefixes
+     * @param k
+     *            - number of groups for every prefix
+     * @param executor
+     *            - executor that finds the words
+     * @return lists of words in the order of prefixes
+     * @throws ConcurrentModificationException
+     *             if the trie changes during every attempt
+     */
+    public List<List<String>> completeAll(Collection<String> prefixes, int k, Executor executor) {
+	int parallelism = Integer.MAX_VALUE;
+
+	if (executor instanceof ForkJoinPool) {
+	    parallelism = ((ForkJoinPool) executor).getParallelism();
+	} else if (executor instanceof ThreadPoolExecutor) {
+	    parallelism = ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+	}
+
+	return completeAll(new ArrayList<String>(prefixes), k, executor, parallelism);
+    }
+
+    private List<List<String>> completeAll(List<String> prefixes, int k, Executor executor, int parallelism) {
+	int tasks = (int) Math.min(prefixes.size(), parallelism + 1L);
+
+	for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+	    long version = trie.version();
+	    List<CompletableFuture<List<List<String>>>> futures = new ArrayList<CompletableFuture<List<List<String>>>>();
+
+	    for (int i = 1; i < tasks; i++) {
+		List<String> part = prefixes.subList(i * prefixes.size() / tasks, (i + 1) * prefixes.size() / tasks);
+
+		futures.add(CompletableFuture.supplyAsync(new Supplier<List<List<String>>>() {
+
+		    @Override
+		    public List<List<String>> get() {
+			return completeEach(part, k);
+		    }
+
+		}, executor));
+	    }
+
+	    List<List<String>> result = new ArrayList<List<String>>(prefixes.size());
+
+	    try {
+		// The calling thread finds the first part while it waits
+		result.addAll(completeEach(prefixes.subList(0, tasks == 0 ? 0 : prefixes.size() / tasks), k));
+
+		for (CompletableFuture<List<List<String>>> future : futures) {
+		    result.addAll(future.join());
+		}
+	    } catch (RuntimeException e) {
+		// Tasks that have not started yet are not run
+		for (CompletableFuture<List<List<String>>> future : futures) {
+		    future.cancel(false);
+		}
+
+		RuntimeException cause = e;
+
+		if (e instanceof CompletionException && e.getCause() instanceof RuntimeException) {
+		    cause = (RuntimeException) e.getCause();
+		}
+
+		// A walk that met a write is a failed attempt like a changed version
+		if (cause instanceof ConcurrentModificationException) {
+		    continue;
+		}
+
+		throw cause;
+	    }
+
+	    if (trie.version() == version) {
+		return result;
+	    }
+	}
+
+	throw new ConcurrentModificationException();
+    }
+
+    private List<List<String>> completeEach(List<String> prefixes, int k) {
+	List<List<String>> result = new ArrayList<List<String>>(prefixes.size());
+
+	for (String pref : prefixes) {
+	    result.add(complete(pref, k));
+	}
+
+	return result;
+    }
+
+    /**
+     * Returns the cached result for the specified prefix if the trie did not
+     * change since it was found, otherwise finds and caches the words
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param k
+     *            - number of groups
+     * @return unmodifiable list of words
+     */
+    private List<String> cached(String pref, int k) {
+	Key key = new Key(pref, k);
+	Map<Key, Result> segment = cache.segment(key);
+	long version = trie.version(); // Read before the walk, a change during it makes result stale
+
+	synchronized (segment) {
+	    Result result = segment.get(key);
+
+	    if (result != null && result.version == version) {
+		cache.hits.increment();
+		return result.words;
+	    }
+	}
+
+	cache.misses.increment();
+	List<String> words = find(pref, k);
+
+	synchronized (segment) {
+	    segment.put(key, new Result(version, words));
+	}
+
+	return words;
+    }
+
+    /**
+     * Finds all words of k groups with the specified prefix
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param k
+     *            - number of groups
+     * @return unmodifiable list of words
+     */
+    private List<String> find(String pref, int k) {
+	List<String> words = new ArrayList<String>();
+
+	for (String word : trie.wordsWithPrefix(pref, k)) {
+	    words.add(word);
+	}
+
+	return Collections.unmodifiableList(words);
+    }
+
+    /**
+     * Starts recording of latencies of this table and registers its metrics
+     * in the platform MBean server as
+     * org.study.task1:type=PrefixMatches,name=&lt;name&gt;. While metrics are
+     * enabled, wordsWithPrefix finds all words when iteration starts, so the
+     * recorded time is the time of the whole search.
+     * 
+     * @param name
+     *            - name of the table, unique among registered tables
+     * @return the name of the registered bean
+     * @throws JMException
+     *             if a bean with the same name is registered
+     */
+    public synchronized ObjectName enableMetrics(String name) throws JMException {
+	disableMetrics();
+
+	TrieMetrics created = new TrieMetrics(trie);
+	ObjectName objectName = created.register(name);
+	metrics = created;
+
+	return objectName;
+    }
+
+    /**
+     * Stops recording of latencies and removes the bean of this table from
+     * the platform MBean server
+     * 
+     * @throws JMException
+     *             if the server fails
+     */
+    public synchronized void disableMetrics() throws JMException {
+	TrieMetrics current = metrics;
+
+	if (current != null) {
+	    metrics = null;
+	    current.unregister();
+	}
+    }
+
+    /**
+     * Returns metrics of this table
+     * 
+     * @return the metrics or null if they are disabled
+     */
+    public TrieMetrics metrics() {
+	return metrics;
+    }
+
+    /**
+     * Returns the number of wordsWithPrefix calls answered from cache
+     * 
+     * @return the number of cache hits
+     */
+    public long cacheHits() {
+	return cache == null ? 0 : cache.hits.sum();
+    }
+
+    /**
+     * Returns the number of wordsWithPrefix calls that walked the trie because
+     * there was no valid cached result
+     * 
+     * @return the number of cache misses
+     */
+    public long cacheMisses() {
+	return cache == null ? 0 : cache.misses.sum();
+    }
+
     /**
      * Returns group of words that contains the specified prefix
      * 
@@ -130,58 +609,171 @@ public class PrefixMatches implements Iterable<String> {
     }
 
     /**
-     * Iterator for PrefixMatches table. Returns the k group of words
+     * Passes k groups of words that contain the specified prefix to the
+     * visitor until the visitor returns false. Words are passed in a reused
+     * buffer, so no String is created for them by RWayTrie.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param k
+     *            - number of groups to visit
+     * @param visitor
+     *            - visitor of the found words
+     */
+    public void forEachWithPrefix(String pref, int k, WordVisitor visitor) {
+	if (pref.length() < MIN_PREFIX || k <= 0) {
+	    return;
+	}
+
+	trie.forEachWithPrefix(pref, k, visitor);
+    }
+
+    /**
+     * Returns session of auto completion for a prefix that is typed one
+     * character at a time
+     * 
+     * @param k
+     *            - number of groups returned for every prefix
+     * @return the new session with the empty prefix
+     */
+    public Session session(int k) {
+	return new Session(k);
+    }
+
+    /**
+     * Returns session of auto completion that returns three groups of words
+     * for every prefix
+     * 
+     * @return the new session with the empty prefix
+     */
+    public Session session() {
+	return new Session(DEFAULTK);
+    }
+
+    /**
+     * Session of auto completion for one input field. The prefix is changed
+     * one character at a time and kept by the trie cursor. Every step returns
+     * k groups of words with the new prefix, found by the cursor with k
+     * lengths like wordsWithPrefix method, so cursors that keep the node of
+     * the prefix do not walk the prefix again. Session is not thread-safe.
      * 
      * @author Andrii_Lehuta
      *
      */
-    private static class PrefixMatchesIterator implements Iterator<String> {
+    public class Session {
+	private final TrieCursor cursor = trie.cursor();
+	private final int k;
 
-	private Iterator<String> rwayIterator;
-	private String currentWord = "";
-	private String nextWord = "";
-	private int k;
-
-	public PrefixMatchesIterator(String pref, int k, Trie trie) {
-	    rwayIterator = trie.wordsWithPrefix(pref).iterator();
+	private Session(int k) {
 	    this.k = k;
+	}
 
-	    if (rwayIterator.hasNext()) {
-		currentWord = rwayIterator.next();
-	    } else {
-		this.k = 0;
-	    }
+	/**
+	 * Appends the specified character to the prefix
+	 * 
+	 * @param character
+	 *            - the typed character
+	 * @return k groups of words with the new prefix
+	 */
+	public List<String> extend(char character) {
+	    cursor.extend(character);
+	    return matches();
 	}
 
-	@Override
-	public boolean hasNext() {
-	    return k > 0;
+	/**
+	 * Removes the last character of the prefix if it is not empty
+	 * 
+	 * @return k groups of words with the new prefix
+	 */
+	public List<String> backspace() {
+	    cursor.backspace();
+	    return matches();
 	}
 
-	@Override
-	public String next() {
+	/**
+	 * Returns the current prefix
+	 * 
+	 * @return the current prefix
+	 */
+	public String prefix() {
+	    return cursor.prefix();
+	}
 
-	    if (k <= 0) {
-		throw new NoSuchElementException();
+	/**
+	 * Returns k groups of words with the current prefix. Prefix shorter
+	 * than two characters has no matches.
+	 * 
+	 * @return list of words, shorter words first
+	 */
+	public List<String> matches() {
+	    List<String> words = new ArrayList<String>();
+
+	    if (cursor.length() >= MIN_PREFIX && k > 0) {
+		cursor.forEachWord(k, new WordVisitor() {
+
+		    @Override
+		    public boolean visit(char[] word, int length, long weight) {
+			words.add(new String(word, 0, length));
+			return true;
+		    }
+
+		});
 	    }
 
-	    if (rwayIterator.hasNext()) {
-		nextWord = rwayIterator.next();
+	    return words;
+	}
 
-		if (currentWord.length() < nextWord.length()) {
-		    k--;
-		}
+    }
 
-	    } else {
-		k = 0;
-	    }
+    /**
+     * Passes three groups of words that contain the specified prefix to the
+     * visitor until the visitor returns false
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param visitor
+     *            - visitor of the found words
+     */
+    public void forEachWithPrefix(String pref, WordVisitor visitor) {
+	forEachWithPrefix(pref, DEFAULTK, visitor);
+    }
 
-	    String result = currentWord;
-	    currentWord = nextWord;
+    /**
+     * Returns k words with the biggest weight that contain the specified
+     * prefix
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param k
+     *            - number of words to return
+     * @return list of k or less words, heaviest first
+     */
+    public List<String> topK(String pref, int k) {
+	if (pref.length() < MIN_PREFIX) {
+	    return Collections.emptyList();
+	}
 
-	    return result;
+	return trie.topK(pref, k);
+    }
+
+    /**
+     * Returns k words that begin with the specified prefix typed with at most
+     * maxEdits mistakes, the closest and then the heaviest first
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param maxEdits
+     *            - maximal number of inserted, deleted or replaced characters
+     * @param k
+     *            - number of words to return
+     * @return list of k or less words
+     */
+    public List<String> fuzzyWordsWithPrefix(String pref, int maxEdits, int k) {
+	if (pref.length() < MIN_PREFIX) {
+	    return Collections.emptyList();
 	}
 
+	return trie.fuzzyWordsWithPrefix(pref, maxEdits, k);
     }
 
     /**
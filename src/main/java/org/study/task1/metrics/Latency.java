@@ -0,0 +1,60 @@
+package org.study.task1.metrics;
+
+/**
+ * Snapshot of latencies of one operation. All times are in nanoseconds,
+ * percentiles are upper bounds of histogram buckets.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class Latency {
+    private final long count;
+    private final long mean;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+
+    public Latency(long count, long mean, long p50, long p99, long p999) {
+	this.count = count;
+	this.mean = mean;
+	this.p50 = p50;
+	this.p99 = p99;
+	this.p999 = p999;
+    }
+
+    /**
+     * @return the number of recorded calls
+     */
+    public long getCount() {
+	return count;
+    }
+
+    /**
+     * @return the mean latency
+     */
+    public long getMean() {
+	return mean;
+    }
+
+    /**
+     * @return the median latency
+     */
+    public long getP50() {
+	return p50;
+    }
+
+    /**
+     * @return the 99th percentile of latency
+     */
+    public long getP99() {
+	return p99;
+    }
+
+    /**
+     * @return the 99.9th percentile of latency
+     */
+    public long getP999() {
+	return p999;
+    }
+
+}
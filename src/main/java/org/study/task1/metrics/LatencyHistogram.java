@@ -0,0 +1,112 @@
+package org.study.task1.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds for many concurrent writers. Every
+ * power of two is split into four buckets, so a percentile is found with
+ * error of at most a quarter of its value. Buckets are LongAdders: threads
+ * that record at the same time update different cells instead of contending
+ * for one counter, and reading sums the cells. A snapshot taken during
+ * recording may miss the latest values.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder(); // Sum of latencies
+
+    /**
+     * Constructs empty histogram
+     */
+    public LatencyHistogram() {
+	for (int i = 0; i < BUCKETS; i++) {
+	    buckets[i] = new LongAdder();
+	}
+    }
+
+    /**
+     * Returns the bucket of the specified latency. Values below SUB_BUCKETS
+     * have their own buckets, larger values are split by the highest bit and
+     * the next SUB_BITS bits.
+     */
+    static int bucket(long nanos) {
+	if (nanos < SUB_BUCKETS) {
+	    return (int) Math.max(nanos, 0);
+	}
+
+	int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+	int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+	return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest latency of the specified bucket
+     */
+    static long upperBound(int bucket) {
+	if (bucket < SUB_BUCKETS) {
+	    return bucket;
+	}
+
+	int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+	long sub = bucket % SUB_BUCKETS;
+	long lower = (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+
+	return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Records the specified latency
+     * 
+     * @param nanos
+     *            - latency in nanoseconds
+     */
+    public void record(long nanos) {
+	buckets[bucket(nanos)].increment();
+	total.add(nanos);
+    }
+
+    /**
+     * Returns the current values of the histogram
+     * 
+     * @return the snapshot of the histogram
+     */
+    public Latency snapshot() {
+	long[] counts = new long[BUCKETS];
+	long count = 0;
+
+	for (int i = 0; i < BUCKETS; i++) {
+	    counts[i] = buckets[i].sum();
+	    count += counts[i];
+	}
+
+	return new Latency(count, count == 0 ? 0 : total.sum() / count, percentile(counts, count, 0.5),
+		percentile(counts, count, 0.99), percentile(counts, count, 0.999));
+    }
+
+    /**
+     * Returns the upper bound of the bucket that holds the specified fraction
+     * of recorded latencies
+     */
+    private static long percentile(long[] counts, long count, double fraction) {
+	long rank = (long) Math.ceil(count * fraction);
+	long seen = 0;
+
+	for (int i = 0; i < counts.length; i++) {
+	    seen += counts[i];
+
+	    if (seen >= rank && seen > 0) {
+		return upperBound(i);
+	    }
+	}
+
+	return 0;
+    }
+
+}
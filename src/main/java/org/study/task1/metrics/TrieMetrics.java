@@ -0,0 +1,158 @@
+package org.study.task1.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.study.task1.trie.Trie;
+
+/**
+ * Metrics of operations on one trie that are published as an MXBean. Every
+ * operation has its own latency histogram, the number of words and the
+ * version are read from the trie when they are asked for. The number of nodes
+ * takes a walk of the whole trie, so it is kept with the version it was
+ * counted at and counted again only after the trie is changed. Recording is
+ * thread-safe and takes a few striped counter updates. PrefixMatches records
+ * its calls into these metrics, a bare trie is published with new
+ * TrieMetrics(trie).register(name) and gets its counts without latencies.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class TrieMetrics implements TrieMetricsMXBean {
+    /**
+     * Operations with recorded latencies
+     */
+    public enum Operation {
+	ADD, CONTAINS, DELETE, WORDS_WITH_PREFIX
+    }
+
+    /**
+     * Number of nodes of the trie at the version
+     */
+    private static class NodeCount {
+	private final long version;
+	private final int count;
+
+	public NodeCount(long version, int count) {
+	    this.version = version;
+	    this.count = count;
+	}
+
+    }
+
+    private static final String DOMAIN = "org.study.task1";
+
+    private final Trie trie;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Operation.values().length];
+    private ObjectName name; // Name of the registered bean, null if it is not registered
+    private volatile NodeCount nodeCount; // Last counted number of nodes
+
+    /**
+     * Constructs metrics of the specified trie
+     * 
+     * @param trie
+     *            - the specified trie
+     */
+    public TrieMetrics(Trie trie) {
+	this.trie = trie;
+
+	for (int i = 0; i < histograms.length; i++) {
+	    histograms[i] = new LatencyHistogram();
+	}
+    }
+
+    /**
+     * Records the latency of one call of the specified operation
+     * 
+     * @param operation
+     *            - the specified operation
+     * @param nanos
+     *            - latency in nanoseconds
+     */
+    public void record(Operation operation, long nanos) {
+	histograms[operation.ordinal()].record(nanos);
+    }
+
+    /**
+     * Registers this bean in the platform MBean server with the name
+     * org.study.task1:type=PrefixMatches,name=&lt;name&gt;
+     * 
+     * @param name
+     *            - name of the table
+     * @return the name of the registered bean
+     * @throws JMException
+     *             if a bean with the same name is registered
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+	ObjectName objectName = new ObjectName(DOMAIN + ":type=PrefixMatches,name=" + ObjectName.quote(name));
+	ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+	this.name = objectName;
+
+	return objectName;
+    }
+
+    /**
+     * Removes this bean from the platform MBean server if it is registered
+     * 
+     * @throws JMException
+     *             if the server fails
+     */
+    public synchronized void unregister() throws JMException {
+	if (name != null) {
+	    ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+	    name = null;
+	}
+    }
+
+    @Override
+    public Latency getAdd() {
+	return histograms[Operation.ADD.ordinal()].snapshot();
+    }
+
+    @Override
+    public Latency getContains() {
+	return histograms[Operation.CONTAINS.ordinal()].snapshot();
+    }
+
+    @Override
+    public Latency getDelete() {
+	return histograms[Operation.DELETE.ordinal()].snapshot();
+    }
+
+    @Override
+    public Latency getWordsWithPrefix() {
+	return histograms[Operation.WORDS_WITH_PREFIX.ordinal()].snapshot();
+    }
+
+    @Override
+    public int getWordCount() {
+	return trie.size();
+    }
+
+    /**
+     * Returns the number of nodes of the trie, it is counted again only if the
+     * version of the trie is changed since the last count
+     * 
+     * @return the number of nodes of trie or -1 if it is not known
+     */
+    @Override
+    public int getNodeCount() {
+	NodeCount cached = nodeCount;
+	long version = trie.version(); // Read before the walk, a change during it is counted next time
+
+	if (cached == null || cached.version != version) {
+	    cached = new NodeCount(version, trie.nodeCount());
+	    nodeCount = cached;
+	}
+
+	return cached.count;
+    }
+
+    @Override
+    public long getVersion() {
+	return trie.version();
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.study.task1.metrics;
+
+/**
+ * Management interface of metrics of one PrefixMatches table and its trie
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public interface TrieMetricsMXBean {
+    /**
+     * @return latencies of add calls
+     */
+    Latency getAdd();
+
+    /**
+     * @return latencies of contains calls
+     */
+    Latency getContains();
+
+    /**
+     * @return latencies of delete calls
+     */
+    Latency getDelete();
+
+    /**
+     * @return latencies of wordsWithPrefix calls, the time to find all words
+     */
+    Latency getWordsWithPrefix();
+
+    /**
+     * @return the number of words of trie
+     */
+    int getWordCount();
+
+    /**
+     * @return the number of nodes of trie or -1 if it is not known
+     */
+    int getNodeCount();
+
+    /**
+     * @return the modification version of trie
+     */
+    long getVersion();
+
+}
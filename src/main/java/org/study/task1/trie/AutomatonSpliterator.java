@@ -0,0 +1,195 @@
+package org.study.task1.trie;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over words of a read-only automaton that knows the number of
+ * words below every state. Words come in alphabet order, depth-first, and the
+ * walk is split on the edges of the shallowest state that has two or more
+ * edges left, in halves by number of words. Sizes of both parts are exact.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+abstract class AutomatonSpliterator implements Spliterator<String>, Cloneable {
+
+    private static final int INITIAL_DEPTH = 16;
+
+    private final int prefixLength;
+    private char[] buffer;
+    private int[] states = new int[INITIAL_DEPTH];
+    private int[] edges = new int[INITIAL_DEPTH]; // Next edge of every state
+    private int[] ends = new int[INITIAL_DEPTH]; // End of edges of every state
+    private int base; // Level of the first state of this part
+    private int level; // Index of the state which edges are walked
+    private boolean pending; // The word of the start state is not returned yet
+    private long size;
+
+    /**
+     * Constructs spliterator over words that begin with the specified prefix
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param start
+     *            - state of the prefix
+     */
+    AutomatonSpliterator(String pref, int start) {
+	prefixLength = pref.length();
+	buffer = new char[prefixLength + INITIAL_DEPTH];
+	pref.getChars(0, prefixLength, buffer, 0);
+	states[0] = start;
+	edges[0] = first(start);
+	ends[0] = first(start + 1);
+	pending = terminal(start);
+	size = count(start);
+    }
+
+    /**
+     * @return the first edge of the state, first(state + 1) ends its edges
+     */
+    abstract int first(int state);
+
+    /**
+     * @return the character of the edge
+     */
+    abstract char label(int edge);
+
+    /**
+     * @return the target state of the edge
+     */
+    abstract int target(int edge);
+
+    /**
+     * @return true if a word ends at the state
+     */
+    abstract boolean terminal(int state);
+
+    /**
+     * @return the number of words that can be completed from the state
+     */
+    abstract int count(int state);
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+	if (pending) {
+	    pending = false;
+	    size--;
+	    action.accept(new String(buffer, 0, prefixLength));
+	    return true;
+	}
+
+	while (level >= base) {
+	    int edge = edges[level];
+
+	    if (edge == ends[level]) {
+		level--;
+		continue;
+	    }
+
+	    edges[level] = edge + 1;
+	    ensureDepth();
+	    buffer[prefixLength + level] = label(edge);
+
+	    int state = target(edge);
+	    level++;
+	    states[level] = state;
+	    edges[level] = first(state);
+	    ends[level] = first(state + 1);
+
+	    if (terminal(state)) {
+		size--;
+		action.accept(new String(buffer, 0, prefixLength + level));
+		return true;
+	    }
+	}
+
+	return false;
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+	long after = 0; // Words of the levels above the split
+
+	for (int l = base; l <= level; l++) {
+	    if (ends[l] - edges[l] >= 2) {
+		long words = words(edges[l], ends[l]);
+		int mid = edges[l] + 1;
+		long first = count(target(edges[l]));
+
+		while (mid < ends[l] - 1 && 2 * first < words) {
+		    first += count(target(mid));
+		    mid++;
+		}
+
+		AutomatonSpliterator prefix = copy();
+		prefix.base = l;
+		prefix.ends[l] = mid;
+		prefix.size = size - (words - first) - after;
+
+		pending = false;
+		level = l;
+		edges[l] = mid;
+		size = words - first + after;
+
+		return prefix;
+	    }
+
+	    after += words(edges[l], ends[l]);
+	}
+
+	return null;
+    }
+
+    /**
+     * Returns the number of words below the edges from the specified one to
+     * the specified end
+     */
+    private long words(int from, int to) {
+	long words = 0;
+
+	for (int edge = from; edge < to; edge++) {
+	    words += count(target(edge));
+	}
+
+	return words;
+    }
+
+    private AutomatonSpliterator copy() {
+	try {
+	    AutomatonSpliterator copy = (AutomatonSpliterator) clone();
+	    copy.buffer = buffer.clone();
+	    copy.states = states.clone();
+	    copy.edges = edges.clone();
+	    copy.ends = ends.clone();
+
+	    return copy;
+	} catch (CloneNotSupportedException e) {
+	    throw new AssertionError(e);
+	}
+    }
+
+    private void ensureDepth() {
+	if (level + 1 == states.length) {
+	    states = Arrays.copyOf(states, states.length * 2);
+	    edges = Arrays.copyOf(edges, states.length);
+	    ends = Arrays.copyOf(ends, states.length);
+	}
+
+	if (prefixLength + level == buffer.length) {
+	    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+	}
+    }
+
+    @Override
+    public long estimateSize() {
+	return size;
+    }
+
+    @Override
+    public int characteristics() {
+	return ORDERED | DISTINCT | NONNULL | SIZED | SUBSIZED | IMMUTABLE;
+    }
+
+}
@@ -0,0 +1,568 @@
+package org.study.task1.trie;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.study.task1.trie.RWayTrie.Alphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * The ConcurrentRWayTrie class represents a thread-safe table of words based
+ * on R-way trie for many concurrent writers. Children are kept in atomic
+ * arrays and a new child is installed with compare-and-set, so threads that
+ * add words into different subtrees never wait for each other. Weights are
+ * changed atomically and the number of words is counted by LongAdder. A node
+ * keeps an immutable weight holder or null if no word ends at it, so every
+ * long is a valid weight and the weight and presence of a word change in one
+ * atomic step. Nodes are never removed: delete only clears the weight holder
+ * of the word. The version is incremented after every change is made, so a result computed during a
+ * change never matches a later version. Iterators are weakly consistent: they
+ * never throw ConcurrentModificationException and may or may not reflect
+ * changes made after their creation. The add, contains,
+ * delete operations take time proportional to the length of the key.
+ * Construction takes constant time. The size operation takes time
+ * proportional to the number of contending threads.
+ * 
+ * @author Andrii_Lehuta
+ */
+public class ConcurrentRWayTrie implements Trie, Iterable<String> {
+    /**
+     * Private class that is used for representation of node trie structure.
+     * Contains weight of the word that ends at the node or null, atomic
+     * array of children nodes and length of the longest word ever added below
+     * the node
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Node {
+	private static final AtomicReferenceFieldUpdater<Node, Weight> WEIGHT = AtomicReferenceFieldUpdater
+		.newUpdater(Node.class, Weight.class, "weight");
+	private static final AtomicIntegerFieldUpdater<Node> HEIGHT = AtomicIntegerFieldUpdater
+		.newUpdater(Node.class, "height");
+
+	private volatile Weight weight;
+	private volatile int height;
+	private final AtomicReferenceArray<Node> next;
+
+	public Node(int alphabetSize) {
+	    next = new AtomicReferenceArray<Node>(alphabetSize);
+	}
+
+    }
+
+    /**
+     * Immutable weight of a word. A new holder replaces the old one on every
+     * change, so a reader never sees a weight without its presence.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Weight {
+	private final long value;
+
+	public Weight(long value) {
+	    this.value = value;
+	}
+
+    }
+
+    private final int alphabetSize; // Alphabet size
+    private final Alphabet alphabet;
+    private final Node root;
+    private final LongAdder trieSize = new LongAdder();
+    private final LongAdder modifications = new LongAdder();
+
+    /**
+     * Constructs trie with specified alphabet
+     * 
+     * @param alphabet
+     *            - specified alphabet
+     */
+    public ConcurrentRWayTrie(Alphabet alphabet) {
+	this.alphabet = alphabet;
+	alphabetSize = alphabet.size();
+	root = new Node(alphabetSize);
+    }
+
+    /**
+     * Adds a specified word to this trie or replaces its weight
+     * 
+     * @param word
+     *            - word to be added to trie
+     */
+    @Override
+    public void add(Tuple tuple) {
+	String word = tuple.getWord();
+
+	if (word.equals("")) {
+	    return;
+	}
+
+	add(word, tuple.getWeight());
+    }
+
+    /**
+     * Adds specified word with specified weight to trie without creating a
+     * tuple. Any weight, zero and negative included, adds the word. Words with
+     * characters out of the alphabet are skipped.
+     * 
+     * @param word
+     *            - word to be added to trie
+     * @param weight
+     *            - weight of the word
+     */
+    @Override
+    public void add(CharSequence word, long weight) {
+	if (word.length() == 0 || !alphabet.accepts(word)) {
+	    return;
+	}
+
+	Node node = put(word);
+	Weight oldWeight = Node.WEIGHT.getAndSet(node, new Weight(weight));
+
+	count(oldWeight, true);
+	modifications.increment();
+    }
+
+    /**
+     * Atomically adds the specified delta to the weight of the specified word.
+     * Absent word is added with the weight equal to delta. Words with
+     * characters out of the alphabet are skipped.
+     * 
+     * @param word
+     *            - the specified word
+     * @param delta
+     *            - value to add to the weight
+     * @return the new weight of the word or 0 if the word is skipped
+     * @throws ArithmeticException
+     *             if the new weight overflows long, the weight is not changed
+     */
+    public long addWeight(String word, long delta) {
+	if (word.equals("") || !alphabet.accepts(word)) {
+	    return 0;
+	}
+
+	Node node = put(word);
+	Weight oldWeight;
+	Weight newWeight;
+
+	do {
+	    oldWeight = node.weight;
+	    newWeight = new Weight(oldWeight == null ? delta : Math.addExact(oldWeight.value, delta));
+	} while (!Node.WEIGHT.compareAndSet(node, oldWeight, newWeight));
+
+	count(oldWeight, true);
+	modifications.increment();
+
+	return newWeight.value;
+    }
+
+    /**
+     * Returns node of the specified word, creating missing nodes of its path.
+     * A child is installed only if the slot is still empty, otherwise the node
+     * installed by another thread is used.
+     */
+    private Node put(CharSequence word) {
+	Node tmp = root;
+
+	for (int i = 0; i < word.length(); i++) {
+	    raiseHeight(tmp, word.length() - i);
+
+	    int position = alphabet.position(word.charAt(i));
+	    Node child = tmp.next.get(position);
+
+	    if (child == null) {
+		Node created = new Node(alphabetSize);
+
+		if (tmp.next.compareAndSet(position, null, created)) {
+		    child = created;
+		} else {
+		    child = tmp.next.get(position);
+		}
+	    }
+
+	    tmp = child;
+	}
+
+	return tmp;
+    }
+
+    private static void raiseHeight(Node node, int height) {
+	int current = node.height;
+
+	while (current < height && !Node.HEIGHT.compareAndSet(node, current, height)) {
+	    current = node.height;
+	}
+    }
+
+    /**
+     * Updates the number of words after the weight holder of a word is
+     * replaced
+     */
+    private void count(Weight oldWeight, boolean present) {
+	if (oldWeight == null && present) {
+	    trieSize.increment();
+	} else if (oldWeight != null && !present) {
+	    trieSize.decrement();
+	}
+    }
+
+    /**
+     * Returns true if trie contains the specified word.
+     * 
+     * @param word
+     *            - word whose presence in this trie to be tested
+     * @return true if this trie contains the specified word
+     */
+    @Override
+    public boolean contains(String word) {
+	Node result = word.length() == 0 ? null : get(word);
+	return result != null && result.weight != null;
+    }
+
+    /**
+     * Private helper method that returns the node in which specified word ends
+     * or null if there is no such node
+     * 
+     * @param word
+     *            - specified word
+     * @return null or node of the word
+     */
+    private Node get(String word) {
+	if (!alphabet.accepts(word)) {
+	    return null;
+	}
+
+	Node tmp = root;
+
+	for (int i = 0; i < word.length() && tmp != null; i++) {
+	    tmp = tmp.next.get(alphabet.position(word.charAt(i)));
+	}
+
+	return tmp;
+    }
+
+    /**
+     * Removes the specified word in this trie. Nodes of the word stay in the
+     * trie, only its weight is cleared.
+     * 
+     * @param word
+     *            - the specified word
+     * @return true if the specified word is deleted
+     */
+    @Override
+    public boolean delete(String word) {
+	Node node = word.length() == 0 ? null : get(word);
+
+	if (node == null || node.weight == null) {
+	    return false;
+	}
+
+	Weight oldWeight = Node.WEIGHT.getAndSet(node, null);
+	count(oldWeight, false);
+	modifications.increment();
+
+	return oldWeight != null;
+    }
+
+    /**
+     * Returns all words of this trie.
+     * 
+     * @return the iterable object that contains all words of this trie
+     */
+    @Override
+    public Iterable<String> words() {
+	return this;
+    }
+
+    /**
+     * Returns all words that begin with specified prefix. Iterators are weakly
+     * consistent.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return the iterable object that contains words with specified prefix
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new ConcurrentRWayTrieIterator(get(pref), pref, Integer.MAX_VALUE);
+	    }
+
+	};
+    }
+
+    /**
+     * Returns words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths, in the order of
+     * wordsWithPrefix method. The walk stops after the last group.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @return the iterable object that contains the words
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref, int lengths) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new ConcurrentRWayTrieIterator(get(pref), pref, lengths);
+	    }
+
+	};
+    }
+
+    /**
+     * Passes all words that begin with specified prefix to the visitor without
+     * creating strings
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, WordVisitor visitor) {
+	new ConcurrentRWayTrieIterator(get(pref), pref, Integer.MAX_VALUE).visitRemaining(visitor);
+    }
+
+    /**
+     * Passes words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths to the visitor, like
+     * wordsWithPrefix method with the same arguments
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, int lengths, WordVisitor visitor) {
+	new ConcurrentRWayTrieIterator(get(pref), pref, lengths).visitRemaining(visitor);
+    }
+
+    /**
+     * Returns the weight of the specified word
+     * 
+     * @param word
+     *            - the specified word
+     * @return the weight of the word or 0 if the word is not present
+     */
+    @Override
+    public long weight(String word) {
+	Node result = word.length() == 0 ? null : get(word);
+
+	if (result == null) {
+	    return 0;
+	}
+
+	Weight weight = result.weight; // One read, a delete may come between two
+
+	return weight == null ? 0 : weight.value;
+    }
+
+    /**
+     * Returns the number of words in this trie. The result is exact only if
+     * there are no concurrent changes.
+     * 
+     * @return the number of words in this trie
+     */
+    @Override
+    public int size() {
+	return trieSize.intValue();
+    }
+
+    /**
+     * Returns the shape of this trie and its estimated size. The result is
+     * exact only if there are no concurrent changes.
+     * 
+     * @return statistics of a walk of the whole trie
+     */
+    @Override
+    public TrieStats stats() {
+	TrieStats.Collector collector = new TrieStats.Collector();
+	stats(root, 0, collector);
+
+	return collector.build(size());
+    }
+
+    private static void stats(Node node, int d, TrieStats.Collector collector) {
+	int children = 0;
+
+	for (int i = 0; i < node.next.length(); i++) {
+	    if (node.next.get(i) != null) {
+		children++;
+	    }
+	}
+
+	Weight weight = node.weight;
+
+	collector.node(d, children, node.next.length(), weight != null);
+	collector.bytes(TrieStats.Collector.object(2 * TrieStats.Collector.REFERENCE + TrieStats.Collector.INT)
+		+ TrieStats.Collector.object(TrieStats.Collector.REFERENCE)
+		+ TrieStats.Collector.array(node.next.length(), TrieStats.Collector.REFERENCE)
+		+ (weight == null ? 0 : TrieStats.Collector.object(TrieStats.Collector.LONG)));
+
+	for (int i = 0; i < node.next.length(); i++) {
+	    Node child = node.next.get(i);
+
+	    if (child != null) {
+		stats(child, d + 1, collector);
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of nodes of this trie, root included. Nodes are
+     * counted by a walk of the whole trie, the result is exact only if there
+     * are no concurrent changes.
+     * 
+     * @return the number of nodes
+     */
+    @Override
+    public int nodeCount() {
+	return nodeCount(root);
+    }
+
+    private static int nodeCount(Node node) {
+	int count = 1;
+
+	for (int i = 0; i < node.next.length(); i++) {
+	    Node child = node.next.get(i);
+
+	    if (child != null) {
+		count += nodeCount(child);
+	    }
+	}
+
+	return count;
+    }
+
+    /**
+     * Returns the modification version of this trie
+     * 
+     * @return the number of modifications of this trie
+     */
+    @Override
+    public long version() {
+	return modifications.sum();
+    }
+
+    /**
+     * Iterator for ConcurrentRWayTrie. Walks the nodes level by level in the
+     * same way as the iterator of RWayTrie. The weight of a word is read when
+     * the walk reaches it, and the word is returned with the weight it had at
+     * that moment.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class ConcurrentRWayTrieIterator extends LevelOrderIterator {
+
+	private Node[] nodes = new Node[INITIAL_LEVELS];
+	private Node current; // Target of the taken edge
+	private long weight; // Weight of the found word
+
+	public ConcurrentRWayTrieIterator(Node root, String pref, int groups) {
+	    super(pref, groups);
+
+	    if (root != null) {
+		nodes[0] = root;
+		begin(read(root));
+	    }
+	}
+
+	@Override
+	int nextLength(int d) {
+	    return d < nodes[0].height ? d + 1 : -1;
+	}
+
+	@Override
+	int open(int level) {
+	    return 0;
+	}
+
+	@Override
+	int end(int level) {
+	    return alphabetSize;
+	}
+
+	@Override
+	int scan(int level, int edge, int end, int rest) {
+	    AtomicReferenceArray<Node> next = nodes[level].next;
+	    Node child = null;
+
+	    while (edge < end && ((child = next.get(edge)) == null || child.height < rest)) {
+		edge++;
+	    }
+
+	    return edge;
+	}
+
+	@Override
+	char take(int level, int edge) {
+	    current = nodes[level].next.get(edge);
+	    return alphabet.character(edge);
+	}
+
+	@Override
+	void push(int level) {
+	    nodes[level] = current;
+	}
+
+	@Override
+	boolean word() {
+	    return read(current);
+	}
+
+	/**
+	 * Reads the weight holder of the specified node once and keeps its
+	 * weight, returns true if a word ends at the node
+	 */
+	private boolean read(Node node) {
+	    Weight found = node.weight;
+
+	    if (found == null) {
+		return false;
+	    }
+
+	    weight = found.value;
+	    return true;
+	}
+
+	@Override
+	long weight() {
+	    return weight;
+	}
+
+	@Override
+	void grow(int levels) {
+	    nodes = Arrays.copyOf(nodes, levels);
+	}
+
+    }
+
+    /**
+     * Returns iterator over all words of Trie
+     * 
+     * @return the iterator over all words of Trie
+     */
+    @Override
+    public Iterator<String> iterator() {
+	return new ConcurrentRWayTrieIterator(root, "", Integer.MAX_VALUE);
+    }
+
+}
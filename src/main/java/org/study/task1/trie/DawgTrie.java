@@ -0,0 +1,697 @@
+package org.study.task1.trie;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.study.task1.trie.RWayTrie.Alphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * The DawgTrie class represents a read-only table of words stored as a
+ * directed acyclic word graph, the minimal acyclic automaton that accepts the
+ * words. Unlike a trie it shares common suffixes as well as prefixes. The
+ * automaton is built from sorted words in one pass by the incremental
+ * algorithm of Daciuk et al.: the states of the previous word that are not on
+ * the path of the next word are replaced by equivalent registered states.
+ * Weights can not be kept in shared states, so every state counts the words
+ * that can be completed from it, which gives the index of a word in sorted
+ * order on the way down (perfect hashing), and weights are kept in an array
+ * by this index. It supports contains, size, words and wordsWithPrefix
+ * methods, add and delete methods throw UnsupportedOperationException. The
+ * contains operation takes time proportional to the length of the key
+ * multiplied by the alphabet size in the worst case.
+ * 
+ * @author Andrii_Lehuta
+ */
+public class DawgTrie implements Trie, Iterable<String> {
+    /**
+     * State of the automaton under construction. Edges are appended in
+     * alphabet order. Registered states are never changed, so they can be
+     * compared by their edges and the identity of their targets.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class State {
+	private boolean terminal;
+	private char[] labels = new char[2];
+	private State[] targets = new State[2];
+	private int size;
+	private int id = -1;
+
+	private void add(char label, State target) {
+	    if (size == labels.length) {
+		labels = Arrays.copyOf(labels, size * 2);
+		targets = Arrays.copyOf(targets, size * 2);
+	    }
+
+	    labels[size] = label;
+	    targets[size] = target;
+	    size++;
+	}
+
+	@Override
+	public int hashCode() {
+	    int hash = terminal ? 1 : 0;
+
+	    for (int i = 0; i < size; i++) {
+		hash = 31 * (31 * hash + labels[i]) + System.identityHashCode(targets[i]);
+	    }
+
+	    return hash;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+	    State other = (State) object;
+
+	    if (terminal != other.terminal || size != other.size) {
+		return false;
+	    }
+
+	    for (int i = 0; i < size; i++) {
+		if (labels[i] != other.labels[i] || targets[i] != other.targets[i]) {
+		    return false;
+		}
+	    }
+
+	    return true;
+	}
+
+    }
+
+    private static final int INITIAL_DEPTH = 16;
+
+    private final int root;
+    private final int[] first; // First edge of every state, first[s + 1] ends it
+    private final char[] labels; // Character of every edge
+    private final int[] targets; // Target state of every edge
+    private final boolean[] terminal;
+    private final int[] counts; // Number of words that can be completed from state
+    private final int[] heights; // Length of the longest path from state
+    private final long[] weights; // Weights of words in sorted order
+
+    /**
+     * Constructs automaton that contains words of the specified RWayTrie
+     * 
+     * @param trie
+     *            - the specified trie
+     */
+    public DawgTrie(RWayTrie trie) {
+	this(trie.alphabet(), SortedTuples.of(trie));
+    }
+
+    /**
+     * Constructs automaton that contains the specified tuples. Tuples with
+     * empty words are skipped, the last tuple wins for repeated words.
+     * 
+     * @param alphabet
+     *            - alphabet of the words
+     * @param tuples
+     *            - the specified tuples in any order
+     */
+    public DawgTrie(Alphabet alphabet, Iterable<Tuple> tuples) {
+	List<Tuple> sorted = SortedTuples.sort(alphabet, tuples);
+	Map<State, State> register = new HashMap<State, State>();
+	State start = new State();
+	State[] path = new State[INITIAL_DEPTH];
+	path[0] = start;
+	String previous = "";
+
+	weights = new long[sorted.size()];
+
+	for (int w = 0; w < sorted.size(); w++) {
+	    String word = sorted.get(w).getWord();
+	    int common = 0;
+
+	    while (common < Math.min(word.length(), previous.length())
+		    && word.charAt(common) == previous.charAt(common)) {
+		common++;
+	    }
+
+	    replaceOrRegister(register, path, common, previous.length());
+
+	    if (word.length() >= path.length) {
+		path = Arrays.copyOf(path, word.length() * 2);
+	    }
+
+	    for (int i = common; i < word.length(); i++) {
+		path[i + 1] = new State();
+		path[i].add(word.charAt(i), path[i + 1]);
+	    }
+
+	    path[word.length()].terminal = true;
+	    weights[w] = sorted.get(w).getWeight();
+	    previous = word;
+	}
+
+	replaceOrRegister(register, path, 0, previous.length());
+
+	List<State> states = new ArrayList<State>(register.size() + 1);
+	number(start, states);
+
+	int edges = 0;
+
+	for (State state : states) {
+	    edges += state.size;
+	}
+
+	first = new int[states.size() + 1];
+	labels = new char[edges];
+	targets = new int[edges];
+	terminal = new boolean[states.size()];
+	counts = new int[states.size()];
+	heights = new int[states.size()];
+	root = start.id;
+
+	for (int s = 0; s < states.size(); s++) {
+	    State state = states.get(s);
+	    first[s + 1] = first[s] + state.size;
+	    terminal[s] = state.terminal;
+	    counts[s] = state.terminal ? 1 : 0;
+
+	    for (int i = 0; i < state.size; i++) {
+		int target = state.targets[i].id;
+
+		labels[first[s] + i] = state.labels[i];
+		targets[first[s] + i] = target;
+		counts[s] += counts[target];
+		heights[s] = Math.max(heights[s], heights[target] + 1);
+	    }
+	}
+    }
+
+    /**
+     * Replaces states of the previous word deeper than the specified depth by
+     * equivalent registered states or registers them, starting from the
+     * deepest one
+     * 
+     * @param register
+     *            - registered states
+     * @param path
+     *            - states of the previous word
+     * @param depth
+     *            - length of the prefix common with the next word
+     * @param length
+     *            - length of the previous word
+     */
+    private static void replaceOrRegister(Map<State, State> register, State[] path, int depth, int length) {
+	for (int d = length; d > depth; d--) {
+	    State state = path[d];
+	    State equivalent = register.get(state);
+
+	    if (equivalent == null) {
+		register.put(state, state);
+	    } else {
+		State parent = path[d - 1];
+		parent.targets[parent.size - 1] = equivalent;
+	    }
+	}
+    }
+
+    /**
+     * Numbers the specified state and states reachable from it, targets get
+     * smaller numbers than their sources
+     * 
+     * @param state
+     *            - the specified state
+     * @param states
+     *            - list of numbered states, the number is the index
+     */
+    private static void number(State state, List<State> states) {
+	for (int i = 0; i < state.size; i++) {
+	    if (state.targets[i].id < 0) {
+		number(state.targets[i], states);
+	    }
+	}
+
+	state.id = states.size();
+	states.add(state);
+    }
+
+    /**
+     * Not supported, the trie is read-only
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void add(Tuple tuple) {
+	throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns true if trie contains the specified word.
+     * 
+     * @param word
+     *            - word whose presence in this trie to be tested
+     * @return true if this trie contains the specified word
+     */
+    @Override
+    public boolean contains(String word) {
+	return index(word) >= 0;
+    }
+
+    /**
+     * Returns the index of the specified word in sorted order or -1 if the
+     * word is not present
+     * 
+     * @param word
+     *            - specified word
+     * @return -1 or the index of the word
+     */
+    private int index(String word) {
+	int state = root;
+	int index = 0;
+
+	for (int i = 0; i < word.length(); i++) {
+	    if (terminal[state]) {
+		index++;
+	    }
+
+	    int edge = first[state];
+	    char character = word.charAt(i);
+
+	    while (edge < first[state + 1] && labels[edge] != character) {
+		index += counts[targets[edge]];
+		edge++;
+	    }
+
+	    if (edge == first[state + 1]) {
+		return -1;
+	    }
+
+	    state = targets[edge];
+	}
+
+	return word.length() != 0 && terminal[state] ? index : -1;
+    }
+
+    /**
+     * Not supported, the trie is read-only
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public boolean delete(String word) {
+	throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns all words of this trie.
+     * 
+     * @return the iterable object that contains all words of this trie
+     */
+    @Override
+    public Iterable<String> words() {
+	return this;
+    }
+
+    /**
+     * Returns all words that begin with specified prefix in the same order as
+     * RWayTrie returns them
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return the iterable object that contains words with specified prefix
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new DawgTrieIterator(pref, Integer.MAX_VALUE);
+	    }
+
+	};
+    }
+
+    /**
+     * Returns words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths, in the order of
+     * wordsWithPrefix method. The walk stops after the last group.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @return the iterable object that contains the words
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref, int lengths) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new DawgTrieIterator(pref, lengths);
+	    }
+
+	};
+    }
+
+    /**
+     * Passes all words that begin with specified prefix to the visitor without
+     * creating strings
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, WordVisitor visitor) {
+	new DawgTrieIterator(pref, Integer.MAX_VALUE).visitRemaining(visitor);
+    }
+
+    /**
+     * Passes words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths to the visitor, like
+     * wordsWithPrefix method with the same arguments
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, int lengths, WordVisitor visitor) {
+	new DawgTrieIterator(pref, lengths).visitRemaining(visitor);
+    }
+
+    /**
+     * Returns stream of words that begin with specified prefix in alphabet
+     * order. The stream is split on edges of states by the numbers of words
+     * below them, so both parts of every split know their exact size.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return stream of words with specified prefix
+     */
+    @Override
+    public Stream<String> streamWithPrefix(String pref) {
+	int state = root;
+
+	for (int i = 0; i < pref.length() && state >= 0; i++) {
+	    int edge = first[state];
+
+	    while (edge < first[state + 1] && labels[edge] != pref.charAt(i)) {
+		edge++;
+	    }
+
+	    state = edge == first[state + 1] ? -1 : targets[edge];
+	}
+
+	if (state < 0) {
+	    return Stream.empty();
+	}
+
+	return StreamSupport.stream(new AutomatonSpliterator(pref, state) {
+
+	    @Override
+	    int first(int state) {
+		return first[state];
+	    }
+
+	    @Override
+	    char label(int edge) {
+		return labels[edge];
+	    }
+
+	    @Override
+	    int target(int edge) {
+		return targets[edge];
+	    }
+
+	    @Override
+	    boolean terminal(int state) {
+		return terminal[state];
+	    }
+
+	    @Override
+	    int count(int state) {
+		return counts[state];
+	    }
+
+	}, false);
+    }
+
+    /**
+     * Returns the weight of the specified word
+     * 
+     * @param word
+     *            - the specified word
+     * @return the weight of the word or 0 if the word is not present
+     */
+    @Override
+    public long weight(String word) {
+	int index = index(word);
+	return index < 0 ? 0 : weights[index];
+    }
+
+    /**
+     * Returns the number of words in this trie
+     * 
+     * @return the number of words in this trie
+     */
+    @Override
+    public int size() {
+	return weights.length;
+    }
+
+    /**
+     * Returns the shape of the automaton and its estimated size. States that
+     * are shared by several prefixes are counted once at the depth they are
+     * first reached, and their edge arrays are always full.
+     * 
+     * @return statistics of a walk of all states
+     */
+    @Override
+    public TrieStats stats() {
+	TrieStats.Collector collector = new TrieStats.Collector();
+	stats(root, 0, new BitSet(terminal.length), collector);
+	collector.bytes(TrieStats.Collector.array(first.length, TrieStats.Collector.INT)
+		+ TrieStats.Collector.array(labels.length, TrieStats.Collector.CHAR)
+		+ TrieStats.Collector.array(targets.length, TrieStats.Collector.INT)
+		+ TrieStats.Collector.array(terminal.length, TrieStats.Collector.BOOLEAN)
+		+ 2 * TrieStats.Collector.array(counts.length, TrieStats.Collector.INT)
+		+ TrieStats.Collector.array(weights.length, TrieStats.Collector.LONG));
+
+	return collector.build(size());
+    }
+
+    private void stats(int state, int d, BitSet visited, TrieStats.Collector collector) {
+	visited.set(state);
+
+	int edges = first[state + 1] - first[state];
+	collector.node(d, edges, edges, terminal[state]);
+
+	for (int edge = first[state]; edge < first[state + 1]; edge++) {
+	    if (!visited.get(targets[edge])) {
+		stats(targets[edge], d + 1, visited, collector);
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of states of the automaton
+     * 
+     * @return the number of states
+     */
+    @Override
+    public int nodeCount() {
+	return stateCount();
+    }
+
+    /**
+     * Returns the modification version of this trie, which never changes
+     * 
+     * @return 0, the trie is read-only
+     */
+    @Override
+    public long version() {
+	return 0;
+    }
+
+    /**
+     * Returns the number of states of the automaton
+     * 
+     * @return the number of states
+     */
+    public int stateCount() {
+	return terminal.length;
+    }
+
+    /**
+     * Writes the automaton in the format that is read by MappedTrie
+     * 
+     * @param out
+     *            - the stream to write to
+     * @throws IOException
+     *             if the stream fails
+     */
+    void write(DataOutputStream out) throws IOException {
+	out.writeInt(MappedTrie.MAGIC);
+	out.writeInt(MappedTrie.FORMAT_VERSION);
+	out.writeInt(terminal.length);
+	out.writeInt(labels.length);
+	out.writeInt(weights.length);
+	out.writeInt(root);
+
+	for (int offset : first) {
+	    out.writeInt(offset);
+	}
+
+	for (int target : targets) {
+	    out.writeInt(target);
+	}
+
+	for (int s = 0; s < terminal.length; s++) {
+	    out.writeInt(terminal[s] ? counts[s] | MappedTrie.TERMINAL : counts[s]);
+	}
+
+	for (int height : heights) {
+	    out.writeInt(height);
+	}
+
+	for (long weight : weights) {
+	    out.writeLong(weight);
+	}
+
+	for (char label : labels) {
+	    out.writeChar(label);
+	}
+    }
+
+    /**
+     * Iterator for DawgTrie. Paths of the automaton share states, so states
+     * can not be queued like nodes of a tree. The iterator walks depth-first
+     * once per word length, like the iterator of RWayTrie, and keeps the index
+     * of the first word completed from every state of the path to find weights
+     * of returned words.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class DawgTrieIterator extends LevelOrderIterator {
+
+	private int[] states = new int[INITIAL_LEVELS];
+	private int[] starts = new int[INITIAL_LEVELS]; // Index of the first word of every state
+	private int[] indexes = new int[INITIAL_LEVELS]; // Index of the word of next edge
+	private int current; // Target of the taken edge
+	private int currentIndex; // Index of the first word of the target
+	private int index; // Index of the found word
+
+	public DawgTrieIterator(String pref, int groups) {
+	    super(pref, groups);
+
+	    int start = root;
+	    int startIndex = 0;
+
+	    for (int i = 0; i < pref.length() && start >= 0; i++) {
+		if (terminal[start]) {
+		    startIndex++;
+		}
+
+		int edge = first[start];
+
+		while (edge < first[start + 1] && labels[edge] != pref.charAt(i)) {
+		    startIndex += counts[targets[edge]];
+		    edge++;
+		}
+
+		start = edge == first[start + 1] ? -1 : targets[edge];
+	    }
+
+	    if (start >= 0) {
+		states[0] = start;
+		starts[0] = startIndex;
+		index = startIndex;
+		begin(terminal[start]);
+	    }
+	}
+
+	@Override
+	int nextLength(int d) {
+	    return d < heights[states[0]] ? d + 1 : -1;
+	}
+
+	@Override
+	int open(int level) {
+	    int state = states[level];
+	    indexes[level] = terminal[state] ? starts[level] + 1 : starts[level];
+	    return first[state];
+	}
+
+	@Override
+	int end(int level) {
+	    return first[states[level] + 1];
+	}
+
+	@Override
+	int scan(int level, int edge, int end, int rest) {
+	    while (edge < end && heights[targets[edge]] < rest) {
+		indexes[level] += counts[targets[edge]];
+		edge++;
+	    }
+
+	    return edge;
+	}
+
+	@Override
+	char take(int level, int edge) {
+	    current = targets[edge];
+	    currentIndex = indexes[level];
+	    indexes[level] += counts[current];
+	    return labels[edge];
+	}
+
+	@Override
+	void push(int level) {
+	    states[level] = current;
+	    starts[level] = currentIndex;
+	}
+
+	@Override
+	boolean word() {
+	    index = currentIndex;
+	    return terminal[current];
+	}
+
+	@Override
+	long weight() {
+	    return weights[index];
+	}
+
+	@Override
+	void grow(int levels) {
+	    states = Arrays.copyOf(states, levels);
+	    starts = Arrays.copyOf(starts, levels);
+	    indexes = Arrays.copyOf(indexes, levels);
+	}
+
+    }
+
+    /**
+     * Returns iterator over all words of Trie
+     * 
+     * @return the iterator over all words of Trie
+     */
+    @Override
+    public Iterator<String> iterator() {
+	return new DawgTrieIterator("", Integer.MAX_VALUE);
+    }
+
+}
@@ -0,0 +1,542 @@
+package org.study.task1.trie;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.study.task1.trie.RWayTrie.Alphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * The DoubleArrayTrie class represents a read-only table of words stored as a
+ * double-array trie. All nodes are kept in three parallel arrays: the child of
+ * node s for character c is the node t = base[s] + position(c) + 1 if
+ * check[t] == s, and value[t] holds the weight of the word that ends in t if
+ * bit t of terminal set is on. It supports contains, size, words and
+ * wordsWithPrefix methods, add and delete methods throw
+ * UnsupportedOperationException. The contains operation takes time
+ * proportional to the length of the key. Construction takes time proportional
+ * to the total length of the words in the worst case.
+ * 
+ * @author Andrii_Lehuta
+ */
+public class DoubleArrayTrie implements Trie, Iterable<String> {
+
+    private static final int ROOT = 0;
+    private static final int FREE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_QUEUE = 16;
+    private static final double DENSE = 0.95; // Occupied part of skipped range
+
+    private final Alphabet alphabet;
+    private final int alphabetSize;
+    private int[] base;
+    private int[] check;
+    private long[] value;
+    private final BitSet terminal = new BitSet(); // Nodes where words end
+    private int trieSize;
+    private int maxLength;
+    private int[] nextFree;
+    private int[] prevFree;
+    private int searchFrom = ROOT; // Free slot or root after which bases are searched
+
+    /**
+     * Constructs trie that contains words of the specified RWayTrie
+     * 
+     * @param trie
+     *            - the specified trie
+     */
+    public DoubleArrayTrie(RWayTrie trie) {
+	this(trie.alphabet(), SortedTuples.of(trie));
+    }
+
+    /**
+     * Constructs trie that contains the specified tuples. Tuples with empty
+     * words are skipped, the last tuple wins for repeated words.
+     * 
+     * @param alphabet
+     *            - alphabet of the words
+     * @param tuples
+     *            - the specified tuples in any order
+     */
+    public DoubleArrayTrie(Alphabet alphabet, Iterable<Tuple> tuples) {
+	this.alphabet = alphabet;
+	alphabetSize = alphabet.size();
+
+	List<Tuple> sorted = SortedTuples.sort(alphabet, tuples);
+
+	base = new int[1];
+	check = new int[1];
+	value = new long[1];
+	nextFree = new int[1];
+	prevFree = new int[1];
+	ensureCapacity(INITIAL_CAPACITY);
+
+	if (!sorted.isEmpty()) {
+	    build(ROOT, sorted, 0, sorted.size(), 0);
+	}
+
+	nextFree = null;
+	prevFree = null;
+	trim();
+    }
+
+    /**
+     * Places children of the specified node. Words in range from lo to hi share
+     * the first d characters and are sorted in alphabet order.
+     * 
+     * @param node
+     *            - index of the node
+     * @param words
+     *            - sorted tuples
+     * @param lo
+     *            - first tuple of the range
+     * @param hi
+     *            - tuple after the last one of the range
+     * @param d
+     *            - depth of the node
+     */
+    private void build(int node, List<Tuple> words, int lo, int hi, int d) {
+	if (words.get(lo).getWord().length() == d) {
+	    value[node] = words.get(lo).getWeight();
+	    terminal.set(node);
+	    trieSize++;
+	    maxLength = Math.max(maxLength, d);
+	    lo++;
+	}
+
+	if (lo == hi) {
+	    return;
+	}
+
+	int[] codes = new int[alphabetSize];
+	int[] starts = new int[alphabetSize + 1];
+	int children = 0;
+
+	for (int i = lo; i < hi; i++) {
+	    int code = alphabet.position(words.get(i).getWord().charAt(d)) + 1;
+
+	    if (children == 0 || codes[children - 1] != code) {
+		codes[children] = code;
+		starts[children] = i;
+		children++;
+	    }
+	}
+	starts[children] = hi;
+
+	int nodeBase = findBase(codes, children);
+	base[node] = nodeBase;
+
+	for (int i = 0; i < children; i++) {
+	    occupy(nodeBase + codes[i], node);
+	}
+
+	for (int i = 0; i < children; i++) {
+	    build(nodeBase + codes[i], words, starts[i], starts[i + 1], d + 1);
+	}
+    }
+
+    /**
+     * Finds the smallest base after the search start for which all slots of
+     * the specified child codes are free. Only free slots are visited, they are
+     * linked in a list by nextFree array during the construction. If the slots
+     * before the found one are almost all occupied, the search start moves to
+     * it, so later searches do not walk the same few free slots again.
+     */
+    private int findBase(int[] codes, int children) {
+	int skipped = 0;
+	int first = -1;
+
+	for (int position = nextFree[searchFrom];; position = nextFree[position]) {
+	    if (position == ROOT) {
+		position = check.length;
+		ensureCapacity(position + alphabetSize + 1);
+	    }
+
+	    if (first < 0) {
+		first = position;
+	    }
+
+	    int candidate = position - codes[0];
+
+	    if (candidate < 1) {
+		continue;
+	    }
+
+	    ensureCapacity(candidate + alphabetSize + 1);
+
+	    boolean fits = true;
+
+	    for (int i = 1; i < children && fits; i++) {
+		fits = check[candidate + codes[i]] == FREE;
+	    }
+
+	    if (fits) {
+		if (skipped <= (1 - DENSE) * (position - first)) {
+		    searchFrom = prevFree[position];
+		}
+
+		return candidate;
+	    }
+
+	    skipped++;
+	}
+    }
+
+    /**
+     * Marks the specified slot as the child of the specified node and removes
+     * it from the list of free slots
+     */
+    private void occupy(int slot, int node) {
+	if (slot == searchFrom) {
+	    searchFrom = prevFree[slot];
+	}
+
+	check[slot] = node;
+	nextFree[prevFree[slot]] = nextFree[slot];
+	prevFree[nextFree[slot]] = prevFree[slot];
+    }
+
+    /**
+     * Grows the arrays and appends new slots to the list of free slots. The
+     * list is circular and the root slot is its head.
+     */
+    private void ensureCapacity(int capacity) {
+	if (capacity <= check.length) {
+	    return;
+	}
+
+	int oldLength = check.length;
+	int newLength = Math.max(capacity, oldLength * 2);
+
+	base = Arrays.copyOf(base, newLength);
+	value = Arrays.copyOf(value, newLength);
+	check = Arrays.copyOf(check, newLength);
+	nextFree = Arrays.copyOf(nextFree, newLength);
+	prevFree = Arrays.copyOf(prevFree, newLength);
+	Arrays.fill(check, oldLength, newLength, FREE);
+
+	int last = prevFree[ROOT];
+
+	for (int slot = oldLength; slot < newLength; slot++) {
+	    nextFree[last] = slot;
+	    prevFree[slot] = last;
+	    last = slot;
+	}
+
+	nextFree[last] = ROOT;
+	prevFree[ROOT] = last;
+    }
+
+    /**
+     * Cuts the unused tail of arrays after the construction
+     */
+    private void trim() {
+	int length = check.length;
+
+	while (length > 1 && check[length - 1] == FREE) {
+	    length--;
+	}
+
+	base = Arrays.copyOf(base, length);
+	check = Arrays.copyOf(check, length);
+	value = Arrays.copyOf(value, length);
+    }
+
+    /**
+     * Not supported, the trie is read-only
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void add(Tuple tuple) {
+	throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns true if trie contains the specified word.
+     * 
+     * @param word
+     *            - word whose presence in this trie to be tested
+     * @return true if this trie contains the specified word
+     */
+    @Override
+    public boolean contains(String word) {
+	int node = get(word);
+	return node > ROOT && terminal.get(node);
+    }
+
+    /**
+     * Private helper method that returns index of the node that points to last
+     * character of specified word or -1 if there is no such node
+     * 
+     * @param word
+     *            - specified word
+     * @return -1 or index of the node
+     */
+    private int get(String word) {
+	if (!alphabet.accepts(word)) {
+	    return -1;
+	}
+
+	int node = ROOT;
+
+	for (int i = 0; i < word.length(); i++) {
+	    int next = base[node] + alphabet.position(word.charAt(i)) + 1;
+
+	    if (next >= check.length || check[next] != node || base[node] == 0) {
+		return -1;
+	    }
+
+	    node = next;
+	}
+
+	return node;
+    }
+
+    /**
+     * Not supported, the trie is read-only
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public boolean delete(String word) {
+	throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns all words of this trie.
+     * 
+     * @return the iterable object that contains all words of this trie
+     */
+    @Override
+    public Iterable<String> words() {
+	return this;
+    }
+
+    /**
+     * Returns all words that begin with specified prefix in order of their
+     * length
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return the iterable object that contains words with specified prefix
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new DoubleArrayTrieIterator(get(pref));
+	    }
+
+	};
+    }
+
+    /**
+     * Returns the weight of the specified word
+     * 
+     * @param word
+     *            - the specified word
+     * @return the weight of the word or 0 if the word is not present
+     */
+    @Override
+    public long weight(String word) {
+	int node = get(word);
+	return node > ROOT && terminal.get(node) ? value[node] : 0;
+    }
+
+    /**
+     * Returns the number of words in this trie
+     * 
+     * @return the number of words in this trie
+     */
+    @Override
+    public int size() {
+	return trieSize;
+    }
+
+    /**
+     * Returns the shape of this trie and its estimated size. Every node with
+     * children has the window of alphabet size slots, so the fill histogram
+     * shows how many slots of the window are its children, while the size
+     * counts the free slots of the arrays as well.
+     * 
+     * @return statistics of a walk of the whole trie
+     */
+    @Override
+    public TrieStats stats() {
+	TrieStats.Collector collector = new TrieStats.Collector();
+	stats(ROOT, 0, collector);
+	collector.bytes(2 * TrieStats.Collector.array(check.length, TrieStats.Collector.INT)
+		+ TrieStats.Collector.array(value.length, TrieStats.Collector.LONG)
+		+ TrieStats.Collector.object(TrieStats.Collector.REFERENCE + TrieStats.Collector.INT
+			+ TrieStats.Collector.BOOLEAN)
+		+ TrieStats.Collector.array(terminal.size() / Long.SIZE, TrieStats.Collector.LONG));
+
+	return collector.build(trieSize);
+    }
+
+    private void stats(int node, int d, TrieStats.Collector collector) {
+	int nodeBase = base[node];
+	int last = nodeBase == 0 ? nodeBase : Math.min(nodeBase + alphabetSize, check.length - 1);
+	int children = 0;
+
+	for (int child = nodeBase + 1; child <= last; child++) {
+	    if (check[child] == node) {
+		children++;
+	    }
+	}
+
+	collector.node(d, children, nodeBase == 0 ? 0 : alphabetSize, node != ROOT && terminal.get(node));
+
+	for (int child = nodeBase + 1; child <= last; child++) {
+	    if (check[child] == node) {
+		stats(child, d + 1, collector);
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of used slots of the arrays, root included
+     * 
+     * @return the number of nodes
+     */
+    @Override
+    public int nodeCount() {
+	int count = 0;
+
+	for (int owner : check) {
+	    if (owner != FREE) {
+		count++;
+	    }
+	}
+
+	return count;
+    }
+
+    /**
+     * Returns the modification version of this trie, which never changes
+     * 
+     * @return 0, the trie is read-only
+     */
+    @Override
+    public long version() {
+	return 0;
+    }
+
+    /**
+     * Iterator for DoubleArrayTrie. Walks the tree breadthways keeping only
+     * indexes of nodes in the queue. Words are restored from the returned node
+     * up to the root through check array, which holds the parent of every
+     * node.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class DoubleArrayTrieIterator implements Iterator<String> {
+
+	private final char[] buffer = new char[maxLength];
+	private int[] queue = new int[INITIAL_QUEUE];
+	private int head;
+	private int tail;
+	private String next;
+
+	public DoubleArrayTrieIterator(int start) {
+	    if (start >= ROOT) {
+		queue[tail++] = start;
+		next = advance();
+	    }
+	}
+
+	@Override
+	public boolean hasNext() {
+	    return next != null;
+	}
+
+	@Override
+	public String next() {
+	    if (next == null) {
+		throw new NoSuchElementException();
+	    }
+
+	    String result = next;
+	    next = advance();
+
+	    return result;
+	}
+
+	/**
+	 * Polls nodes until the node of a word is found
+	 * 
+	 * @return the next word or null if there are no more words
+	 */
+	private String advance() {
+	    while (head < tail) {
+		int node = queue[head++];
+		int nodeBase = base[node];
+
+		if (nodeBase != 0) {
+		    int last = Math.min(nodeBase + alphabetSize, check.length - 1);
+
+		    for (int child = nodeBase + 1; child <= last; child++) {
+			if (check[child] == node) {
+			    offer(child);
+			}
+		    }
+		}
+
+		if (node != ROOT && terminal.get(node)) {
+		    return word(node);
+		}
+	    }
+
+	    return null;
+	}
+
+	private void offer(int node) {
+	    if (tail == queue.length) {
+		if (head > queue.length / 2) {
+		    System.arraycopy(queue, head, queue, 0, tail - head);
+		} else {
+		    queue = Arrays.copyOf(queue, queue.length * 2);
+		    System.arraycopy(queue, head, queue, 0, tail - head);
+		}
+
+		tail -= head;
+		head = 0;
+	    }
+
+	    queue[tail++] = node;
+	}
+
+	private String word(int node) {
+	    int position = buffer.length;
+
+	    while (node != ROOT) {
+		int parent = check[node];
+		buffer[--position] = alphabet.character(node - base[parent] - 1);
+		node = parent;
+	    }
+
+	    return new String(buffer, position, buffer.length - position);
+	}
+
+    }
+
+    /**
+     * Returns iterator over all words of Trie
+     * 
+     * @return the iterator over all words of Trie
+     */
+    @Override
+    public Iterator<String> iterator() {
+	return new DoubleArrayTrieIterator(ROOT);
+    }
+
+}
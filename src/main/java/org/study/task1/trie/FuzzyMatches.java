@@ -0,0 +1,258 @@
+package org.study.task1.trie;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Helper class that selects k best words for a fuzzy prefix query. The
+ * distance of a word is the smallest Levenshtein distance between the query
+ * and a prefix of the word. Words are ranked by distance, then like in topK
+ * method. Distances are found by rows of the dynamic programming table: row
+ * of d characters of a word holds distances from them to every prefix of the
+ * query.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+final class FuzzyMatches {
+    /**
+     * Found word with its distance
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Match {
+	private final Tuple tuple;
+	private final int distance;
+
+	public Match(Tuple tuple, int distance) {
+	    this.tuple = tuple;
+	    this.distance = distance;
+	}
+
+    }
+
+    private static final Comparator<Match> ORDER = new Comparator<Match>() {
+
+	@Override
+	public int compare(Match first, Match second) {
+	    if (first.distance != second.distance) {
+		return first.distance - second.distance;
+	    }
+
+	    return Tuple.RANK_ORDER.compare(first.tuple, second.tuple);
+	}
+
+    };
+
+    private final String pref;
+    private final int maxEdits;
+    private final int k;
+    private final PriorityQueue<Match> heap; // The worst match on top
+    private int[][] rows; // Rows of the scanned word
+
+    FuzzyMatches(String pref, int maxEdits, int k) {
+	this.pref = pref;
+	this.maxEdits = maxEdits;
+	this.k = k;
+	heap = new PriorityQueue<Match>(Math.max(1, k), Collections.reverseOrder(ORDER));
+	rows = new int[1][];
+	rows[0] = firstRow();
+    }
+
+    /**
+     * Returns the row of the empty word
+     */
+    int[] firstRow() {
+	int[] row = new int[pref.length() + 1];
+
+	for (int j = 0; j < row.length; j++) {
+	    row[j] = j;
+	}
+
+	return row;
+    }
+
+    /**
+     * Fills the row of the word that is longer by the specified character
+     * 
+     * @param row
+     *            - row of the word
+     * @param character
+     *            - the next character of the word
+     * @param next
+     *            - row to fill
+     * @return the smallest value of the filled row
+     */
+    int step(int[] row, char character, int[] next) {
+	int min = next[0] = row[0] + 1;
+
+	for (int j = 1; j < next.length; j++) {
+	    int cost = pref.charAt(j - 1) == character ? 0 : 1;
+	    next[j] = Math.min(Math.min(row[j], next[j - 1]) + 1, row[j - 1] + cost);
+	    min = Math.min(min, next[j]);
+	}
+
+	return min;
+    }
+
+    /**
+     * Returns the largest distance that can still be taken
+     */
+    int limit() {
+	return heap.size() < k ? maxEdits : Math.min(maxEdits, heap.peek().distance);
+    }
+
+    /**
+     * Takes the specified word if it is among k best matches
+     * 
+     * @param word
+     *            - buffer with the word
+     * @param length
+     *            - length of the word
+     * @param distance
+     *            - distance of the word
+     * @param weight
+     *            - weight of the word
+     */
+    void offer(char[] word, int length, int distance, long weight) {
+	if (distance > maxEdits || k <= 0) {
+	    return;
+	}
+
+	if (heap.size() == k) {
+	    Match worst = heap.peek();
+
+	    if (distance > worst.distance || distance == worst.distance && (weight < worst.tuple.getWeight()
+		    || weight == worst.tuple.getWeight() && length > worst.tuple.getWord().length())) {
+		return;
+	    }
+	}
+
+	offer(new Tuple(new String(word, 0, length), weight), distance);
+    }
+
+    /**
+     * Returns true if a word with the specified tuple and distance would be
+     * taken among k best matches
+     * 
+     * @param tuple
+     *            - tuple of the word
+     * @param distance
+     *            - distance of the word
+     * @return true if the word is better than the worst taken match
+     */
+    boolean takes(Tuple tuple, int distance) {
+	if (distance > maxEdits || k <= 0) {
+	    return false;
+	} else if (heap.size() < k) {
+	    return true;
+	}
+
+	Match worst = heap.peek();
+
+	return distance < worst.distance
+		|| distance == worst.distance && Tuple.RANK_ORDER.compare(tuple, worst.tuple) < 0;
+    }
+
+    /**
+     * Takes the cached heaviest tuples of a subtree whose words all have the
+     * specified distance if they hold every word of the subtree that can be
+     * among k best matches: all words of the subtree or at least k of them.
+     * The word of the subtree node is skipped, it is offered by itself.
+     * 
+     * @param best
+     *            - the heaviest tuples of the subtree, the heaviest first
+     * @param words
+     *            - number of words of the subtree
+     * @param length
+     *            - length of the word of the subtree node
+     * @param distance
+     *            - distance of all words of the subtree
+     * @return true if the words are taken and the subtree need not be walked
+     */
+    boolean offer(Tuple[] best, int words, int length, int distance) {
+	if (best.length < words && best.length < k) {
+	    return false;
+	}
+
+	for (Tuple tuple : best) {
+	    if (tuple.getWord().length() != length && takes(tuple, distance)) {
+		offer(tuple, distance);
+	    }
+	}
+
+	return true;
+    }
+
+    /**
+     * Adds the specified tuple with the specified distance to the heap if it
+     * is among k best matches
+     */
+    private void offer(Tuple tuple, int distance) {
+	Match match = new Match(tuple, distance);
+
+	if (heap.size() < k) {
+	    heap.add(match);
+	} else if (ORDER.compare(match, heap.peek()) < 0) {
+	    heap.poll();
+	    heap.add(match);
+	}
+    }
+
+    /**
+     * Finds the distance of the specified word row by row and takes it if it
+     * is among k best matches
+     * 
+     * @param word
+     *            - buffer with the word
+     * @param length
+     *            - length of the word
+     * @param weight
+     *            - weight of the word
+     */
+    void scan(char[] word, int length, long weight) {
+	if (length >= rows.length) {
+	    int[][] grown = new int[length + 1][];
+	    System.arraycopy(rows, 0, grown, 0, rows.length);
+
+	    for (int d = rows.length; d < grown.length; d++) {
+		grown[d] = new int[pref.length() + 1];
+	    }
+
+	    rows = grown;
+	}
+
+	int best = rows[0][pref.length()];
+
+	for (int d = 0; d < length && step(rows[d], word[d], rows[d + 1]) <= maxEdits; d++) {
+	    best = Math.min(best, rows[d + 1][pref.length()]);
+	}
+
+	offer(word, length, best, weight);
+    }
+
+    /**
+     * Returns the found words, the best first
+     * 
+     * @return list of k or less words
+     */
+    List<String> result() {
+	List<Match> matches = new ArrayList<Match>(heap);
+	Collections.sort(matches, ORDER);
+
+	List<String> result = new ArrayList<String>(matches.size());
+
+	for (Match match : matches) {
+	    result.add(match.tuple.getWord());
+	}
+
+	return result;
+    }
+
+}
@@ -0,0 +1,558 @@
+package org.study.task1.trie;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * The MappedTrie class represents a read-only table of words that is read
+ * directly from a file mapped into memory, so opening takes constant time and
+ * nothing is deserialized or copied to the heap: pages of the file are loaded
+ * by the operating system when they are touched and may be shared by
+ * processes that map the same file. The file keeps the minimal acyclic
+ * automaton of the words in the same form as DawgTrie: a header of six
+ * integers (magic number, format version, number of states, number of edges,
+ * number of words, root state) followed by the sections
+ * 
+ * <pre>
+ * int[states + 1] first edge of every state
+ * int[edges]      target state of every edge
+ * int[states]     number of words completed from state, sign bit marks terminal states
+ * int[states]     length of the longest path from state
+ * long[words]     weights of words in sorted order
+ * char[edges]     character of every edge
+ * </pre>
+ * 
+ * All values are big-endian. States are numbered so that targets are written
+ * before their sources. The file is created by the write method from an
+ * existing RWayTrie. It supports contains, size, words and wordsWithPrefix
+ * methods, add and delete methods throw UnsupportedOperationException. Files
+ * larger than 2 GB can not be mapped.
+ * 
+ * @author Andrii_Lehuta
+ */
+public class MappedTrie implements Trie, Iterable<String> {
+
+    static final int MAGIC = 0x54524945; // "TRIE"
+    static final int FORMAT_VERSION = 2;
+    static final int TERMINAL = 0x80000000; // Terminal bit of the count
+
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    private final int root;
+    private final IntBuffer first;
+    private final IntBuffer targets;
+    private final IntBuffer counts;
+    private final IntBuffer heights;
+    private final LongBuffer weights;
+    private final CharBuffer labels;
+
+    /**
+     * Maps the specified file created by the write method
+     * 
+     * @param file
+     *            - the specified file
+     * @throws IOException
+     *             if the file can not be read or has wrong format
+     */
+    public MappedTrie(Path file) throws IOException {
+	MappedByteBuffer buffer;
+
+	try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+	    if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+		throw new IOException("Wrong size of trie file " + file);
+	    }
+
+	    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+	}
+
+	if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+	    throw new IOException("Wrong format of trie file " + file);
+	}
+
+	int states = buffer.getInt(8);
+	int edges = buffer.getInt(12);
+	int words = buffer.getInt(16);
+	root = buffer.getInt(20);
+
+	long expected = HEADER_SIZE + (long) Integer.BYTES * (states + 1 + edges + states + states)
+		+ (long) Long.BYTES * words + (long) Character.BYTES * edges;
+
+	if (states <= 0 || edges < 0 || words < 0 || root < 0 || root >= states || buffer.capacity() != expected) {
+	    throw new IOException("Wrong format of trie file " + file);
+	}
+
+	int offset = HEADER_SIZE;
+	first = section(buffer, offset, Integer.BYTES * (states + 1)).asIntBuffer();
+	offset += Integer.BYTES * (states + 1);
+	targets = section(buffer, offset, Integer.BYTES * edges).asIntBuffer();
+	offset += Integer.BYTES * edges;
+	counts = section(buffer, offset, Integer.BYTES * states).asIntBuffer();
+	offset += Integer.BYTES * states;
+	heights = section(buffer, offset, Integer.BYTES * states).asIntBuffer();
+	offset += Integer.BYTES * states;
+	weights = section(buffer, offset, Long.BYTES * words).asLongBuffer();
+	offset += Long.BYTES * words;
+	labels = section(buffer, offset, Character.BYTES * edges).asCharBuffer();
+    }
+
+    /**
+     * Returns the view of the specified number of bytes of the buffer that
+     * starts at the specified offset
+     */
+    private static ByteBuffer section(ByteBuffer buffer, int offset, int bytes) {
+	ByteBuffer section = buffer.duplicate();
+	section.position(offset);
+	section.limit(offset + bytes);
+
+	return section.slice();
+    }
+
+    /**
+     * Writes words of the specified trie to the specified file in the format
+     * read by MappedTrie. The file is created or replaced.
+     * 
+     * @param trie
+     *            - the specified trie
+     * @param file
+     *            - the specified file
+     * @throws IOException
+     *             if the file can not be written
+     */
+    public static void write(RWayTrie trie, Path file) throws IOException {
+	DawgTrie automaton = new DawgTrie(trie);
+
+	try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+	    automaton.write(out);
+	}
+    }
+
+    /**
+     * Not supported, the trie is read-only
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public void add(Tuple tuple) {
+	throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns true if trie contains the specified word.
+     * 
+     * @param word
+     *            - word whose presence in this trie to be tested
+     * @return true if this trie contains the specified word
+     */
+    @Override
+    public boolean contains(String word) {
+	return index(word) >= 0;
+    }
+
+    private boolean terminal(int state) {
+	return counts.get(state) < 0;
+    }
+
+    private int count(int state) {
+	return counts.get(state) & ~TERMINAL;
+    }
+
+    /**
+     * Returns the index of the specified word in sorted order or -1 if the
+     * word is not present
+     * 
+     * @param word
+     *            - specified word
+     * @return -1 or the index of the word
+     */
+    private int index(String word) {
+	int state = root;
+	int index = 0;
+
+	for (int i = 0; i < word.length(); i++) {
+	    if (terminal(state)) {
+		index++;
+	    }
+
+	    int edge = first.get(state);
+	    int last = first.get(state + 1);
+	    char character = word.charAt(i);
+
+	    while (edge < last && labels.get(edge) != character) {
+		index += count(targets.get(edge));
+		edge++;
+	    }
+
+	    if (edge == last) {
+		return -1;
+	    }
+
+	    state = targets.get(edge);
+	}
+
+	return word.length() != 0 && terminal(state) ? index : -1;
+    }
+
+    /**
+     * Not supported, the trie is read-only
+     * 
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public boolean delete(String word) {
+	throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns all words of this trie.
+     * 
+     * @return the iterable object that contains all words of this trie
+     */
+    @Override
+    public Iterable<String> words() {
+	return this;
+    }
+
+    /**
+     * Returns all words that begin with specified prefix in the same order as
+     * RWayTrie returns them
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return the iterable object that contains words with specified prefix
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new MappedTrieIterator(pref, Integer.MAX_VALUE);
+	    }
+
+	};
+    }
+
+    /**
+     * Returns words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths, in the order of
+     * wordsWithPrefix method. The walk stops after the last group.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @return the iterable object that contains the words
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref, int lengths) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new MappedTrieIterator(pref, lengths);
+	    }
+
+	};
+    }
+
+    /**
+     * Passes all words that begin with specified prefix to the visitor without
+     * creating strings
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, WordVisitor visitor) {
+	new MappedTrieIterator(pref, Integer.MAX_VALUE).visitRemaining(visitor);
+    }
+
+    /**
+     * Passes words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths to the visitor, like
+     * wordsWithPrefix method with the same arguments
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, int lengths, WordVisitor visitor) {
+	new MappedTrieIterator(pref, lengths).visitRemaining(visitor);
+    }
+
+    /**
+     * Returns stream of words that begin with specified prefix in alphabet
+     * order. The stream is split on edges of states by the numbers of words
+     * below them, so both parts of every split know their exact size.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return stream of words with specified prefix
+     */
+    @Override
+    public Stream<String> streamWithPrefix(String pref) {
+	int state = root;
+
+	for (int i = 0; i < pref.length() && state >= 0; i++) {
+	    int edge = first.get(state);
+
+	    while (edge < first.get(state + 1) && labels.get(edge) != pref.charAt(i)) {
+		edge++;
+	    }
+
+	    state = edge == first.get(state + 1) ? -1 : targets.get(edge);
+	}
+
+	if (state < 0) {
+	    return Stream.empty();
+	}
+
+	return StreamSupport.stream(new AutomatonSpliterator(pref, state) {
+
+	    @Override
+	    int first(int state) {
+		return first.get(state);
+	    }
+
+	    @Override
+	    char label(int edge) {
+		return labels.get(edge);
+	    }
+
+	    @Override
+	    int target(int edge) {
+		return targets.get(edge);
+	    }
+
+	    @Override
+	    boolean terminal(int state) {
+		return MappedTrie.this.terminal(state);
+	    }
+
+	    @Override
+	    int count(int state) {
+		return MappedTrie.this.count(state);
+	    }
+
+	}, false);
+    }
+
+    /**
+     * Returns the weight of the specified word
+     * 
+     * @param word
+     *            - the specified word
+     * @return the weight of the word or 0 if the word is not present
+     */
+    @Override
+    public long weight(String word) {
+	int index = index(word);
+	return index < 0 ? 0 : weights.get(index);
+    }
+
+    /**
+     * Returns the number of words in this trie
+     * 
+     * @return the number of words in this trie
+     */
+    @Override
+    public int size() {
+	return weights.capacity();
+    }
+
+    /**
+     * Returns the shape of the automaton and the size of the mapped file,
+     * which is kept outside of the heap. States that are shared by several
+     * prefixes are counted once at the depth they are first reached.
+     * 
+     * @return statistics of a walk of all states
+     */
+    @Override
+    public TrieStats stats() {
+	TrieStats.Collector collector = new TrieStats.Collector();
+	stats(root, 0, new BitSet(counts.capacity()), collector);
+	collector.bytes(HEADER_SIZE + (long) Integer.BYTES * (first.capacity() + targets.capacity()
+		+ counts.capacity() + heights.capacity()) + (long) Long.BYTES * weights.capacity()
+		+ (long) Character.BYTES * labels.capacity());
+
+	return collector.build(size());
+    }
+
+    private void stats(int state, int d, BitSet visited, TrieStats.Collector collector) {
+	visited.set(state);
+
+	int edges = first.get(state + 1) - first.get(state);
+	collector.node(d, edges, edges, terminal(state));
+
+	for (int edge = first.get(state); edge < first.get(state + 1); edge++) {
+	    int target = targets.get(edge);
+
+	    if (!visited.get(target)) {
+		stats(target, d + 1, visited, collector);
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of states of the automaton
+     * 
+     * @return the number of states
+     */
+    @Override
+    public int nodeCount() {
+	return counts.capacity();
+    }
+
+    /**
+     * Returns the modification version of this trie, which never changes
+     * 
+     * @return 0, the trie is read-only
+     */
+    @Override
+    public long version() {
+	return 0;
+    }
+
+    /**
+     * Iterator for MappedTrie. Walks the automaton in the file in the same way
+     * as the iterator of DawgTrie.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class MappedTrieIterator extends LevelOrderIterator {
+
+	private int[] states = new int[INITIAL_LEVELS];
+	private int[] starts = new int[INITIAL_LEVELS]; // Index of the first word of every state
+	private int[] indexes = new int[INITIAL_LEVELS]; // Index of the word of next edge
+	private int current; // Target of the taken edge
+	private int currentIndex; // Index of the first word of the target
+	private int index; // Index of the found word
+
+	public MappedTrieIterator(String pref, int groups) {
+	    super(pref, groups);
+
+	    int start = root;
+	    int startIndex = 0;
+
+	    for (int i = 0; i < pref.length() && start >= 0; i++) {
+		if (terminal(start)) {
+		    startIndex++;
+		}
+
+		int edge = first.get(start);
+		int last = first.get(start + 1);
+
+		while (edge < last && labels.get(edge) != pref.charAt(i)) {
+		    startIndex += count(targets.get(edge));
+		    edge++;
+		}
+
+		start = edge == last ? -1 : targets.get(edge);
+	    }
+
+	    if (start >= 0) {
+		states[0] = start;
+		starts[0] = startIndex;
+		index = startIndex;
+		begin(terminal(start));
+	    }
+	}
+
+	@Override
+	int nextLength(int d) {
+	    return d < heights.get(states[0]) ? d + 1 : -1;
+	}
+
+	@Override
+	int open(int level) {
+	    int state = states[level];
+	    indexes[level] = terminal(state) ? starts[level] + 1 : starts[level];
+	    return first.get(state);
+	}
+
+	@Override
+	int end(int level) {
+	    return first.get(states[level] + 1);
+	}
+
+	@Override
+	int scan(int level, int edge, int end, int rest) {
+	    while (edge < end && heights.get(targets.get(edge)) < rest) {
+		indexes[level] += count(targets.get(edge));
+		edge++;
+	    }
+
+	    return edge;
+	}
+
+	@Override
+	char take(int level, int edge) {
+	    current = targets.get(edge);
+	    currentIndex = indexes[level];
+	    indexes[level] += count(current);
+	    return labels.get(edge);
+	}
+
+	@Override
+	void push(int level) {
+	    states[level] = current;
+	    starts[level] = currentIndex;
+	}
+
+	@Override
+	boolean word() {
+	    index = currentIndex;
+	    return terminal(current);
+	}
+
+	@Override
+	long weight() {
+	    return weights.get(index);
+	}
+
+	@Override
+	void grow(int levels) {
+	    states = Arrays.copyOf(states, levels);
+	    starts = Arrays.copyOf(starts, levels);
+	    indexes = Arrays.copyOf(indexes, levels);
+	}
+
+    }
+
+    /**
+     * Returns iterator over all words of Trie
+     * 
+     * @return the iterator over all words of Trie
+     */
+    @Override
+    public Iterator<String> iterator() {
+	return new MappedTrieIterator("", Integer.MAX_VALUE);
+    }
+
+}
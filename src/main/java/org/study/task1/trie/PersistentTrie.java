@@ -0,0 +1,541 @@
+package org.study.task1.trie;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.study.task1.trie.RWayTrie.Alphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * The PersistentTrie class represents a thread-safe table of words based on
+ * persistent R-way trie. Nodes are never changed after creation: add and
+ * delete operations copy only the nodes of the path from the root to the word
+ * and publish the new root with compare-and-set, retrying if another writer
+ * was first. Readers take the current root without locks, so iterators walk a
+ * stable snapshot and never throw ConcurrentModificationException. The add,
+ * contains, delete operations take time proportional to the length of the key
+ * multiplied by the alphabet size for copying. Construction takes constant
+ * time. The size operation takes constant time.
+ * 
+ * @author Andrii_Lehuta
+ */
+public class PersistentTrie implements Trie, Iterable<String> {
+    /**
+     * Private class that is used for representation of immutable node trie
+     * structure. Contains weight of the word that ends at the node and whether
+     * such word is present, array of children nodes that is never changed and
+     * length of the longest word of the subtree below the node
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Node {
+	private final long value;
+	private final boolean present;
+	private final Node[] next;
+	private final int height;
+
+	public Node(long value, boolean present, Node[] next) {
+	    this.value = value;
+	    this.present = present;
+	    this.next = next;
+
+	    int height = 0;
+
+	    for (Node child : next) {
+		if (child != null) {
+		    height = Math.max(height, child.height + 1);
+		}
+	    }
+
+	    this.height = height;
+	}
+
+    }
+
+    /**
+     * Root of the trie with the number of its words and the number of
+     * modifications, published as one object
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Snapshot {
+	private final Node root;
+	private final int size;
+	private final long version;
+
+	public Snapshot(Node root, int size, long version) {
+	    this.root = root;
+	    this.size = size;
+	    this.version = version;
+	}
+
+    }
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final int alphabetSize; // Alphabet size
+    private final Alphabet alphabet;
+    private final AtomicReference<Snapshot> snapshot;
+
+    /**
+     * Constructs empty trie with specified alphabet
+     * 
+     * @param alphabet
+     *            - specified alphabet
+     */
+    public PersistentTrie(Alphabet alphabet) {
+	this.alphabet = alphabet;
+	alphabetSize = alphabet.size();
+	snapshot = new AtomicReference<Snapshot>(new Snapshot(new Node(0, false, NO_CHILDREN), 0, 0));
+    }
+
+    /**
+     * Adds a specified word to this trie or replaces the weight of the word
+     * if it is present. Presence is kept apart from the weight, so any weight,
+     * zero included, adds the word. The empty word and words with characters
+     * out of the alphabet are ignored.
+     * 
+     * @param word
+     *            - word to be added to trie
+     */
+    @Override
+    public void add(Tuple tuple) {
+	String word = tuple.getWord();
+
+	if (word.equals("") || !alphabet.accepts(word)) {
+	    return;
+	}
+
+	while (true) {
+	    Snapshot current = snapshot.get();
+	    Node root = add(current.root, word, 0, tuple.getWeight());
+	    int size = contains(current.root, word) ? current.size : current.size + 1;
+
+	    if (snapshot.compareAndSet(current, new Snapshot(root, size, current.version + 1))) {
+		return;
+	    }
+	}
+    }
+
+    /**
+     * Helper function that returns copy of the specified node with the
+     * specified word added
+     * 
+     * @param node
+     *            - node to be copied, may be null
+     * @param word
+     *            - specified word
+     * @param d
+     *            - next character of word
+     * @param weight
+     *            - weight of the word
+     * @return the new node
+     */
+    private Node add(Node node, String word, int d, long weight) {
+	if (d == word.length()) {
+	    return new Node(weight, true, node == null ? NO_CHILDREN : node.next);
+	}
+
+	Node[] next = node == null || node.next.length == 0 ? new Node[alphabetSize] : node.next.clone();
+	int position = alphabet.position(word.charAt(d));
+	next[position] = add(next[position], word, d + 1, weight);
+
+	return node == null ? new Node(0, false, next) : new Node(node.value, node.present, next);
+    }
+
+    /**
+     * Returns true if trie contains the specified word.
+     * 
+     * @param word
+     *            - word whose presence in this trie to be tested
+     * @return true if this trie contains the specified word
+     */
+    @Override
+    public boolean contains(String word) {
+	return word.length() != 0 && contains(snapshot.get().root, word);
+    }
+
+    /**
+     * Removes the specified word in this trie.
+     * 
+     * @param word
+     *            - the specified word
+     * @return true if the specified word is deleted
+     */
+    @Override
+    public boolean delete(String word) {
+	while (true) {
+	    Snapshot current = snapshot.get();
+
+	    if (word.length() == 0 || !contains(current.root, word)) {
+		return false;
+	    }
+
+	    Node root = delete(current.root, word, 0);
+
+	    if (root == null) {
+		root = new Node(0, false, NO_CHILDREN);
+	    }
+
+	    if (snapshot.compareAndSet(current, new Snapshot(root, current.size - 1, current.version + 1))) {
+		return true;
+	    }
+	}
+    }
+
+    /**
+     * Helper function that returns copy of the specified node without the
+     * specified word. The word has to be present.
+     * 
+     * @param node
+     *            - node to be copied
+     * @param word
+     *            - specified word
+     * @param d
+     *            - next character of word
+     * @return the new node or null if it contains no words
+     */
+    private Node delete(Node node, String word, int d) {
+	long value = node.value;
+	boolean present = node.present;
+	Node[] next = node.next;
+
+	if (d == word.length()) {
+	    value = 0;
+	    present = false;
+	} else {
+	    int position = alphabet.position(word.charAt(d));
+	    Node child = delete(next[position], word, d + 1);
+
+	    next = next.clone();
+	    next[position] = child;
+
+	    if (child == null && isEmpty(next)) {
+		next = NO_CHILDREN;
+	    }
+	}
+
+	if (!present && next.length == 0) {
+	    return null;
+	}
+
+	return new Node(value, present, next);
+    }
+
+    private static boolean isEmpty(Node[] next) {
+	for (Node child : next) {
+	    if (child != null) {
+		return false;
+	    }
+	}
+
+	return true;
+    }
+
+    /**
+     * Private helper method that returns the node in which specified word ends
+     * or null if there is no such node
+     * 
+     * @param node
+     *            - root of the snapshot
+     * @param word
+     *            - specified word
+     * @return null or node of the word
+     */
+    private Node get(Node node, String word) {
+	if (!alphabet.accepts(word)) {
+	    return null;
+	}
+
+	Node tmp = node;
+
+	for (int i = 0; i < word.length() && tmp != null; i++) {
+	    tmp = tmp.next.length == 0 ? null : tmp.next[alphabet.position(word.charAt(i))];
+	}
+
+	return tmp;
+    }
+
+    private long weight(Node root, String word) {
+	Node result = get(root, word);
+	return result == null ? 0 : result.value;
+    }
+
+    private boolean contains(Node root, String word) {
+	Node result = get(root, word);
+	return result != null && result.present;
+    }
+
+    /**
+     * Returns all words of this trie.
+     * 
+     * @return the iterable object that contains all words of this trie
+     */
+    @Override
+    public Iterable<String> words() {
+	return this;
+    }
+
+    /**
+     * Returns all words that begin with specified prefix. Every iterator walks
+     * the snapshot of the trie taken when it is created.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return the iterable object that contains words with specified prefix
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new PersistentTrieIterator(get(snapshot.get().root, pref), pref, Integer.MAX_VALUE);
+	    }
+
+	};
+    }
+
+    /**
+     * Returns words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths, in the order of
+     * wordsWithPrefix method. The walk stops after the last group.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @return the iterable object that contains the words
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref, int lengths) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new PersistentTrieIterator(get(snapshot.get().root, pref), pref, lengths);
+	    }
+
+	};
+    }
+
+    /**
+     * Passes all words that begin with specified prefix in the current
+     * snapshot to the visitor without creating strings
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, WordVisitor visitor) {
+	new PersistentTrieIterator(get(snapshot.get().root, pref), pref, Integer.MAX_VALUE).visitRemaining(visitor);
+    }
+
+    /**
+     * Passes words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths to the visitor, like
+     * wordsWithPrefix method with the same arguments
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, int lengths, WordVisitor visitor) {
+	new PersistentTrieIterator(get(snapshot.get().root, pref), pref, lengths).visitRemaining(visitor);
+    }
+
+    /**
+     * Returns the weight of the specified word
+     * 
+     * @param word
+     *            - the specified word
+     * @return the weight of the word or 0 if the word is not present
+     */
+    @Override
+    public long weight(String word) {
+	return word.length() == 0 ? 0 : weight(snapshot.get().root, word);
+    }
+
+    /**
+     * Returns the number of words in this trie
+     * 
+     * @return the number of words in this trie
+     */
+    @Override
+    public int size() {
+	return snapshot.get().size;
+    }
+
+    /**
+     * Returns the shape of the current snapshot and its estimated size. Nodes
+     * shared with older snapshots are counted as if this snapshot kept them
+     * alone.
+     * 
+     * @return statistics of a walk of the whole snapshot
+     */
+    @Override
+    public TrieStats stats() {
+	Snapshot current = snapshot.get();
+	TrieStats.Collector collector = new TrieStats.Collector();
+	stats(current.root, 0, collector);
+
+	return collector.build(current.size);
+    }
+
+    private static void stats(Node node, int d, TrieStats.Collector collector) {
+	int children = 0;
+
+	for (Node child : node.next) {
+	    if (child != null) {
+		children++;
+	    }
+	}
+
+	collector.node(d, children, node.next.length, node.present);
+	collector.bytes(TrieStats.Collector.object(TrieStats.Collector.LONG + TrieStats.Collector.BOOLEAN
+		+ TrieStats.Collector.REFERENCE + TrieStats.Collector.INT));
+
+	if (node.next != NO_CHILDREN) {
+	    collector.bytes(TrieStats.Collector.array(node.next.length, TrieStats.Collector.REFERENCE));
+	}
+
+	for (Node child : node.next) {
+	    if (child != null) {
+		stats(child, d + 1, collector);
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of nodes of the current snapshot, root included.
+     * Nodes are counted by a walk of the whole snapshot.
+     * 
+     * @return the number of nodes
+     */
+    @Override
+    public int nodeCount() {
+	return nodeCount(snapshot.get().root);
+    }
+
+    private static int nodeCount(Node node) {
+	int count = 1;
+
+	for (Node child : node.next) {
+	    if (child != null) {
+		count += nodeCount(child);
+	    }
+	}
+
+	return count;
+    }
+
+    /**
+     * Returns the modification version of this trie
+     * 
+     * @return the number of modifications of this trie
+     */
+    @Override
+    public long version() {
+	return snapshot.get().version;
+    }
+
+    /**
+     * Iterator for PersistentTrie. Walks the nodes of one snapshot level by
+     * level in the same way as the iterator of RWayTrie, so words are returned
+     * in the same order. Nodes of the snapshot are never changed, so the
+     * iterator does not check for modifications.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class PersistentTrieIterator extends LevelOrderIterator {
+
+	private Node[] nodes = new Node[INITIAL_LEVELS];
+	private Node current; // Target of the taken edge
+	private Node word; // Node of the found word
+
+	public PersistentTrieIterator(Node root, String pref, int groups) {
+	    super(pref, groups);
+
+	    if (root != null) {
+		nodes[0] = root;
+		word = root;
+		begin(root.present);
+	    }
+	}
+
+	@Override
+	int nextLength(int d) {
+	    return d < nodes[0].height ? d + 1 : -1;
+	}
+
+	@Override
+	int open(int level) {
+	    return 0;
+	}
+
+	@Override
+	int end(int level) {
+	    return nodes[level].next.length;
+	}
+
+	@Override
+	int scan(int level, int edge, int end, int rest) {
+	    Node[] next = nodes[level].next;
+
+	    while (edge < end && (next[edge] == null || next[edge].height < rest)) {
+		edge++;
+	    }
+
+	    return edge;
+	}
+
+	@Override
+	char take(int level, int edge) {
+	    current = nodes[level].next[edge];
+	    return alphabet.character(edge);
+	}
+
+	@Override
+	void push(int level) {
+	    nodes[level] = current;
+	}
+
+	@Override
+	boolean word() {
+	    word = current;
+	    return current.present;
+	}
+
+	@Override
+	long weight() {
+	    return word.value;
+	}
+
+	@Override
+	void grow(int levels) {
+	    nodes = Arrays.copyOf(nodes, levels);
+	}
+
+    }
+
+    /**
+     * Returns iterator over all words of Trie
+     * 
+     * @return the iterator over all words of Trie
+     */
+    @Override
+    public Iterator<String> iterator() {
+	return new PersistentTrieIterator(snapshot.get().root, "", Integer.MAX_VALUE);
+    }
+
+}
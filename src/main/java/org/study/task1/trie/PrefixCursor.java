@@ -0,0 +1,50 @@
+package org.study.task1.trie;
+
+/**
+ * Cursor of any trie that keeps only the prefix and finds its words with
+ * forEachWithPrefix method of the trie, walking the prefix on every call
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+final class PrefixCursor implements TrieCursor {
+
+    private final Trie trie;
+    private final StringBuilder prefix = new StringBuilder();
+
+    PrefixCursor(Trie trie) {
+	this.trie = trie;
+    }
+
+    @Override
+    public void extend(char character) {
+	prefix.append(character);
+    }
+
+    @Override
+    public boolean backspace() {
+	if (prefix.length() == 0) {
+	    return false;
+	}
+
+	prefix.setLength(prefix.length() - 1);
+
+	return true;
+    }
+
+    @Override
+    public String prefix() {
+	return prefix.toString();
+    }
+
+    @Override
+    public int length() {
+	return prefix.length();
+    }
+
+    @Override
+    public void forEachWord(int lengths, WordVisitor visitor) {
+	trie.forEachWithPrefix(prefix.toString(), lengths, visitor);
+    }
+
+}
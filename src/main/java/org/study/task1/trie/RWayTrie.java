@@ -1,47 +1,88 @@
 package org.study.task1.trie;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.NoSuchElementException;
-import java.util.Queue;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.study.task1.trie.tuple.Tuple;
 
 /**
  * The RWayTrie class represents a table of words based on a symbol table of
- * key-value pairs with string keys and integer values. It supports add,
+ * key-value pairs with string keys and long values. It supports add,
  * contains, delete and size methods. It also provides character-based method
  * for finding all strings in the table that start with a given prefix, and
  * method that return all words of table. The add, contains, delete, operations
  * take time proportional to the length of the key (in the worst case).
  * Construction takes constant time. The size operation takes constant time.
+ * Every node counts the words of its subtree, so deleteWithPrefix method
+ * removes all words with a prefix in time proportional to the prefix length.
+ * Trie constructed with rank capacity keeps the heaviest words of every
+ * subtree in its node, so topK method takes time proportional to the length of
+ * the prefix plus k.
  * 
  * @author Andrii_Lehuta
  */
 public class RWayTrie implements Trie, Iterable<String> {
     /**
      * Private class that is used for representation of node trie structure.
-     * Contains integer value as key of the nod and array of children nodes
+     * Contains weight of the word that ends at the node and whether such word
+     * is present, array of children nodes, number of words of the subtree,
+     * length of the longest word of the subtree below the node, mask of
+     * lengths of words of the subtree and the heaviest tuples of the subtree
+     * if ranking is enabled
      * 
      * @author Andrii_Lehuta
      *
      */
     private static class Node {
-	private int value;
+	private long value;
+	private boolean present;
 	private Node[] next;
+	private int words; // Words of the subtree, the word of the node included
+	private int height;
+	private long lengths; // Bit d is set if the subtree has a word d characters below the node
+	private Tuple[] best;
 
 	public Node(int alphabetSize) {
 	    next = new Node[alphabetSize];
 	}
 
+	/**
+	 * Constructs copy of the specified node that shares its children
+	 */
+	public Node(Node node) {
+	    value = node.value;
+	    present = node.present;
+	    next = node.next.clone();
+	    words = node.words;
+	    height = node.height;
+	    lengths = node.lengths;
+	    best = node.best;
+	}
+
     }
 
+    private static final Tuple[] NO_TUPLES = new Tuple[0];
+    private static final int INITIAL_DEPTH = 16;
+    private static final int INSERTION_SORT = 32; // Largest range of addAll sorted by insertion
+    private static final int LAST_LENGTH = Long.SIZE - 1; // Bit of the mask for this and longer words
+
     private final int alphabetSize; // Alphabet size
     private int trieSize = 0; // Size of the trie
     private Node root;
     private Alphabet alphabet;
     private long version;
+    private final int rankCapacity; // Number of cached tuples in every node
 
     /**
      * Public interface uset for representation of alphabet used in trie
@@ -52,6 +93,11 @@ public class RWayTrie implements Trie, Iterable<String> {
      */
     public interface Alphabet {
 
+	/**
+	 * Position of characters that are not in alphabet
+	 */
+	int UNMAPPED = -1;
+
 	/**
 	 * Returns the size of alphabet
 	 * 
@@ -60,14 +106,45 @@ public class RWayTrie implements Trie, Iterable<String> {
 	int size();
 
 	/**
-	 * Return the position of specified symbol in alphabet
+	 * Return the position of specified symbol in alphabet. Symbols that
+	 * are not in alphabet give UNMAPPED, though older alphabets throw
+	 * IndexOutOfBoundsException instead.
 	 * 
 	 * @param character
 	 *            - specified symbol
-	 * @return position in alphabet
+	 * @return position in alphabet or UNMAPPED
 	 */
 	int position(char character);
 
+	/**
+	 * Returns true if the specified symbol is in alphabet. Alphabets that
+	 * throw from position method should override it.
+	 * 
+	 * @param character
+	 *            - specified symbol
+	 * @return true if the symbol has a position
+	 */
+	default boolean accepts(char character) {
+	    return position(character) != UNMAPPED;
+	}
+
+	/**
+	 * Returns true if every symbol of the specified word is in alphabet
+	 * 
+	 * @param word
+	 *            - specified word
+	 * @return true if the word can be kept in trie
+	 */
+	default boolean accepts(CharSequence word) {
+	    for (int i = 0; i < word.length(); i++) {
+		if (!accepts(word.charAt(i))) {
+		    return false;
+		}
+	    }
+
+	    return true;
+	}
+
 	/**
 	 * Return the character from specified position in alphabet
 	 * 
@@ -86,7 +163,27 @@ public class RWayTrie implements Trie, Iterable<String> {
      *            - specified alphabet
      */
     public RWayTrie(Alphabet alphabet) {
+	this(alphabet, 0);
+    }
+
+    /**
+     * Constructs trie with specified alphabet that keeps rankCapacity heaviest
+     * words of every subtree for topK method. Adding and removing words takes
+     * additional time proportional to the length of the word and rank
+     * capacity.
+     * 
+     * @param alphabet
+     *            - specified alphabet
+     * @param rankCapacity
+     *            - number of words cached in every node, 0 disables cache
+     */
+    public RWayTrie(Alphabet alphabet, int rankCapacity) {
+	if (rankCapacity < 0) {
+	    throw new IllegalArgumentException();
+	}
+
 	this.alphabet = alphabet;
+	this.rankCapacity = rankCapacity;
 	alphabetSize = alphabet.size();
 	root = new Node(alphabetSize);
     }
@@ -99,235 +196,1558 @@ public class RWayTrie implements Trie, Iterable<String> {
      */
     @Override
     public void add(Tuple tuple) {
+	add(tuple.getWord(), tuple.getWeight(), tuple);
+    }
+
+    /**
+     * Adds specified word with specified weight to trie. No tuple is created
+     * unless the word gets into caches of the heaviest words.
+     * 
+     * @param word
+     *            - word to be added to trie
+     * @param weight
+     *            - weight of the word
+     */
+    @Override
+    public void add(CharSequence word, long weight) {
+	add(word, weight, null);
+    }
+
+    /**
+     * Adds specified word, tuple of the word is created when it is needed if
+     * the specified tuple is null
+     */
+    private void add(CharSequence word, long weight, Tuple tuple) {
 	Node tmp = root;
-	String word = tuple.getWord();
 
-	if (word.equals("")) {
+	if (word.length() == 0 || !alphabet.accepts(word)) {
 	    return;
 	}
 
+	Node[] path = rankCapacity > 0 ? new Node[word.length() + 1] : null;
+
 	for (int i = 0; i < word.length(); i++) {
-	    if (tmp.next[alphabet.position(word.charAt(i))] != null) {
-		tmp = tmp.next[alphabet.position(word.charAt(i))];
-	    } else {
-		tmp.next[alphabet.position(word.charAt(i))] = new Node(alphabetSize);
-		tmp = tmp.next[alphabet.position(word.charAt(i))];
+	    if (path != null) {
+		path[i] = tmp;
+	    }
+
+	    tmp.words++;
+	    tmp.height = Math.max(tmp.height, word.length() - i);
+	    tmp.lengths |= length(word.length() - i);
+
+	    int position = alphabet.position(word.charAt(i));
+
+	    if (tmp.next[position] == null) {
+		tmp.next[position] = new Node(alphabetSize);
 	    }
+
+	    tmp = tmp.next[position];
 	}
 
-	if (tmp.value == 0) {
+	tmp.words++;
+	tmp.lengths |= length(0);
+
+	boolean existed = tmp.present;
+	long oldValue = tmp.value;
+
+	if (existed) {
+	    uncount(word);
+	} else {
 	    trieSize++;
 	}
 
-	tmp.value = tuple.getWeight();
+	tmp.present = true;
+	tmp.value = weight;
+
+	if (path != null) {
+	    path[word.length()] = tmp;
+
+	    if (!existed || weight >= oldValue) {
+		promote(path, tuple != null ? tuple : new Tuple(word.toString(), weight));
+	    } else {
+		refresh(path, word.toString(), false);
+	    }
+	}
+
 	version++;
     }
 
     /**
-     * Returns true if trie contains the specified word.
+     * Takes back the counts of words that add method made on the path of the
+     * specified word when the word was already present
+     */
+    private void uncount(CharSequence word) {
+	Node tmp = root;
+
+	for (int i = 0; i < word.length(); i++) {
+	    tmp.words--;
+	    tmp = tmp.next[alphabet.position(word.charAt(i))];
+	}
+
+	tmp.words--;
+    }
+
+    /**
+     * Adds the specified tuples in one pass. Every word starts from the node
+     * where it leaves the previous word, so only the rest of the word is
+     * walked. Tuples may come in any order, but sorted tuples share the
+     * longest prefixes. Caches of the heaviest words are rebuilt once after
+     * all tuples are added.
      * 
-     * @param word
-     *            - word whose presence in this trie to be tested
-     * @return true if this trie contains the specified word
+     * @param tuples
+     *            - tuples sorted by their words
      */
-    @Override
-    public boolean contains(String word) {
-	Node result = get(root, word);
-	return result != null && result != root;
+    public void addSorted(Iterable<Tuple> tuples) {
+	trieSize += addSorted(root, 0, tuples, false);
+
+	if (rankCapacity > 0) {
+	    rank(root, new char[root.height], 0);
+	}
+
+	version++;
     }
 
     /**
-     * Private helper method that returns the last node that points to last
-     * character of specified word or null if word is not present
+     * Adds the specified tuples below the specified node in one pass
      * 
-     * @param x
-     *            - specified Node to start search
-     * @param word
-     *            - specified word
-     * @return null or node that points to last character of specified word
+     * @param start
+     *            - node of the common prefix of all words
+     * @param offset
+     *            - length of the common prefix
+     * @param tuples
+     *            - tuples sorted by their words
+     * @param copy
+     *            - true if nodes below the start node are copied before they
+     *            are changed, tuples must be sorted then
+     * @return the number of new words
      */
-    private Node get(Node x, String word) {
-	if (word.length() == 0) {
-	    return x;
+    private int addSorted(Node start, int offset, Iterable<Tuple> tuples, boolean copy) {
+	Node[] path = new Node[offset + INITIAL_DEPTH + 1]; // Nodes of the previous word
+	path[offset] = start;
+	String previous = "";
+	int added = 0;
+
+	for (Tuple tuple : tuples) {
+	    String word = tuple.getWord();
+	    int length = word.length();
+
+	    if (length == 0 || !alphabet.accepts(word)) {
+		continue;
+	    }
+
+	    if (length >= path.length) {
+		path = Arrays.copyOf(path, length * 2);
+	    }
+
+	    int common = offset;
+	    int limit = Math.min(length, previous.length());
+
+	    while (common < limit && word.charAt(common) == previous.charAt(common)) {
+		path[common].height = Math.max(path[common].height, length - common);
+		path[common].lengths |= length(length - common);
+		common++;
+	    }
+
+	    Node tmp = path[common];
+
+	    for (int i = common; i < length; i++) {
+		tmp.height = Math.max(tmp.height, length - i);
+		tmp.lengths |= length(length - i);
+
+		int position = alphabet.position(word.charAt(i));
+
+		if (tmp.next[position] == null) {
+		    tmp.next[position] = new Node(alphabetSize);
+		} else if (copy) {
+		    // Sorted words never come back to a node they left
+		    tmp.next[position] = new Node(tmp.next[position]);
+		}
+
+		tmp = tmp.next[position];
+		path[i + 1] = tmp;
+	    }
+
+	    if (!tmp.present) {
+		added++;
+
+		for (int i = offset; i <= length; i++) {
+		    path[i].words++;
+		}
+	    }
+
+	    tmp.lengths |= length(0);
+	    tmp.present = true;
+	    tmp.value = tuple.getWeight();
+	    previous = word;
 	}
 
-	Node tmp = x;
+	return added;
+    }
 
-	for (int i = 0; i < word.length() - 1; i++) {
-	    if (tmp.next[alphabet.position(word.charAt(i))] == null) {
-		return null;
-	    } else {
-		tmp = tmp.next[alphabet.position(word.charAt(i))];
+    /**
+     * Sorts the specified tuples by their words and adds them in one pass.
+     * The sort is a stable radix sort by alphabet positions from the first
+     * character, so it looks at every character at most once and never
+     * compares whole words. It is made in memory with one extra array of
+     * references, tuples that do not fit in memory are to be sorted before
+     * and loaded in parts by addSorted method. The last tuple wins for
+     * repeated words like in add method.
+     * 
+     * @param tuples
+     *            - tuples in any order
+     */
+    public void addAll(Collection<Tuple> tuples) {
+	addSorted(Arrays.asList(sort(tuples)));
+    }
+
+    /**
+     * Adds the specified tuples in parallel in the common fork/join pool
+     * 
+     * @param tuples
+     *            - tuples in any order
+     * @see #addParallel(Collection, ForkJoinPool)
+     */
+    public void addParallel(Collection<Tuple> tuples) {
+	addParallel(tuples, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Adds the specified tuples in parallel. Tuples are sorted like in addAll
+     * method and split by the first character of their words. Subtrees of
+     * different children of root do not share nodes, so every child is filled
+     * by its own task in the specified pool. A task fills a detached copy of
+     * its subtree: nodes on the paths of its words are copied before they are
+     * changed, other nodes are shared. Copies are linked to root and size,
+     * version and caches of root are updated once when all tasks succeed. If
+     * a task fails, the trie is left as it was and the exception of the first
+     * failed task is thrown. The trie must not be used by other threads until
+     * the method returns.
+     * 
+     * @param tuples
+     *            - tuples in any order
+     * @param pool
+     *            - pool that runs the tasks
+     */
+    public void addParallel(Collection<Tuple> tuples, ForkJoinPool pool) {
+	Tuple[] sorted = sort(tuples);
+	List<Shard> shards = new ArrayList<Shard>();
+	int from = 0;
+
+	while (from < sorted.length && sorted[from].getWord().isEmpty()) {
+	    from++;
+	}
+
+	while (from < sorted.length) {
+	    int first = alphabet.position(sorted[from].getWord().charAt(0));
+	    int to = from + 1;
+
+	    while (to < sorted.length && alphabet.position(sorted[to].getWord().charAt(0)) == first) {
+		to++;
 	    }
+
+	    Shard shard = new Shard(first, Arrays.asList(sorted).subList(from, to));
+	    pool.execute(shard);
+	    shards.add(shard);
+	    from = to;
 	}
 
-	return tmp.next[alphabet.position(word.charAt(word.length() - 1))];
+	RuntimeException failure = null;
+	int added = 0;
+
+	for (Shard shard : shards) {
+	    try {
+		added += shard.join();
+	    } catch (RuntimeException e) {
+		failure = failure == null ? e : failure;
+	    }
+	}
+
+	if (failure != null) {
+	    throw failure;
+	}
+
+	for (Shard shard : shards) {
+	    root.next[shard.position] = shard.node;
+	    root.height = Math.max(root.height, shard.node.height + 1);
+	    root.lengths |= below(shard.node.lengths);
+	}
+
+	trieSize += added;
+	root.words = trieSize;
 
+	if (rankCapacity > 0) {
+	    root.best = merge(null, root);
+	}
+
+	version++;
     }
 
     /**
-     * Removes the specified word in this trie.
+     * Task that adds words which begin with the same character to a copy of
+     * the subtree of that character
      * 
-     * @param word
-     *            - the specified word
-     * @return true if the specified word is deleted
+     * @author Andrii_Lehuta
+     *
      */
-    @Override
-    public boolean delete(String word) {
-	int oldSize = trieSize;
+    private class Shard extends RecursiveTask<Integer> {
+	private static final long serialVersionUID = 1L;
 
-	root = delete(root, word, 0);
-	if (root == null) {
-	    root = new Node(alphabetSize);
+	private final int position; // Position of the first character
+	private final List<Tuple> tuples;
+	private Node node; // Root of the subtree, a copy when the task is done
+
+	public Shard(int position, List<Tuple> tuples) {
+	    this.position = position;
+	    this.tuples = tuples;
+	    node = root.next[position];
 	}
 
-	if (trieSize - oldSize != 0) {
-	    version++;
-	    return true;
+	@Override
+	protected Integer compute() {
+	    node = node == null ? new Node(alphabetSize) : new Node(node);
+	    int added = addSorted(node, 1, tuples, true);
+
+	    if (rankCapacity > 0) {
+		char[] word = new char[node.height + 1];
+		word[0] = alphabet.character(position);
+		rank(node, word, 1);
+	    }
+
+	    return added;
 	}
 
-	return false;
     }
 
     /**
-     * Helper function that removes specified word, if discovered, from trie
-     * recursively. Through recursion it reaches the last node of the word and
-     * sets it to nil if branch of the word contains more words otherwise
-     * removes nodes
+     * Returns the specified tuples whose words are accepted by the alphabet,
+     * sorted by their words in alphabet order, shorter word first. The sort is
+     * stable, so repeated words keep their order.
+     */
+    private Tuple[] sort(Collection<Tuple> tuples) {
+	List<Tuple> accepted = new ArrayList<Tuple>(tuples.size());
+
+	for (Tuple tuple : tuples) {
+	    if (alphabet.accepts(tuple.getWord())) {
+		accepted.add(tuple);
+	    }
+	}
+
+	Tuple[] sorted = accepted.toArray(new Tuple[accepted.size()]);
+	sort(sorted, new Tuple[sorted.length], new int[sorted.length], 0, sorted.length, 0);
+
+	return sorted;
+    }
+
+    /**
+     * Sorts the range of tuples whose words share the first d characters with
+     * stable counting sort by the character at d, then every group of words
+     * that go on is sorted by the next character. Small ranges are sorted by
+     * insertion.
      * 
-     * @param node
-     *            - initial node for search of specified word
-     * @param word
-     *            - specified word
+     * @param tuples
+     *            - tuples to sort
+     * @param aux
+     *            - array for the counting sort of the same length
+     * @param keys
+     *            - array for keys of the counting sort of the same length
+     * @param from
+     *            - first tuple of the range
+     * @param to
+     *            - tuple after the last one of the range
      * @param d
-     *            - next character of word
-     * @return returns root of trie or null if last word was removed
+     *            - length of the common prefix of the range
      */
-    private Node delete(Node node, String word, int d) {
+    private void sort(Tuple[] tuples, Tuple[] aux, int[] keys, int from, int to, int d) {
+	if (to - from <= INSERTION_SORT) {
+	    for (int i = from + 1; i < to; i++) {
+		Tuple tuple = tuples[i];
+		int j = i;
 
-	if (node == null) {
-	    return null;
-	}
+		while (j > from && less(tuple.getWord(), tuples[j - 1].getWord(), d)) {
+		    tuples[j] = tuples[j - 1];
+		    j--;
+		}
 
-	if (word.length() == d) {
-	    if (node.value != 0) {
-		trieSize--;
+		tuples[j] = tuple;
 	    }
 
-	    node.value = 0;
+	    return;
+	}
+
+	int[] starts = new int[alphabetSize + 2]; // Zero is for words that end at d
 
-	} else {
-	    node.next[alphabet.position(word.charAt(d))] = delete(node.next[alphabet.position(word.charAt(d))], word,
-		    d + 1);
+	for (int i = from; i < to; i++) {
+	    keys[i] = key(tuples[i].getWord(), d);
+	    starts[keys[i] + 1]++;
 	}
 
-	if (node.value != 0) {
-	    return node;
+	for (int key = 1; key < starts.length; key++) {
+	    starts[key] += starts[key - 1];
 	}
 
-	for (int i = 0; i < node.next.length; i++) {
-	    if (node.next[i] != null) {
-		return node;
-	    }
+	for (int i = from; i < to; i++) {
+	    aux[from + starts[keys[i]]++] = tuples[i];
 	}
 
-	return null;
+	System.arraycopy(aux, from, tuples, from, to - from);
+
+	for (int key = 1; key <= alphabetSize; key++) {
+	    if (starts[key] - starts[key - 1] > 1) {
+		sort(tuples, aux, keys, from + starts[key - 1], from + starts[key], d + 1);
+	    }
+	}
     }
 
     /**
-     * Returns all words of this trie.
-     * 
-     * @return the iterable object that contains all words of this trie
+     * Returns the key of the character of the word at d for the sort, zero
+     * if the word ends before d
      */
-    @Override
-    public Iterable<String> words() {
-	return this;
+    private int key(String word, int d) {
+	return d < word.length() ? alphabet.position(word.charAt(d)) + 1 : 0;
     }
 
     /**
-     * Returns all words that begin with specified prefix
-     * 
-     * @param pref
-     *            - the specified prefix
-     * @return the iterable object that contains words with specified prefix
+     * Returns true if the first word goes before the second one, both words
+     * sharing the first d characters
      */
-    @Override
-    public Iterable<String> wordsWithPrefix(String pref) {
-	return new Iterable<String>() {
+    private boolean less(String first, String second, int d) {
+	int length = Math.min(first.length(), second.length());
 
-	    @Override
-	    public Iterator<String> iterator() {
-		return new RWayTrieIterator(get(root, pref), pref, version);
+	for (int i = d; i < length; i++) {
+	    int diff = alphabet.position(first.charAt(i)) - alphabet.position(second.charAt(i));
+
+	    if (diff != 0) {
+		return diff < 0;
 	    }
+	}
 
-	};
+	return first.length() < second.length();
     }
 
     /**
-     * Returns the number of words in this trie
+     * Rebuilds caches of the heaviest words of the specified node and all
+     * nodes below it
      * 
-     * @return the number of words in this trie
+     * @param node
+     *            - the specified node
+     * @param word
+     *            - buffer with the word of the node
+     * @param d
+     *            - depth of the node
      */
-    @Override
-    public int size() {
-	return trieSize;
+    private void rank(Node node, char[] word, int d) {
+	for (int i = 0; i < alphabetSize; i++) {
+	    if (node.next[i] != null) {
+		word[d] = alphabet.character(i);
+		rank(node.next[i], word, d + 1);
+	    }
+	}
+
+	node.best = merge(node.present ? new Tuple(new String(word, 0, d), node.value) : null, node);
     }
 
     /**
-     * Iterator for Trie table. Walks the tree breadthways
+     * Puts the specified tuple to caches of nodes of its path, starting from
+     * the last node. Stops at the first node where the tuple is not among the
+     * heaviest, it can not be among the heaviest of upper nodes either.
      * 
-     * @author Andrii_Lehuta
-     *
+     * @param path
+     *            - nodes of the word from root
+     * @param tuple
+     *            - added or heavier tuple
      */
-    private class RWayTrieIterator implements Iterator<String> {
+    private void promote(Node[] path, Tuple tuple) {
+	for (int d = path.length - 1; d >= 0; d--) {
+	    Node node = path[d];
+	    Tuple[] best = node.best == null ? NO_TUPLES : node.best;
+	    List<Tuple> ranked = new ArrayList<Tuple>(best.length + 1);
 
-	private Queue<String> words = new LinkedList<String>();
-	private Queue<Node> nodes = new LinkedList<Node>();
-	private long version;
+	    for (Tuple cached : best) {
+		if (!cached.getWord().equals(tuple.getWord())) {
+		    ranked.add(cached);
+		}
+	    }
 
-	public RWayTrieIterator(Node root, String pref, long version) {
-	    if (root != null && RWayTrie.this.trieSize != 0) {
-		nodes.add(root);
-		words.add(pref);
-		this.version = version;
+	    int index = Collections.binarySearch(ranked, tuple, Tuple.RANK_ORDER);
+	    index = index < 0 ? -index - 1 : index;
+
+	    if (index >= rankCapacity) {
+		return;
 	    }
-	}
 
-	@Override
-	public boolean hasNext() {
-	    return !nodes.isEmpty();
+	    ranked.add(index, tuple);
+
+	    if (ranked.size() > rankCapacity) {
+		ranked.remove(rankCapacity);
+	    }
+
+	    node.best = ranked.toArray(new Tuple[ranked.size()]);
 	}
+    }
 
-	@Override
-	public String next() {
+    /**
+     * Rebuilds caches of the specified nodes from their children, starting
+     * from the last node, after the word became lighter or was removed. Stops
+     * at the first node whose cache does not contain the word.
+     * 
+     * @param path
+     *            - remaining nodes of the word from root
+     * @param word
+     *            - the specified word
+     * @param prefix
+     *            - true if all words with the specified prefix were removed
+     */
+    private void refresh(Node[] path, String word, boolean prefix) {
+	for (int d = path.length - 1; d >= 0; d--) {
+	    Node node = path[d];
 
-	    if (version != RWayTrie.this.version) {
-		throw new ConcurrentModificationException();
+	    if (node == null) {
+		continue;
 	    }
 
-	    if (nodes.isEmpty()) {
-		throw new NoSuchElementException();
+	    if (!cached(node, word, prefix)) {
+		return;
 	    }
 
-	    String result = null;
+	    Tuple own = null;
 
-	    while (!nodes.isEmpty() && result == null) {
-		Node node = nodes.poll();
-		String tmpWord = words.poll();
+	    if (node.present) {
+		own = new Tuple(word.substring(0, d), node.value);
+	    }
 
-		if (node.value != 0) {
-		    result = tmpWord;
-		}
+	    node.best = merge(own, node);
+	}
+    }
 
-		for (int i = 0; i < node.next.length; i++) {
-		    if (node.next[i] != null) {
-			nodes.add(node.next[i]);
-			words.add(tmpWord + alphabet.character(i));
-		    }
+    private static boolean cached(Node node, String word, boolean prefix) {
+	if (node.best != null) {
+	    for (Tuple tuple : node.best) {
+		if (prefix ? tuple.getWord().startsWith(word) : tuple.getWord().equals(word)) {
+		    return true;
 		}
 	    }
+	}
+
+	return false;
+    }
+
+    /**
+     * Selects the heaviest tuples among the own tuple of node and caches of
+     * its children
+     */
+    private Tuple[] merge(Tuple own, Node node) {
+	int[] heads = new int[alphabetSize];
+	List<Tuple> ranked = new ArrayList<Tuple>(rankCapacity);
+	boolean ownTaken = own == null;
+
+	while (ranked.size() < rankCapacity) {
+	    Tuple candidate = ownTaken ? null : own;
+	    int child = -1;
+
+	    for (int i = 0; i < alphabetSize; i++) {
+		Node next = node.next[i];
 
-	    return result;
+		if (next != null && next.best != null && heads[i] < next.best.length
+			&& (candidate == null || Tuple.RANK_ORDER.compare(next.best[heads[i]], candidate) < 0)) {
+		    candidate = next.best[heads[i]];
+		    child = i;
+		}
+	    }
+
+	    if (candidate == null) {
+		break;
+	    }
+
+	    if (child < 0) {
+		ownTaken = true;
+	    } else {
+		heads[child]++;
+	    }
+
+	    ranked.add(candidate);
+	}
+
+	return ranked.isEmpty() ? null : ranked.toArray(new Tuple[ranked.size()]);
+    }
+
+    /**
+     * Returns true if trie contains the specified word.
+     * 
+     * @param word
+     *            - word whose presence in this trie to be tested
+     * @return true if this trie contains the specified word
+     */
+    @Override
+    public boolean contains(String word) {
+	Node result = get(root, word);
+	return result != null && result.present;
+    }
+
+    /**
+     * Private helper method that returns the last node that points to last
+     * character of specified word or null if word is not present
+     * 
+     * @param x
+     *            - specified Node to start search
+     * @param word
+     *            - specified word
+     * @return null or node that points to last character of specified word
+     */
+    private Node get(Node x, String word) {
+	if (word.length() == 0) {
+	    return x;
+	}
+
+	if (!alphabet.accepts(word)) {
+	    return null;
+	}
+
+	Node tmp = x;
+
+	for (int i = 0; i < word.length() - 1; i++) {
+	    if (tmp.next[alphabet.position(word.charAt(i))] == null) {
+		return null;
+	    } else {
+		tmp = tmp.next[alphabet.position(word.charAt(i))];
+	    }
+	}
+
+	return tmp.next[alphabet.position(word.charAt(word.length() - 1))];
+
+    }
+
+    /**
+     * Removes the specified word in this trie. Nodes of the word are walked
+     * once from root, the branch below the deepest node that keeps other
+     * words is cut off and shapes of the nodes above it are updated until
+     * one of them does not change.
+     * 
+     * @param word
+     *            - the specified word
+     * @return true if the specified word is deleted
+     */
+    @Override
+    public boolean delete(String word) {
+	if (!alphabet.accepts(word)) {
+	    return false;
+	}
+
+	Node[] path = path(word);
+	Node node = path[word.length()];
+
+	if (node == null || !node.present) {
+	    return false;
+	}
+
+	node.present = false;
+	node.value = 0;
+	remove(path, word, 1);
+
+	if (rankCapacity > 0) {
+	    refresh(path, word, false);
+	}
+
+	version++;
+	return true;
+    }
+
+    /**
+     * Removes all words that begin with the specified prefix. The subtree of
+     * the prefix is cut off as a whole, its number of words is kept in its
+     * node, so the time is proportional to the length of the prefix and not
+     * to the number of removed words.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return the number of removed words
+     */
+    public int deleteWithPrefix(String pref) {
+	if (!alphabet.accepts(pref)) {
+	    return 0;
+	}
+
+	Node[] path = path(pref);
+	Node node = path[pref.length()];
+
+	if (node == null || node.words == 0) {
+	    return 0;
+	}
+
+	int removed = node.words;
+
+	if (pref.isEmpty()) {
+	    root = new Node(alphabetSize);
+	    trieSize = 0;
+	} else {
+	    remove(path, pref, removed);
+
+	    if (rankCapacity > 0) {
+		refresh(path, pref, true);
+	    }
+	}
+
+	version++;
+	return removed;
+    }
+
+    /**
+     * Returns nodes of the specified word from root, nodes that are not
+     * present are null
+     */
+    private Node[] path(String word) {
+	Node[] path = new Node[word.length() + 1];
+	Node tmp = root;
+
+	for (int i = 0; i <= word.length() && tmp != null; i++) {
+	    path[i] = tmp;
+
+	    if (i < word.length()) {
+		tmp = tmp.next[alphabet.position(word.charAt(i))];
+	    }
+	}
+
+	return path;
+    }
+
+    /**
+     * Takes the specified number of words out of counts of the nodes of the
+     * specified path. The branch below the deepest node that keeps words is
+     * cut off and its nodes are cleared from the path, then heights and
+     * masks of lengths are rebuilt from children upwards until a node does
+     * not change, the nodes above it can not change either.
+     * 
+     * @param path
+     *            - nodes of the word from root, all present
+     * @param word
+     *            - the word or prefix of the last node of the path
+     * @param removed
+     *            - number of removed words
+     */
+    private void remove(Node[] path, String word, int removed) {
+	int keep = word.length(); // Deepest node that survives
+
+	for (Node node : path) {
+	    node.words -= removed;
+	}
+
+	while (keep > 0 && path[keep].words == 0) {
+	    keep--;
+	}
+
+	if (keep < word.length()) {
+	    path[keep].next[alphabet.position(word.charAt(keep))] = null;
+	    Arrays.fill(path, keep + 1, path.length, null);
+	}
+
+	trieSize -= removed;
+
+	for (int d = keep; d >= 0; d--) {
+	    Node node = path[d];
+	    int height = 0;
+	    long lengths = node.present ? length(0) : 0;
+
+	    for (Node child : node.next) {
+		if (child != null) {
+		    height = Math.max(height, child.height + 1);
+		    lengths |= below(child.lengths);
+		}
+	    }
+
+	    if (height == node.height && lengths == node.lengths) {
+		return;
+	    }
+
+	    node.height = height;
+	    node.lengths = lengths;
+	}
+    }
+
+    /**
+     * Returns the bit of the mask of lengths for words the specified number
+     * of characters below a node. Words of LAST_LENGTH and more characters
+     * share the last bit.
+     */
+    private static long length(int d) {
+	return 1L << Math.min(d, LAST_LENGTH);
+    }
+
+    /**
+     * Returns the mask of lengths of a child as seen from its parent
+     */
+    private static long below(long lengths) {
+	return lengths << 1 | lengths & Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns the smallest length of words of the subtree of the specified
+     * node that is bigger than d, or -1 if there is no such length
+     */
+    private static int nextLength(Node node, int d) {
+	d++;
+
+	if (d > node.height) {
+	    return -1;
+	} else if (d >= LAST_LENGTH) {
+	    return d; // The mask does not tell long words apart
+	}
+
+	long rest = node.lengths >>> d;
+
+	return rest == 0 ? -1 : d + Long.numberOfTrailingZeros(rest);
+    }
+
+    /**
+     * Returns the length of words of the specified group of the subtree of
+     * the specified node, groups being different lengths from the shortest.
+     * Returns the height of the node if the length is not told apart by the
+     * mask.
+     */
+    private static int groupLength(Node node, int groups) {
+	int d = -1;
+
+	for (int i = 0; i < groups; i++) {
+	    int next = nextLength(node, d);
+
+	    if (next < 0) {
+		return d;
+	    } else if (next >= LAST_LENGTH) {
+		return node.height;
+	    }
+
+	    d = next;
+	}
+
+	return d;
+    }
+
+    /**
+     * Returns all words of this trie.
+     * 
+     * @return the iterable object that contains all words of this trie
+     */
+    @Override
+    public Iterable<String> words() {
+	return this;
+    }
+
+    /**
+     * Returns all words that begin with specified prefix
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return the iterable object that contains words with specified prefix
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new RWayTrieIterator(get(root, pref), pref, version, Integer.MAX_VALUE);
+	    }
+
+	};
+    }
+
+    /**
+     * Returns words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths, in the order of
+     * wordsWithPrefix method. Masks of lengths in nodes give the longest
+     * length before the walk, so the walk never goes below it and visits
+     * only subtrees that have words of the length of the current pass.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @return the iterable object that contains the words
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref, int lengths) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new RWayTrieIterator(get(root, pref), pref, version, lengths);
+	    }
+
+	};
+    }
+
+    /**
+     * Passes all words that begin with specified prefix to the visitor in the
+     * order of wordsWithPrefix method. The word is passed in the buffer of the
+     * walk, so no objects are created per word.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, WordVisitor visitor) {
+	new RWayTrieIterator(get(root, pref), pref, version, Integer.MAX_VALUE).visitRemaining(visitor);
+    }
+
+    /**
+     * Passes words that begin with specified prefix and have one of the
+     * specified number of the smallest lengths to the visitor, like
+     * wordsWithPrefix method with the same arguments
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @param visitor
+     *            - visitor of the found words
+     */
+    @Override
+    public void forEachWithPrefix(String pref, int lengths, WordVisitor visitor) {
+	new RWayTrieIterator(get(root, pref), pref, version, lengths).visitRemaining(visitor);
+    }
+
+    /**
+     * Returns stream of words that begin with specified prefix in alphabet
+     * order. The stream is split on subtrees: children of the shallowest node
+     * with two or more children left are divided in halves by the numbers of
+     * words below them, so both parts of every split know their exact size.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return stream of words with specified prefix
+     */
+    @Override
+    public Stream<String> streamWithPrefix(String pref) {
+	Node node = get(root, pref);
+
+	if (node == null) {
+	    return Stream.empty();
+	}
+
+	return StreamSupport.stream(new RWayTrieSpliterator(node, pref), false);
+    }
+
+    /**
+     * Spliterator over words of a subtree in alphabet order, depth-first.
+     * Every part walks the children of its nodes from the next position to
+     * the end position, the part made by a split stops at its base level.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class RWayTrieSpliterator implements Spliterator<String>, Cloneable {
+
+	private final int prefixLength;
+	private char[] buffer;
+	private Node[] nodes = new Node[INITIAL_DEPTH];
+	private int[] positions = new int[INITIAL_DEPTH]; // Next child of every node
+	private int[] ends = new int[INITIAL_DEPTH]; // End of children of every node
+	private int base; // Level of the first node of this part
+	private int level; // Index of the node which children are walked
+	private boolean pending; // The word of the start node is not returned yet
+	private long size;
+	private final long version;
+
+	public RWayTrieSpliterator(Node start, String pref) {
+	    prefixLength = pref.length();
+	    buffer = new char[prefixLength + INITIAL_DEPTH];
+	    pref.getChars(0, prefixLength, buffer, 0);
+	    nodes[0] = start;
+	    ends[0] = alphabetSize;
+	    pending = start.present;
+	    size = start.words;
+	    version = RWayTrie.this.version;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super String> action) {
+	    if (version != RWayTrie.this.version) {
+		throw new ConcurrentModificationException();
+	    }
+
+	    if (pending) {
+		pending = false;
+		size--;
+		action.accept(new String(buffer, 0, prefixLength));
+		return true;
+	    }
+
+	    while (level >= base) {
+		Node[] next = nodes[level].next;
+		int i = positions[level];
+
+		while (i < ends[level] && next[i] == null) {
+		    i++;
+		}
+
+		if (i == ends[level]) {
+		    level--;
+		    continue;
+		}
+
+		positions[level] = i + 1;
+		ensureDepth();
+		buffer[prefixLength + level] = alphabet.character(i);
+		level++;
+		nodes[level] = next[i];
+		positions[level] = 0;
+		ends[level] = alphabetSize;
+
+		if (next[i].present) {
+		    size--;
+		    action.accept(new String(buffer, 0, prefixLength + level));
+		    return true;
+		}
+	    }
+
+	    return false;
+	}
+
+	@Override
+	public Spliterator<String> trySplit() {
+	    long after = 0; // Words of the levels above the split
+
+	    for (int l = base; l <= level; l++) {
+		Node[] next = nodes[l].next;
+		int children = 0;
+
+		for (int i = positions[l]; i < ends[l]; i++) {
+		    if (next[i] != null) {
+			children++;
+		    }
+		}
+
+		if (children >= 2) {
+		    long words = words(next, positions[l], ends[l]);
+		    int mid = positions[l];
+		    long first = 0;
+
+		    for (int left = children; left > 1 && (first == 0 || 2 * first < words); mid++) {
+			if (next[mid] != null) {
+			    first += next[mid].words;
+			    left--;
+			}
+		    }
+
+		    RWayTrieSpliterator prefix = copy();
+		    prefix.base = l;
+		    prefix.ends[l] = mid;
+		    prefix.size = size - (words - first) - after;
+
+		    pending = false;
+		    level = l;
+		    positions[l] = mid;
+		    size = words - first + after;
+
+		    return prefix;
+		}
+
+		after += words(next, positions[l], ends[l]);
+	    }
+
+	    return null;
+	}
+
+	/**
+	 * Returns the number of words below the children from the specified
+	 * position to the specified end
+	 */
+	private long words(Node[] next, int from, int to) {
+	    long words = 0;
+
+	    for (int i = from; i < to; i++) {
+		if (next[i] != null) {
+		    words += next[i].words;
+		}
+	    }
+
+	    return words;
+	}
+
+	private RWayTrieSpliterator copy() {
+	    try {
+		RWayTrieSpliterator copy = (RWayTrieSpliterator) clone();
+		copy.buffer = buffer.clone();
+		copy.nodes = nodes.clone();
+		copy.positions = positions.clone();
+		copy.ends = ends.clone();
+
+		return copy;
+	    } catch (CloneNotSupportedException e) {
+		throw new AssertionError(e);
+	    }
+	}
+
+	private void ensureDepth() {
+	    if (level + 1 == nodes.length) {
+		nodes = Arrays.copyOf(nodes, nodes.length * 2);
+		positions = Arrays.copyOf(positions, nodes.length);
+		ends = Arrays.copyOf(ends, nodes.length);
+	    }
+
+	    if (prefixLength + level == buffer.length) {
+		buffer = Arrays.copyOf(buffer, buffer.length * 2);
+	    }
+	}
+
+	@Override
+	public long estimateSize() {
+	    return size;
+	}
+
+	@Override
+	public int characteristics() {
+	    return ORDERED | DISTINCT | NONNULL | SIZED | SUBSIZED;
+	}
+
+    }
+
+    /**
+     * Returns cursor that keeps nodes of the typed prefix, so extending and
+     * shortening the prefix move by one node
+     * 
+     * @return the new cursor
+     */
+    @Override
+    public TrieCursor cursor() {
+	return new RWayTrieCursor();
+    }
+
+    /**
+     * Cursor of RWayTrie. Keeps the node of every prefix of the typed
+     * prefix, null if there are no words with it, and walks words from the
+     * node of the whole prefix, so the prefix is not walked again. Nodes may
+     * be removed by delete method, so they are found again from root after
+     * the trie is changed.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class RWayTrieCursor implements TrieCursor {
+
+	private char[] prefix = new char[INITIAL_DEPTH];
+	private Node[] nodes = new Node[INITIAL_DEPTH + 1]; // Node of every length of the prefix
+	private int length;
+	private long version = -1; // Version of the trie when nodes were found
+
+	@Override
+	public void extend(char character) {
+	    if (length == prefix.length) {
+		prefix = Arrays.copyOf(prefix, length * 2);
+		nodes = Arrays.copyOf(nodes, length * 2 + 1);
+	    }
+
+	    prefix[length] = character;
+
+	    if (version == RWayTrie.this.version) {
+		nodes[length + 1] = child(nodes[length], character);
+	    }
+
+	    length++;
+	}
+
+	/**
+	 * Returns child of the specified node by the specified character or
+	 * null if there is no such child
+	 */
+	private Node child(Node node, char character) {
+	    return node == null || !alphabet.accepts(character) ? null : node.next[alphabet.position(character)];
+	}
+
+	@Override
+	public boolean backspace() {
+	    if (length == 0) {
+		return false;
+	    }
+
+	    length--;
+
+	    return true;
+	}
+
+	@Override
+	public String prefix() {
+	    return new String(prefix, 0, length);
+	}
+
+	@Override
+	public int length() {
+	    return length;
+	}
+
+	@Override
+	public void forEachWord(int lengths, WordVisitor visitor) {
+	    if (version != RWayTrie.this.version) {
+		nodes[0] = root;
+
+		for (int d = 0; d < length; d++) {
+		    nodes[d + 1] = child(nodes[d], prefix[d]);
+		}
+
+		version = RWayTrie.this.version;
+	    }
+
+	    if (nodes[length] == null) {
+		return;
+	    }
+
+	    new RWayTrieIterator(nodes[length], prefix(), version, lengths).visitRemaining(visitor);
+	}
+
+    }
+
+    /**
+     * Returns the alphabet of this trie
+     * 
+     * @return the alphabet of this trie
+     */
+    Alphabet alphabet() {
+	return alphabet;
+    }
+
+    /**
+     * Returns the weight of the specified word
+     * 
+     * @param word
+     *            - the specified word
+     * @return the weight of the word or 0 if the word is not present
+     */
+    @Override
+    public long weight(String word) {
+	Node result = get(root, word);
+
+	if (result == null || result == root) {
+	    return 0;
+	}
+
+	return result.value;
+    }
+
+    /**
+     * Returns k heaviest words that begin with specified prefix. If k is not
+     * bigger than rank capacity the words are taken from the cache of the node
+     * of the prefix, otherwise all words with the prefix are walked.
+     * 
+     * @param pref
+     *            - specified prefix
+     * @param k
+     *            - maximal number of words to return
+     * @return list of k or less words, heaviest first
+     */
+    @Override
+    public List<String> topK(String pref, int k) {
+	if (k > rankCapacity) {
+	    return Trie.super.topK(pref, k);
+	}
+
+	Node node = get(root, pref);
+
+	if (node == null || node.best == null || k <= 0) {
+	    return Collections.emptyList();
+	}
+
+	List<String> result = new ArrayList<String>(k);
+
+	for (int i = 0; i < k && i < node.best.length; i++) {
+	    result.add(node.best[i].getWord());
+	}
+
+	return result;
+    }
+
+    /**
+     * Returns k words that begin with specified prefix typed with at most
+     * maxEdits mistakes. The trie is walked depth-first with the row of edit
+     * distances of every node, and a subtree is skipped when no distance of
+     * the row is small enough to lead to a match. Subtree of a node that
+     * matches is walked without the rows, so the time is proportional to the
+     * number of visited nodes, not to the size of the trie.
+     * 
+     * @param pref
+     *            - specified prefix
+     * @param maxEdits
+     *            - maximal number of inserted, deleted or replaced characters
+     * @param k
+     *            - maximal number of words to return
+     * @return list of k or less words, the closest first
+     */
+    @Override
+    public List<String> fuzzyWordsWithPrefix(String pref, int maxEdits, int k) {
+	if (k <= 0 || maxEdits < 0) {
+	    return Collections.emptyList();
+	}
+
+	FuzzyMatches matches = new FuzzyMatches(pref, maxEdits, k);
+	int[][] rows = new int[root.height + 1][];
+	rows[0] = matches.firstRow();
+
+	for (int d = 1; d < rows.length; d++) {
+	    rows[d] = new int[pref.length() + 1];
+	}
+
+	fuzzy(root, 0, pref.length(), rows, new char[root.height], matches);
+
+	return matches.result();
+    }
+
+    /**
+     * Offers words below the specified node to the matches
+     * 
+     * @param node
+     *            - the specified node
+     * @param d
+     *            - depth of the node
+     * @param best
+     *            - the smallest distance of the prefixes of the node word
+     * @param rows
+     *            - rows of the nodes of the path
+     * @param word
+     *            - buffer with the word of the node
+     * @param matches
+     *            - found matches
+     */
+    private void fuzzy(Node node, int d, int best, int[][] rows, char[] word, FuzzyMatches matches) {
+	int[] row = rows[d];
+
+	for (int i = 0; i < alphabetSize; i++) {
+	    Node child = node.next[i];
+
+	    if (child == null) {
+		continue;
+	    }
+
+	    word[d] = alphabet.character(i);
+
+	    int min = matches.step(row, word[d], rows[d + 1]);
+	    int childBest = Math.min(best, rows[d + 1][row.length - 1]);
+
+	    if (child.present) {
+		matches.offer(word, d + 1, childBest, child.value);
+	    }
+
+	    if (child.best != null && !matches.takes(child.best[0], Math.min(min, childBest))) {
+		continue; // No word below is closer or heavier than the worst match
+	    }
+
+	    if (min <= matches.limit()) {
+		fuzzy(child, d + 1, childBest, rows, word, matches);
+	    } else {
+		collect(child, d + 1, childBest, word, matches);
+	    }
+	}
+    }
+
+    /**
+     * Offers words below the specified node with the distance of the node
+     * word, which can not become smaller. Words of one distance are ranked
+     * like in topK method, so if ranking is enabled the cache of the node
+     * gives the heaviest of them without the walk, or tells that none of them
+     * can be taken.
+     */
+    private void collect(Node node, int d, int distance, char[] word, FuzzyMatches matches) {
+	if (distance > matches.limit()) {
+	    return;
+	}
+
+	if (node.best != null
+		&& (!matches.takes(node.best[0], distance) || matches.offer(node.best, node.words, d, distance))) {
+	    return;
+	}
+
+	for (int i = 0; i < alphabetSize; i++) {
+	    Node child = node.next[i];
+
+	    if (child != null) {
+		word[d] = alphabet.character(i);
+
+		if (child.present) {
+		    matches.offer(word, d + 1, distance, child.value);
+		}
+
+		collect(child, d + 1, distance, word, matches);
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of words in this trie
+     * 
+     * @return the number of words in this trie
+     */
+    @Override
+    public int size() {
+	return trieSize;
+    }
+
+    /**
+     * Returns the shape of this trie and its estimated size, which counts
+     * nodes, their child arrays and the tuples cached for ranking
+     * 
+     * @return statistics of a walk of the whole trie
+     */
+    @Override
+    public TrieStats stats() {
+	TrieStats.Collector collector = new TrieStats.Collector();
+	stats(root, 0, collector);
+
+	return collector.build(trieSize);
+    }
+
+    private static void stats(Node node, int d, TrieStats.Collector collector) {
+	int children = 0;
+
+	for (Node child : node.next) {
+	    if (child != null) {
+		children++;
+	    }
+	}
+
+	collector.node(d, children, node.next.length, node.present);
+	collector.bytes(TrieStats.Collector.object(2 * TrieStats.Collector.LONG + 2 * TrieStats.Collector.INT
+		+ 2 * TrieStats.Collector.REFERENCE + TrieStats.Collector.BOOLEAN)
+		+ TrieStats.Collector.array(node.next.length, TrieStats.Collector.REFERENCE));
+
+	if (node.best != null) {
+	    collector.bytes(TrieStats.Collector.array(node.best.length, TrieStats.Collector.REFERENCE));
+
+	    for (Tuple tuple : node.best) {
+		if (tuple.getWord().length() == d) {
+		    collector.bytes(TrieStats.Collector.object(TrieStats.Collector.REFERENCE + TrieStats.Collector.LONG)
+			    + TrieStats.Collector.string(d));
+		}
+	    }
+	}
+
+	for (Node child : node.next) {
+	    if (child != null) {
+		stats(child, d + 1, collector);
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of nodes of this trie, root included. Nodes are
+     * counted by a walk of the whole trie.
+     * 
+     * @return the number of nodes
+     */
+    @Override
+    public int nodeCount() {
+	return nodeCount(root);
+    }
+
+    private static int nodeCount(Node node) {
+	int count = 1;
+
+	for (Node child : node.next) {
+	    if (child != null) {
+		count += nodeCount(child);
+	    }
+	}
+
+	return count;
+    }
+
+    /**
+     * Returns the modification version of this trie
+     * 
+     * @return the number of modifications of this trie
+     */
+    @Override
+    public long version() {
+	return version;
+    }
+
+    /**
+     * Iterator for Trie table. Returns words in the same order as breadthways
+     * walk with the level-by-level walk of LevelOrderIterator. Passes are made
+     * only for lengths of the mask of the start node up to the length of the
+     * last requested group, and skip subtrees that have no words of the
+     * current depth.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class RWayTrieIterator extends LevelOrderIterator {
+
+	private Node[] nodes = new Node[INITIAL_LEVELS];
+	private Node current; // Target of the taken edge
+	private Node word; // Node of the found word
+	private final long version;
+	private int maxDepth = -1; // Depth of the last pass
+
+	public RWayTrieIterator(Node root, String pref, long version, int groups) {
+	    super(pref, groups);
+	    this.version = version;
+
+	    if (root != null && RWayTrie.this.trieSize != 0) {
+		nodes[0] = root;
+		word = root;
+		maxDepth = groups == Integer.MAX_VALUE ? root.height : groupLength(root, groups);
+		begin(maxDepth >= 0 && root.present);
+	    }
+	}
+
+	@Override
+	int nextLength(int d) {
+	    int length = RWayTrie.nextLength(nodes[0], d);
+	    return length > maxDepth ? -1 : length;
+	}
+
+	@Override
+	int open(int level) {
+	    return 0;
+	}
+
+	@Override
+	int end(int level) {
+	    return alphabetSize;
+	}
+
+	@Override
+	int scan(int level, int edge, int end, int rest) {
+	    Node[] next = nodes[level].next;
+	    long mask = rest == ANY ? -1L : length(rest);
+
+	    while (edge < end && (next[edge] == null || next[edge].height < rest || (next[edge].lengths & mask) == 0)) {
+		edge++;
+	    }
+
+	    return edge;
+	}
+
+	@Override
+	char take(int level, int edge) {
+	    current = nodes[level].next[edge];
+	    return alphabet.character(edge);
+	}
+
+	@Override
+	void push(int level) {
+	    nodes[level] = current;
+	}
+
+	@Override
+	boolean word() {
+	    word = current;
+	    return current.present;
+	}
+
+	@Override
+	long weight() {
+	    return word.value;
+	}
+
+	@Override
+	void grow(int levels) {
+	    nodes = Arrays.copyOf(nodes, levels);
+	}
+
+	@Override
+	void check() {
+	    if (version != RWayTrie.this.version) {
+		throw new ConcurrentModificationException();
+	    }
 	}
 
     }
@@ -339,7 +1759,7 @@ public class RWayTrie implements Trie, Iterable<String> {
      */
     @Override
     public Iterator<String> iterator() {
-	return new RWayTrieIterator(root, "", version);
+	return new RWayTrieIterator(root, "", version, Integer.MAX_VALUE);
     }
 
 }
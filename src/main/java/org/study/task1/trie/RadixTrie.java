@@ -0,0 +1,572 @@
+package org.study.task1.trie;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.study.task1.trie.RWayTrie.Alphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * The RadixTrie class represents a table of words based on a path-compressed
+ * (radix) trie. Chains of nodes with a single child are collapsed into one
+ * edge labeled with all their characters, and children of a node are kept in
+ * an array sorted by the first character of their labels. The add, contains,
+ * delete operations take time proportional to the length of the key (in the
+ * worst case). Construction takes constant time. The size operation takes
+ * constant time.
+ * 
+ * @author Andrii_Lehuta
+ */
+public class RadixTrie implements Trie, Iterable<String> {
+    /**
+     * Private class that is used for representation of node trie structure.
+     * Contains label of the edge that leads to the node, weight of the word
+     * that ends at the node and whether such word is present, sorted array of
+     * children nodes and first characters of their labels
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Node {
+	private char[] label;
+	private long value;
+	private boolean present;
+	private Node[] children = NO_CHILDREN;
+	private char[] firsts = NO_FIRSTS;
+
+	public Node(char[] label) {
+	    this.label = label;
+	}
+
+    }
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_FIRSTS = new char[0];
+
+    private int trieSize = 0; // Size of the trie
+    private int nodeCount = 1;
+    private Node root = new Node(new char[0]);
+    private Alphabet alphabet;
+    private long version;
+
+    /**
+     * Constructs trie with specified alphabet
+     * 
+     * @param alphabet
+     *            - specified alphabet
+     */
+    public RadixTrie(Alphabet alphabet) {
+	this.alphabet = alphabet;
+    }
+
+    /**
+     * Adds a specified word to this trie. Splits the edge where the word
+     * leaves it. Words with characters out of the alphabet are skipped.
+     * 
+     * @param word
+     *            - word to be added to trie
+     */
+    @Override
+    public void add(Tuple tuple) {
+	String word = tuple.getWord();
+
+	if (word.equals("") || !alphabet.accepts(word)) {
+	    return;
+	}
+
+	Node tmp = root;
+	int d = 0;
+
+	while (d < word.length()) {
+	    int index = childIndex(tmp, word.charAt(d));
+
+	    if (index < 0) {
+		Node leaf = new Node(word.substring(d).toCharArray());
+		insertChild(tmp, insertionPoint(tmp, alphabet.position(word.charAt(d))), leaf);
+		tmp = leaf;
+		d = word.length();
+		break;
+	    }
+
+	    Node child = tmp.children[index];
+	    int common = commonLength(child.label, word, d);
+
+	    if (common < child.label.length) {
+		Node middle = new Node(Arrays.copyOf(child.label, common));
+		child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+		middle.children = new Node[] { child };
+		middle.firsts = new char[] { child.label[0] };
+		tmp.children[index] = middle;
+		nodeCount++;
+	    }
+
+	    tmp = tmp.children[index];
+	    d += common;
+	}
+
+	if (!tmp.present) {
+	    trieSize++;
+	}
+
+	tmp.present = true;
+	tmp.value = tuple.getWeight();
+	version++;
+    }
+
+    /**
+     * Returns true if trie contains the specified word.
+     * 
+     * @param word
+     *            - word whose presence in this trie to be tested
+     * @return true if this trie contains the specified word
+     */
+    @Override
+    public boolean contains(String word) {
+	Node result = get(word);
+	return result != null && result.present;
+    }
+
+    /**
+     * Private helper method that returns the node in which specified word ends
+     * or null if there is no such node
+     * 
+     * @param word
+     *            - specified word
+     * @return null or node of the word
+     */
+    private Node get(String word) {
+	Node tmp = root;
+	int d = 0;
+
+	while (d < word.length()) {
+	    int index = childIndex(tmp, word.charAt(d));
+
+	    if (index < 0) {
+		return null;
+	    }
+
+	    tmp = tmp.children[index];
+
+	    if (commonLength(tmp.label, word, d) != tmp.label.length) {
+		return null;
+	    }
+
+	    d += tmp.label.length;
+	}
+
+	return tmp == root ? null : tmp;
+    }
+
+    /**
+     * Removes the specified word in this trie. Removes the node of the word if
+     * it has no children and merges nodes left with a single child.
+     * 
+     * @param word
+     *            - the specified word
+     * @return true if the specified word is deleted
+     */
+    @Override
+    public boolean delete(String word) {
+	if (word.length() == 0) {
+	    return false;
+	}
+
+	Node parent = null;
+	Node tmp = root;
+	int d = 0;
+
+	while (d < word.length()) {
+	    int index = childIndex(tmp, word.charAt(d));
+
+	    if (index < 0) {
+		return false;
+	    }
+
+	    parent = tmp;
+	    tmp = tmp.children[index];
+
+	    if (commonLength(tmp.label, word, d) != tmp.label.length) {
+		return false;
+	    }
+
+	    d += tmp.label.length;
+	}
+
+	if (!tmp.present) {
+	    return false;
+	}
+
+	tmp.present = false;
+	tmp.value = 0;
+	trieSize--;
+	version++;
+
+	if (tmp.children.length == 0) {
+	    removeChild(parent, tmp);
+
+	    if (parent != root && !parent.present && parent.children.length == 1) {
+		merge(parent);
+	    }
+	} else if (tmp.children.length == 1) {
+	    merge(tmp);
+	}
+
+	return true;
+    }
+
+    /**
+     * Collapses the specified node with its only child
+     */
+    private void merge(Node node) {
+	Node child = node.children[0];
+	char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+	System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+
+	node.label = label;
+	node.value = child.value;
+	node.present = child.present;
+	node.children = child.children;
+	node.firsts = child.firsts;
+	nodeCount--;
+    }
+
+    /**
+     * Returns index of the child which label starts with the specified
+     * character or -1 if there is no such child. Nodes have few children, so
+     * plain scan of first characters is faster than binary search over
+     * alphabet positions.
+     */
+    private static int childIndex(Node node, char character) {
+	char[] firsts = node.firsts;
+
+	for (int i = 0; i < firsts.length; i++) {
+	    if (firsts[i] == character) {
+		return i;
+	    }
+	}
+
+	return -1;
+    }
+
+    /**
+     * Returns index where the child which label starts with the character at
+     * the specified alphabet position has to be inserted
+     */
+    private int insertionPoint(Node node, int position) {
+	int lo = 0;
+	int hi = node.children.length - 1;
+
+	while (lo <= hi) {
+	    int mid = (lo + hi) >>> 1;
+
+	    if (alphabet.position(node.firsts[mid]) < position) {
+		lo = mid + 1;
+	    } else {
+		hi = mid - 1;
+	    }
+	}
+
+	return lo;
+    }
+
+    private void insertChild(Node node, int index, Node child) {
+	Node[] children = new Node[node.children.length + 1];
+	System.arraycopy(node.children, 0, children, 0, index);
+	System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+	children[index] = child;
+	node.children = children;
+
+	char[] firsts = new char[children.length];
+	System.arraycopy(node.firsts, 0, firsts, 0, index);
+	System.arraycopy(node.firsts, index, firsts, index + 1, node.firsts.length - index);
+	firsts[index] = child.label[0];
+	node.firsts = firsts;
+	nodeCount++;
+    }
+
+    private void removeChild(Node node, Node child) {
+	int index = childIndex(node, child.label[0]);
+
+	if (node.children.length == 1) {
+	    node.children = NO_CHILDREN;
+	    node.firsts = NO_FIRSTS;
+	} else {
+	    Node[] children = new Node[node.children.length - 1];
+	    System.arraycopy(node.children, 0, children, 0, index);
+	    System.arraycopy(node.children, index + 1, children, index, children.length - index);
+	    node.children = children;
+
+	    char[] firsts = new char[children.length];
+	    System.arraycopy(node.firsts, 0, firsts, 0, index);
+	    System.arraycopy(node.firsts, index + 1, firsts, index, firsts.length - index);
+	    node.firsts = firsts;
+	}
+
+	nodeCount--;
+    }
+
+    /**
+     * Returns the number of leading characters of label that match the word
+     * starting from the specified offset
+     */
+    private static int commonLength(char[] label, String word, int offset) {
+	int length = Math.min(label.length, word.length() - offset);
+	int i = 0;
+
+	while (i < length && label[i] == word.charAt(offset + i)) {
+	    i++;
+	}
+
+	return i;
+    }
+
+    /**
+     * Returns the shape of this trie and its estimated size. Child arrays of
+     * the nodes are always full, so the fill histogram counts inner nodes in
+     * its last bucket, and the depth of a node is the number of edges above
+     * it rather than the length of the prefix.
+     * 
+     * @return statistics of a walk of the whole trie
+     */
+    @Override
+    public TrieStats stats() {
+	TrieStats.Collector collector = new TrieStats.Collector();
+	stats(root, 0, collector);
+
+	return collector.build(trieSize);
+    }
+
+    private static void stats(Node node, int d, TrieStats.Collector collector) {
+	collector.node(d, node.children.length, node.children.length, node.present);
+	collector.bytes(TrieStats.Collector.object(3 * TrieStats.Collector.REFERENCE + TrieStats.Collector.LONG
+		+ TrieStats.Collector.BOOLEAN)
+		+ TrieStats.Collector.array(node.label.length, TrieStats.Collector.CHAR));
+
+	if (node.children != NO_CHILDREN) {
+	    collector.bytes(TrieStats.Collector.array(node.children.length, TrieStats.Collector.REFERENCE)
+		    + TrieStats.Collector.array(node.firsts.length, TrieStats.Collector.CHAR));
+	}
+
+	for (Node child : node.children) {
+	    stats(child, d + 1, collector);
+	}
+    }
+
+    /**
+     * Returns the number of nodes of this trie including the root
+     * 
+     * @return the number of nodes
+     */
+    @Override
+    public int nodeCount() {
+	return nodeCount;
+    }
+
+    /**
+     * Returns all words of this trie.
+     * 
+     * @return the iterable object that contains all words of this trie
+     */
+    @Override
+    public Iterable<String> words() {
+	return this;
+    }
+
+    /**
+     * Returns all words that begin with specified prefix. The prefix may end in
+     * the middle of an edge, then the walk starts from the node at the end of
+     * this edge.
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return the iterable object that contains words with specified prefix
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new RadixTrieIterator(pref, version);
+	    }
+
+	};
+    }
+
+    /**
+     * Returns the weight of the specified word
+     * 
+     * @param word
+     *            - the specified word
+     * @return the weight of the word or 0 if the word is not present
+     */
+    @Override
+    public long weight(String word) {
+	Node result = get(word);
+	return result == null ? 0 : result.value;
+    }
+
+    /**
+     * Returns the number of words in this trie
+     * 
+     * @return the number of words in this trie
+     */
+    @Override
+    public int size() {
+	return trieSize;
+    }
+
+    /**
+     * Returns the modification version of this trie
+     * 
+     * @return the number of modifications of this trie
+     */
+    @Override
+    public long version() {
+	return version;
+    }
+
+    /**
+     * Pair of node and the word that ends in it, used by iterator
+     */
+    private static class Entry {
+	private final Node node;
+	private final String word;
+
+	public Entry(Node node, String word) {
+	    this.node = node;
+	    this.word = word;
+	}
+    }
+
+    /**
+     * Iterator for Trie table. Edges have different length, so nodes are polled
+     * from a priority queue ordered by the length of their words and then by
+     * alphabet, which gives the same order as breadthways walk of RWayTrie.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class RadixTrieIterator implements Iterator<String> {
+
+	private PriorityQueue<Entry> entries = new PriorityQueue<Entry>(new Comparator<Entry>() {
+
+	    @Override
+	    public int compare(Entry first, Entry second) {
+		String a = first.word;
+		String b = second.word;
+
+		if (a.length() != b.length()) {
+		    return a.length() - b.length();
+		}
+
+		for (int i = 0; i < a.length(); i++) {
+		    if (a.charAt(i) != b.charAt(i)) {
+			return alphabet.position(a.charAt(i)) - alphabet.position(b.charAt(i));
+		    }
+		}
+
+		return 0;
+	    }
+
+	});
+	private String next;
+	private long version;
+
+	public RadixTrieIterator(String pref, long version) {
+	    this.version = version;
+
+	    Entry start = find(pref);
+
+	    if (start != null) {
+		entries.add(start);
+		next = advance();
+	    }
+	}
+
+	/**
+	 * Finds the node under which all words start with the specified prefix
+	 */
+	private Entry find(String pref) {
+	    Node tmp = root;
+	    int d = 0;
+
+	    while (d < pref.length()) {
+		int index = childIndex(tmp, pref.charAt(d));
+
+		if (index < 0) {
+		    return null;
+		}
+
+		tmp = tmp.children[index];
+		int common = commonLength(tmp.label, pref, d);
+
+		if (d + common == pref.length()) {
+		    return new Entry(tmp, pref + new String(tmp.label, common, tmp.label.length - common));
+		}
+
+		if (common != tmp.label.length) {
+		    return null;
+		}
+
+		d += common;
+	    }
+
+	    return new Entry(tmp, pref);
+	}
+
+	@Override
+	public boolean hasNext() {
+	    return next != null;
+	}
+
+	@Override
+	public String next() {
+
+	    if (version != RadixTrie.this.version) {
+		throw new ConcurrentModificationException();
+	    }
+
+	    if (next == null) {
+		throw new NoSuchElementException();
+	    }
+
+	    String result = next;
+	    next = advance();
+
+	    return result;
+	}
+
+	private String advance() {
+	    while (!entries.isEmpty()) {
+		Entry entry = entries.poll();
+
+		for (Node child : entry.node.children) {
+		    entries.add(new Entry(child, entry.word + new String(child.label)));
+		}
+
+		if (entry.node.present && entry.node != root) {
+		    return entry.word;
+		}
+	    }
+
+	    return null;
+	}
+
+    }
+
+    /**
+     * Returns iterator over all words of Trie
+     * 
+     * @return the iterator over all words of Trie
+     */
+    @Override
+    public Iterator<String> iterator() {
+	return new RadixTrieIterator("", version);
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.study.task1.trie;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.study.task1.trie.RWayTrie.Alphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Helper methods that prepare tuples for read-only tries built from a sorted
+ * list of words
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+final class SortedTuples {
+
+    private SortedTuples() {
+    }
+
+    /**
+     * Sorts the tuples in alphabet order, shorter word first, and removes
+     * tuples with empty words or characters out of the alphabet. The last
+     * tuple wins for repeated words.
+     * 
+     * @param alphabet
+     *            - alphabet of the words
+     * @param tuples
+     *            - the specified tuples in any order
+     * @return sorted list of unique tuples
+     */
+    static List<Tuple> sort(Alphabet alphabet, Iterable<Tuple> tuples) {
+	List<Tuple> sorted = new ArrayList<Tuple>();
+
+	for (Tuple tuple : tuples) {
+	    if (!tuple.getWord().isEmpty() && alphabet.accepts(tuple.getWord())) {
+		sorted.add(tuple);
+	    }
+	}
+
+	Collections.sort(sorted, new Comparator<Tuple>() {
+
+	    @Override
+	    public int compare(Tuple first, Tuple second) {
+		String a = first.getWord();
+		String b = second.getWord();
+		int length = Math.min(a.length(), b.length());
+
+		for (int i = 0; i < length; i++) {
+		    int diff = alphabet.position(a.charAt(i)) - alphabet.position(b.charAt(i));
+
+		    if (diff != 0) {
+			return diff;
+		    }
+		}
+
+		return a.length() - b.length();
+	    }
+
+	});
+
+	List<Tuple> unique = new ArrayList<Tuple>(sorted.size());
+
+	for (Tuple tuple : sorted) {
+	    if (!unique.isEmpty() && unique.get(unique.size() - 1).getWord().equals(tuple.getWord())) {
+		unique.set(unique.size() - 1, tuple);
+	    } else {
+		unique.add(tuple);
+	    }
+	}
+
+	return unique;
+    }
+
+    /**
+     * Returns words of the specified trie with their weights
+     * 
+     * @param trie
+     *            - the specified trie
+     * @return list of tuples
+     */
+    static List<Tuple> of(RWayTrie trie) {
+	List<Tuple> tuples = new ArrayList<Tuple>(trie.size());
+
+	for (String word : trie.words()) {
+	    tuples.add(new Tuple(word, trie.weight(word)));
+	}
+
+	return tuples;
+    }
+
+}
@@ -0,0 +1,501 @@
+package org.study.task1.trie;
+
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+import org.study.task1.trie.RWayTrie.Alphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * The TernarySearchTrie class represents a table of words based on a ternary
+ * search trie. Every node keeps one character and three links, so the memory
+ * does not depend on the alphabet size. Characters are compared by their
+ * position in the alphabet, which gives the same order of words as RWayTrie.
+ * The add, contains, delete operations take time proportional to the length
+ * of the key plus the logarithm of the alphabet size for balanced sibling
+ * trees. Construction takes constant time. The size operation takes constant
+ * time.
+ * 
+ * @author Andrii_Lehuta
+ */
+public class TernarySearchTrie implements Trie, Iterable<String> {
+    /**
+     * Private class that is used for representation of node trie structure.
+     * Contains alphabet position of the character, weight of the word that
+     * ends at the node and whether such word is present, and links to
+     * smaller, equal and greater characters
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private static class Node {
+	private int position;
+	private long value;
+	private boolean present;
+	private Node left;
+	private Node mid;
+	private Node right;
+
+	public Node(int position) {
+	    this.position = position;
+	}
+
+    }
+
+    private int trieSize = 0; // Size of the trie
+    private Node root;
+    private Alphabet alphabet;
+    private long version;
+
+    /**
+     * Constructs trie with specified alphabet
+     * 
+     * @param alphabet
+     *            - specified alphabet
+     */
+    public TernarySearchTrie(Alphabet alphabet) {
+	this.alphabet = alphabet;
+    }
+
+    /**
+     * Adds a specified word to this trie. Words with characters out of the
+     * alphabet are skipped.
+     * 
+     * @param word
+     *            - word to be added to trie
+     */
+    @Override
+    public void add(Tuple tuple) {
+	String word = tuple.getWord();
+
+	if (word.equals("") || !alphabet.accepts(word)) {
+	    return;
+	}
+
+	int position = alphabet.position(word.charAt(0));
+
+	if (root == null) {
+	    root = new Node(position);
+	}
+
+	Node tmp = root;
+	int d = 0;
+
+	while (true) {
+	    if (position < tmp.position) {
+		if (tmp.left == null) {
+		    tmp.left = new Node(position);
+		}
+		tmp = tmp.left;
+	    } else if (position > tmp.position) {
+		if (tmp.right == null) {
+		    tmp.right = new Node(position);
+		}
+		tmp = tmp.right;
+	    } else if (d < word.length() - 1) {
+		d++;
+		position = alphabet.position(word.charAt(d));
+
+		if (tmp.mid == null) {
+		    tmp.mid = new Node(position);
+		}
+		tmp = tmp.mid;
+	    } else {
+		break;
+	    }
+	}
+
+	if (!tmp.present) {
+	    trieSize++;
+	}
+
+	tmp.present = true;
+	tmp.value = tuple.getWeight();
+	version++;
+    }
+
+    /**
+     * Returns true if trie contains the specified word.
+     * 
+     * @param word
+     *            - word whose presence in this trie to be tested
+     * @return true if this trie contains the specified word
+     */
+    @Override
+    public boolean contains(String word) {
+	Node result = word.length() == 0 ? null : get(word);
+	return result != null && result.present;
+    }
+
+    /**
+     * Private helper method that returns the node of the last character of
+     * specified word or null if word is not present
+     * 
+     * @param word
+     *            - specified non empty word
+     * @return null or node of the last character of specified word
+     */
+    private Node get(String word) {
+	if (!alphabet.accepts(word)) {
+	    return null;
+	}
+
+	Node tmp = root;
+	int d = 0;
+	int position = alphabet.position(word.charAt(0));
+
+	while (tmp != null) {
+	    if (position < tmp.position) {
+		tmp = tmp.left;
+	    } else if (position > tmp.position) {
+		tmp = tmp.right;
+	    } else if (d < word.length() - 1) {
+		d++;
+		position = alphabet.position(word.charAt(d));
+		tmp = tmp.mid;
+	    } else {
+		return tmp;
+	    }
+	}
+
+	return null;
+    }
+
+    /**
+     * Removes the specified word in this trie.
+     * 
+     * @param word
+     *            - the specified word
+     * @return true if the specified word is deleted
+     */
+    @Override
+    public boolean delete(String word) {
+	int oldSize = trieSize;
+
+	if (word.length() != 0 && alphabet.accepts(word)) {
+	    root = delete(root, word, 0);
+	}
+
+	if (trieSize - oldSize != 0) {
+	    version++;
+	    return true;
+	}
+
+	return false;
+    }
+
+    /**
+     * Helper function that removes specified word, if discovered, from trie
+     * recursively. Nodes that neither end a word nor continue one are removed
+     * from their tree of siblings.
+     * 
+     * @param node
+     *            - initial node for search of specified word
+     * @param word
+     *            - specified word
+     * @param d
+     *            - next character of word
+     * @return the node that replaces the specified node
+     */
+    private Node delete(Node node, String word, int d) {
+	if (node == null) {
+	    return null;
+	}
+
+	int position = alphabet.position(word.charAt(d));
+
+	if (position < node.position) {
+	    node.left = delete(node.left, word, d);
+	} else if (position > node.position) {
+	    node.right = delete(node.right, word, d);
+	} else if (d < word.length() - 1) {
+	    node.mid = delete(node.mid, word, d + 1);
+	} else {
+	    if (node.present) {
+		trieSize--;
+	    }
+
+	    node.present = false;
+	    node.value = 0;
+	}
+
+	if (node.present || node.mid != null) {
+	    return node;
+	}
+
+	return removeSibling(node);
+    }
+
+    /**
+     * Removes the specified node from its tree of siblings
+     * 
+     * @param node
+     *            - the specified node
+     * @return the node that replaces the specified node
+     */
+    private Node removeSibling(Node node) {
+	if (node.left == null) {
+	    return node.right;
+	}
+
+	if (node.right == null) {
+	    return node.left;
+	}
+
+	Node parent = node;
+	Node min = node.right;
+
+	while (min.left != null) {
+	    parent = min;
+	    min = min.left;
+	}
+
+	if (parent != node) {
+	    parent.left = min.right;
+	    min.right = node.right;
+	}
+
+	min.left = node.left;
+
+	return min;
+    }
+
+    /**
+     * Returns all words of this trie.
+     * 
+     * @return the iterable object that contains all words of this trie
+     */
+    @Override
+    public Iterable<String> words() {
+	return this;
+    }
+
+    /**
+     * Returns all words that begin with specified prefix
+     * 
+     * @param pref
+     *            - the specified prefix
+     * @return the iterable object that contains words with specified prefix
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		return new TernarySearchTrieIterator(pref, version);
+	    }
+
+	};
+    }
+
+    /**
+     * Returns the weight of the specified word
+     * 
+     * @param word
+     *            - the specified word
+     * @return the weight of the word or 0 if the word is not present
+     */
+    @Override
+    public long weight(String word) {
+	Node result = word.length() == 0 ? null : get(word);
+	return result == null ? 0 : result.value;
+    }
+
+    /**
+     * Returns the number of words in this trie
+     * 
+     * @return the number of words in this trie
+     */
+    @Override
+    public int size() {
+	return trieSize;
+    }
+
+    /**
+     * Returns the shape of this trie and its estimated size. Every node has
+     * three child slots: left, middle and right, and its depth is the depth
+     * in the tree rather than the length of the prefix.
+     * 
+     * @return statistics of a walk of the whole trie
+     */
+    @Override
+    public TrieStats stats() {
+	TrieStats.Collector collector = new TrieStats.Collector();
+
+	if (root != null) {
+	    stats(root, 0, collector);
+	}
+
+	return collector.build(trieSize);
+    }
+
+    private static void stats(Node node, int d, TrieStats.Collector collector) {
+	Node[] links = { node.left, node.mid, node.right };
+	int children = 0;
+
+	for (Node child : links) {
+	    if (child != null) {
+		children++;
+	    }
+	}
+
+	collector.node(d, children, links.length, node.present);
+	collector.bytes(TrieStats.Collector.object(TrieStats.Collector.INT + TrieStats.Collector.LONG
+		+ TrieStats.Collector.BOOLEAN + 3 * TrieStats.Collector.REFERENCE));
+
+	for (Node child : links) {
+	    if (child != null) {
+		stats(child, d + 1, collector);
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of nodes of this trie. Nodes are counted by a walk of
+     * the whole trie.
+     * 
+     * @return the number of nodes
+     */
+    @Override
+    public int nodeCount() {
+	return nodeCount(root);
+    }
+
+    private static int nodeCount(Node node) {
+	if (node == null) {
+	    return 0;
+	}
+
+	return 1 + nodeCount(node.left) + nodeCount(node.mid) + nodeCount(node.right);
+    }
+
+    /**
+     * Returns the modification version of this trie
+     * 
+     * @return the number of modifications of this trie
+     */
+    @Override
+    public long version() {
+	return version;
+    }
+
+    /**
+     * Iterator for TernarySearchTrie. Walks the tree breadthways: every queued
+     * level is a tree of sibling nodes that is walked in order, so words are
+     * returned in the same order as RWayTrie returns them.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    private class TernarySearchTrieIterator implements Iterator<String> {
+
+	private Queue<Node> levels = new ArrayDeque<Node>();
+	private Queue<String> prefixes = new ArrayDeque<String>();
+	private Deque<Node> siblings = new ArrayDeque<Node>();
+	private String prefix;
+	private String next;
+	private long version;
+
+	public TernarySearchTrieIterator(String pref, long version) {
+	    this.version = version;
+
+	    if (pref.length() == 0) {
+		offer(root, pref);
+	    } else {
+		Node node = get(pref);
+
+		if (node != null) {
+		    offer(node.mid, pref);
+
+		    if (node.present) {
+			next = pref;
+			return;
+		    }
+		}
+	    }
+
+	    next = advance();
+	}
+
+	@Override
+	public boolean hasNext() {
+	    return next != null;
+	}
+
+	@Override
+	public String next() {
+
+	    if (version != TernarySearchTrie.this.version) {
+		throw new ConcurrentModificationException();
+	    }
+
+	    if (next == null) {
+		throw new NoSuchElementException();
+	    }
+
+	    String result = next;
+	    next = advance();
+
+	    return result;
+	}
+
+	private void offer(Node level, String pref) {
+	    if (level != null) {
+		levels.add(level);
+		prefixes.add(pref);
+	    }
+	}
+
+	/**
+	 * Walks siblings in order and moves to the next queued level when the
+	 * current one is over
+	 * 
+	 * @return the next word or null if there are no more words
+	 */
+	private String advance() {
+	    while (true) {
+		if (siblings.isEmpty()) {
+		    if (levels.isEmpty()) {
+			return null;
+		    }
+
+		    prefix = prefixes.poll();
+		    pushLeft(levels.poll());
+		}
+
+		Node node = siblings.pop();
+		pushLeft(node.right);
+
+		String word = prefix + alphabet.character(node.position);
+		offer(node.mid, word);
+
+		if (node.present) {
+		    return word;
+		}
+	    }
+	}
+
+	private void pushLeft(Node node) {
+	    for (Node tmp = node; tmp != null; tmp = tmp.left) {
+		siblings.push(tmp);
+	    }
+	}
+
+    }
+
+    /**
+     * Returns iterator over all words of Trie
+     * 
+     * @return the iterator over all words of Trie
+     */
+    @Override
+    public Iterator<String> iterator() {
+	return new TernarySearchTrieIterator("", version);
+    }
+
+}
@@ -1,5 +1,16 @@
 package org.study.task1.trie;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import org.study.task1.trie.tuple.Tuple;
 
 /**
@@ -17,6 +28,20 @@ public interface Trie {
      */
     void add(Tuple tuple);
 
+    /**
+     * Adds specified word with specified weight to trie. Tries that keep no
+     * tuples override it, so loading many words does not create a tuple for
+     * every word.
+     * 
+     * @param word
+     *            - specified word, not kept after the method returns
+     * @param weight
+     *            - weight of the word
+     */
+    default void add(CharSequence word, long weight) {
+	add(new Tuple(word.toString(), weight));
+    }
+
     /**
      * Checks if specified word is in trie
      * 
@@ -42,12 +67,304 @@ public interface Trie {
      */
     Iterable<String> words();
 
+    /**
+     * Returns all words of trie that begin with specified prefix, shorter words
+     * first and words of the same length in alphabet order
+     * 
+     * @param pref
+     *            - specified prefix
+     * @return words with specified prefix
+     */
     Iterable<String> wordsWithPrefix(String pref);
 
+    /**
+     * Returns words of trie that begin with specified prefix and have one of
+     * the specified number of the smallest lengths, in the order of
+     * wordsWithPrefix method. Default implementation stops the words of
+     * wordsWithPrefix method at the first word of the next length.
+     * 
+     * @param pref
+     *            - specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @return words with specified prefix and lengths
+     */
+    default Iterable<String> wordsWithPrefix(String pref, int lengths) {
+	return new Iterable<String>() {
+
+	    @Override
+	    public Iterator<String> iterator() {
+		Iterator<String> words = wordsWithPrefix(pref).iterator();
+
+		return new Iterator<String>() {
+		    private String next = lengths > 0 && words.hasNext() ? words.next() : null;
+		    private int groups = lengths;
+
+		    @Override
+		    public boolean hasNext() {
+			return next != null;
+		    }
+
+		    @Override
+		    public String next() {
+			if (next == null) {
+			    throw new NoSuchElementException();
+			}
+
+			String result = next;
+			next = words.hasNext() ? words.next() : null;
+
+			if (next != null && next.length() > result.length() && --groups == 0) {
+			    next = null;
+			}
+
+			return result;
+		    }
+
+		};
+	    }
+
+	};
+    }
+
+    /**
+     * Passes words of trie that begin with specified prefix and have one of
+     * the specified number of the smallest lengths to the visitor in the
+     * order of wordsWithPrefix method until the visitor returns false.
+     * Default implementation stops forEachWithPrefix method at the first word
+     * of the next length.
+     * 
+     * @param pref
+     *            - specified prefix
+     * @param lengths
+     *            - number of different lengths of words
+     * @param visitor
+     *            - visitor of the found words
+     */
+    default void forEachWithPrefix(String pref, int lengths, WordVisitor visitor) {
+	if (lengths <= 0) {
+	    return;
+	}
+
+	forEachWithPrefix(pref, new WordVisitor() {
+	    private int groups = lengths;
+	    private int lastLength = -1;
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		if (lastLength >= 0 && length > lastLength && --groups == 0) {
+		    return false;
+		}
+
+		lastLength = length;
+
+		return visitor.visit(word, length, weight);
+	    }
+
+	});
+    }
+
+    /**
+     * Returns sequential stream of all words of trie, call parallel method of
+     * the stream to process words on many threads
+     * 
+     * @return stream of all words
+     * @see #streamWithPrefix(String)
+     */
+    default Stream<String> stream() {
+	return streamWithPrefix("");
+    }
+
+    /**
+     * Returns sequential stream of words of trie that begin with specified
+     * prefix. Default implementation streams wordsWithPrefix method, so words
+     * come in its order and parallel streams split them into batches. Tries
+     * that split the stream on subtrees give words in alphabet order instead.
+     * 
+     * @param pref
+     *            - specified prefix
+     * @return stream of words with specified prefix
+     */
+    default Stream<String> streamWithPrefix(String pref) {
+	int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+	Iterator<String> words = wordsWithPrefix(pref).iterator();
+
+	return StreamSupport.stream(pref.isEmpty() ? Spliterators.spliterator(words, size(), characteristics)
+		: Spliterators.spliteratorUnknownSize(words, characteristics), false);
+    }
+
+    /**
+     * Passes all words of trie that begin with specified prefix to the
+     * visitor in the order of wordsWithPrefix method until the visitor returns
+     * false. Default implementation copies every word to the buffer.
+     * 
+     * @param pref
+     *            - specified prefix
+     * @param visitor
+     *            - visitor of the found words
+     */
+    default void forEachWithPrefix(String pref, WordVisitor visitor) {
+	char[] buffer = new char[pref.length() + 16];
+
+	for (String word : wordsWithPrefix(pref)) {
+	    if (word.length() > buffer.length) {
+		buffer = new char[word.length() * 2];
+	    }
+
+	    word.getChars(0, word.length(), buffer, 0);
+
+	    if (!visitor.visit(buffer, word.length(), weight(word))) {
+		return;
+	    }
+	}
+    }
+
+    /**
+     * Returns cursor for a prefix that is typed one character at a time,
+     * starting from the empty prefix. Default implementation finds words of
+     * the prefix with forEachWithPrefix method.
+     * 
+     * @return the new cursor
+     */
+    default TrieCursor cursor() {
+	return new PrefixCursor(this);
+    }
+
     /**
      * Returns the size of trie
      * 
      * @return integer value that represents the size of trie
      */
     int size();
+
+    /**
+     * Returns the modification version of trie. The version changes after
+     * every change of words or their weights, so a result computed at one
+     * version stays valid while the version is the same. Read-only tries
+     * always return the same version.
+     * 
+     * @return the modification version
+     */
+    long version();
+
+    /**
+     * Returns the number of nodes that keep the words of trie. Tries that do
+     * not track nodes count them by a walk of the whole structure, so the
+     * method is meant for monitoring rather than for every request.
+     * 
+     * @return the number of nodes or -1 if it is not known
+     */
+    default int nodeCount() {
+	return -1;
+    }
+
+    /**
+     * Returns the shape and estimated memory footprint of trie. Default
+     * implementation describes the plain character trie of the words and does
+     * not know the size.
+     * 
+     * @return statistics of a walk of the whole trie
+     */
+    default TrieStats stats() {
+	List<String> words = new ArrayList<String>();
+
+	for (String word : words()) {
+	    words.add(word);
+	}
+
+	Collections.sort(words);
+
+	TrieStats.Collector collector = new TrieStats.Collector();
+	collector.words(words, 0, words.size(), 0);
+	collector.unknownBytes();
+
+	return collector.build(words.size());
+    }
+
+    /**
+     * Returns the weight of specified word
+     * 
+     * @param word
+     *            - specified word
+     * @return the weight of the word or 0 if the word is not in trie
+     */
+    long weight(String word);
+
+    /**
+     * Returns k words with the biggest weight that begin with specified
+     * prefix, heaviest first. Words of the same weight are ordered like in
+     * wordsWithPrefix. Default implementation walks all words with the
+     * prefix.
+     * 
+     * @param pref
+     *            - specified prefix
+     * @param k
+     *            - maximal number of words to return
+     * @return list of k or less words
+     */
+    default List<String> topK(String pref, int k) {
+	if (k <= 0) {
+	    return Collections.emptyList();
+	}
+
+	PriorityQueue<Tuple> heap = new PriorityQueue<Tuple>(k, Collections.reverseOrder(Tuple.RANK_ORDER));
+
+	for (String word : wordsWithPrefix(pref)) {
+	    Tuple tuple = new Tuple(word, weight(word));
+
+	    if (heap.size() < k) {
+		heap.add(tuple);
+	    } else if (Tuple.RANK_ORDER.compare(tuple, heap.peek()) < 0) {
+		heap.poll();
+		heap.add(tuple);
+	    }
+	}
+
+	List<Tuple> tuples = new ArrayList<Tuple>(heap);
+	Collections.sort(tuples, Tuple.RANK_ORDER);
+
+	List<String> result = new ArrayList<String>(tuples.size());
+
+	for (Tuple tuple : tuples) {
+	    result.add(tuple.getWord());
+	}
+
+	return result;
+    }
+
+    /**
+     * Returns k words that begin with specified prefix typed with at most
+     * maxEdits mistakes. The distance of a word is the smallest Levenshtein
+     * distance between the prefix and a beginning of the word. Words with
+     * smaller distance come first, words of the same distance are ordered
+     * like in topK method. Default implementation finds the distance of every
+     * word of trie.
+     * 
+     * @param pref
+     *            - specified prefix
+     * @param maxEdits
+     *            - maximal number of inserted, deleted or replaced characters
+     * @param k
+     *            - maximal number of words to return
+     * @return list of k or less words, the closest first
+     */
+    default List<String> fuzzyWordsWithPrefix(String pref, int maxEdits, int k) {
+	if (k <= 0 || maxEdits < 0) {
+	    return Collections.emptyList();
+	}
+
+	FuzzyMatches matches = new FuzzyMatches(pref, maxEdits, k);
+
+	forEachWithPrefix("", new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		matches.scan(word, length, weight);
+		return true;
+	    }
+
+	});
+
+	return matches.result();
+    }
 }
@@ -0,0 +1,53 @@
+package org.study.task1.trie;
+
+/**
+ * Cursor that keeps a prefix typed one character at a time and its position
+ * in trie, so the next character or backspace does not walk the whole prefix
+ * again
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public interface TrieCursor {
+    /**
+     * Appends the specified character to the prefix
+     * 
+     * @param character
+     *            - the specified character
+     */
+    void extend(char character);
+
+    /**
+     * Removes the last character of the prefix
+     * 
+     * @return false if the prefix is empty
+     */
+    boolean backspace();
+
+    /**
+     * Returns the current prefix
+     * 
+     * @return the current prefix
+     */
+    String prefix();
+
+    /**
+     * Returns the length of the current prefix
+     * 
+     * @return the length of the current prefix
+     */
+    int length();
+
+    /**
+     * Passes words that begin with the current prefix and have one of the
+     * specified number of the smallest lengths to the visitor, in the order
+     * of wordsWithPrefix method, until the visitor returns false
+     * 
+     * @param lengths
+     *            - number of different lengths of words
+     * @param visitor
+     *            - visitor of the found words
+     */
+    void forEachWord(int lengths, WordVisitor visitor);
+
+}
@@ -0,0 +1,305 @@
+package org.study.task1.trie;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shape and memory footprint of a trie found by a walk of its nodes: number
+ * of nodes, histogram of how full the child arrays are, number of nodes at
+ * every depth, chains of nodes with a single child and the estimated
+ * retained size. Sizes are estimated for a 64-bit JVM with compressed
+ * references, 12 bytes of object header and 8 bytes alignment.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public final class TrieStats {
+
+    /**
+     * Number of buckets of the fill histogram, each one is 10% wide
+     */
+    public static final int FILL_BUCKETS = 10;
+
+    private final int words;
+    private final int nodes;
+    private final int[] fill;
+    private final int[] depths;
+    private final int chains;
+    private final int chainNodes;
+    private final long bytes;
+
+    private TrieStats(int words, Collector collector) {
+	this.words = words;
+	this.nodes = collector.nodes;
+	this.fill = collector.fill.clone();
+	this.depths = Arrays.copyOf(collector.depths, collector.maxDepth + 1);
+	this.chains = collector.chains;
+	this.chainNodes = collector.chainNodes;
+	this.bytes = collector.bytes;
+    }
+
+    /**
+     * @return the number of words of trie
+     */
+    public int getWords() {
+	return words;
+    }
+
+    /**
+     * @return the number of nodes of trie, root included
+     */
+    public int getNodes() {
+	return nodes;
+    }
+
+    /**
+     * Returns the histogram of fill ratio of child arrays. Bucket i counts
+     * nodes whose arrays have from i * 10% to (i + 1) * 10% of slots used,
+     * full arrays are counted by the last bucket. Nodes without slots are not
+     * counted.
+     * 
+     * @return the copy of the histogram
+     */
+    public int[] getFillHistogram() {
+	return fill.clone();
+    }
+
+    /**
+     * Returns the number of nodes at every depth, the root is at depth 0
+     * 
+     * @return the copy of the depth distribution
+     */
+    public int[] getDepthHistogram() {
+	return depths.clone();
+    }
+
+    /**
+     * Returns the number of chains of nodes that have a single child and no
+     * word. Such chains are what path compression removes.
+     * 
+     * @return the number of single-child chains
+     */
+    public int getChains() {
+	return chains;
+    }
+
+    /**
+     * @return the number of nodes in single-child chains
+     */
+    public int getChainNodes() {
+	return chainNodes;
+    }
+
+    /**
+     * @return the estimated retained size in bytes or -1 if it is not known
+     */
+    public long getBytes() {
+	return bytes;
+    }
+
+    /**
+     * @return the estimated retained bytes per word or -1 if it is not known
+     */
+    public double getBytesPerWord() {
+	if (bytes < 0) {
+	    return -1;
+	}
+
+	return words == 0 ? 0 : (double) bytes / words;
+    }
+
+    @Override
+    public String toString() {
+	StringBuilder builder = new StringBuilder();
+
+	builder.append(String.format("words %d, nodes %d, bytes %d (%.1f per word)%n", words, nodes, bytes,
+		getBytesPerWord()));
+	builder.append(String.format("single-child chains %d of %d nodes%n", chains, chainNodes));
+	builder.append("fill");
+
+	for (int i = 0; i < fill.length; i++) {
+	    builder.append(String.format(" %d%%:%d", i * 100 / FILL_BUCKETS, fill[i]));
+	}
+
+	builder.append(String.format("%ndepth"));
+
+	for (int i = 0; i < depths.length; i++) {
+	    builder.append(String.format(" %d:%d", i, depths[i]));
+	}
+
+	return builder.append(String.format("%n")).toString();
+    }
+
+    /**
+     * Accumulates nodes of a trie that are passed in depth-first preorder, so
+     * the parent of a node is the last node passed one level above it. Sizes
+     * of objects are estimated for a 64-bit JVM with compressed oops and class
+     * pointers, the default for heaps below 32 GB.
+     * 
+     * @author Andrii_Lehuta
+     *
+     */
+    static final class Collector {
+	private static final int HEADER = 12; // Mark word and compressed class pointer
+	private static final int ARRAY_HEADER = 16; // Object header and length
+	private static final int ALIGNMENT = 8;
+	static final int REFERENCE = 4; // Compressed oop
+	static final int LONG = 8;
+	static final int INT = 4;
+	static final int CHAR = 2;
+	static final int BOOLEAN = 1;
+
+	private int nodes;
+	private final int[] fill = new int[FILL_BUCKETS];
+	private int[] depths = new int[16];
+	private boolean[] single = new boolean[16];
+	private int maxDepth;
+	private int chains;
+	private int chainNodes;
+	private long bytes;
+
+	/**
+	 * Adds the node with the specified shape
+	 * 
+	 * @param depth
+	 *            - depth of the node, 0 for the root
+	 * @param children
+	 *            - number of used child slots
+	 * @param slots
+	 *            - number of child slots, 0 if the node has no child array
+	 * @param word
+	 *            - true if a word ends at the node
+	 */
+	void node(int depth, int children, int slots, boolean word) {
+	    if (depth >= depths.length) {
+		depths = Arrays.copyOf(depths, depth * 2);
+		single = Arrays.copyOf(single, depth * 2);
+	    }
+
+	    nodes++;
+	    depths[depth]++;
+	    maxDepth = Math.max(maxDepth, depth);
+
+	    if (slots > 0) {
+		fill[Math.min(FILL_BUCKETS - 1, children * FILL_BUCKETS / slots)]++;
+	    }
+
+	    single[depth] = depth > 0 && children == 1 && !word;
+
+	    if (single[depth]) {
+		chainNodes++;
+
+		if (depth == 1 || !single[depth - 1]) {
+		    chains++;
+		}
+	    }
+	}
+
+	/**
+	 * Adds the nodes of the plain character trie of the sorted words from
+	 * lo to hi that share the first d characters
+	 * 
+	 * @param words
+	 *            - words in natural order
+	 * @param lo
+	 *            - index of the first word
+	 * @param hi
+	 *            - index after the last word
+	 * @param d
+	 *            - length of the shared prefix and depth of the node
+	 */
+	void words(List<String> words, int lo, int hi, int d) {
+	    boolean word = lo < hi && words.get(lo).length() == d;
+	    int start = word ? lo + 1 : lo;
+	    int children = 0;
+
+	    for (int i = start; i < hi; i++) {
+		if (i == start || words.get(i).charAt(d) != words.get(i - 1).charAt(d)) {
+		    children++;
+		}
+	    }
+
+	    node(d, children, 0, word);
+
+	    for (int i = start; i < hi;) {
+		int j = i + 1;
+
+		while (j < hi && words.get(j).charAt(d) == words.get(i).charAt(d)) {
+		    j++;
+		}
+
+		words(words, i, j, d + 1);
+		i = j;
+	    }
+	}
+
+	/**
+	 * Adds the specified number of bytes to the estimated size
+	 * 
+	 * @param size
+	 *            - number of bytes
+	 */
+	void bytes(long size) {
+	    bytes += size;
+	}
+
+	/**
+	 * Marks the size as not known
+	 */
+	void unknownBytes() {
+	    bytes = -1;
+	}
+
+	/**
+	 * Returns the statistics of the passed nodes
+	 * 
+	 * @param words
+	 *            - number of words of trie
+	 * @return the statistics
+	 */
+	TrieStats build(int words) {
+	    return new TrieStats(words, this);
+	}
+
+	/**
+	 * Returns the size of an object with the specified size of fields
+	 * 
+	 * @param fields
+	 *            - total size of fields in bytes
+	 * @return the aligned size of the object
+	 */
+	static long object(int fields) {
+	    return align(HEADER + fields);
+	}
+
+	/**
+	 * Returns the size of an array
+	 * 
+	 * @param length
+	 *            - length of the array
+	 * @param element
+	 *            - size of an element in bytes
+	 * @return the aligned size of the array
+	 */
+	static long array(int length, int element) {
+	    return align(ARRAY_HEADER + (long) length * element);
+	}
+
+	/**
+	 * Returns the size of a string with its array of characters
+	 * 
+	 * @param length
+	 *            - length of the string
+	 * @return the size of the string
+	 */
+	static long string(int length) {
+	    return object(REFERENCE + INT) + array(length, CHAR);
+	}
+
+	private static long align(long size) {
+	    return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+    }
+
+}
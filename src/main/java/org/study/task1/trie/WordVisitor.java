@@ -0,0 +1,24 @@
+package org.study.task1.trie;
+
+/**
+ * Callback that receives words found by forEachWithPrefix method of trie. The
+ * characters of the word are passed in a buffer that is reused for the next
+ * word, so the visitor must copy them if it needs to keep the word.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public interface WordVisitor {
+    /**
+     * Receives the next found word
+     * 
+     * @param word
+     *            - buffer which first length characters are the word
+     * @param length
+     *            - length of the word
+     * @param weight
+     *            - weight of the word
+     * @return true to continue the walk, false to stop it
+     */
+    boolean visit(char[] word, int length, long weight);
+}
@@ -41,6 +41,18 @@ public class EnglishAlphabet implements RWayTrie.Alphabet {
 	return pos;
     }
 
+    /**
+     * Returns true if the specified symbol is a small English letter
+     * 
+     * @param character
+     *            - specified symbol
+     * @return true if the symbol has a position
+     */
+    @Override
+    public boolean accepts(char character) {
+	return character >= SHIFT && character < SHIFT + SIZE;
+    }
+
     /**
      * Return the character from specified position in alphabet
      * 
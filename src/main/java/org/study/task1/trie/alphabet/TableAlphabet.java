@@ -0,0 +1,164 @@
+package org.study.task1.trie.alphabet;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.study.task1.trie.RWayTrie;
+
+/**
+ * Alphabet that finds positions of characters in a lookup table indexed by
+ * character, so position and accepts methods take one array read and never
+ * throw. Characters that are not in alphabet have UNMAPPED position. Several
+ * characters may share one position, for example both cases of a letter;
+ * such characters are read back as the character the position was made for.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class TableAlphabet implements RWayTrie.Alphabet {
+    private final char[] characters; // Character of every position
+    private final int[] positions; // Position of every character up to the largest one
+
+    /**
+     * Constructs alphabet of the specified characters in the specified order
+     * 
+     * @param characters
+     *            - characters of alphabet, each once
+     * @throws IllegalArgumentException
+     *             if a character is repeated
+     */
+    public TableAlphabet(String characters) {
+	this(characters.toCharArray(), table(characters.toCharArray()));
+    }
+
+    private TableAlphabet(char[] characters, int[] positions) {
+	this.characters = characters;
+	this.positions = positions;
+    }
+
+    private static int[] table(char[] characters) {
+	int largest = 0;
+
+	for (char character : characters) {
+	    largest = Math.max(largest, character);
+	}
+
+	int[] positions = new int[characters.length == 0 ? 0 : largest + 1];
+	Arrays.fill(positions, UNMAPPED);
+
+	for (int i = 0; i < characters.length; i++) {
+	    if (positions[characters[i]] != UNMAPPED) {
+		throw new IllegalArgumentException("Repeated character " + characters[i]);
+	    }
+
+	    positions[characters[i]] = i;
+	}
+
+	return positions;
+    }
+
+    /**
+     * Constructs alphabet of all characters met in the specified sample of
+     * text in the order of their codes
+     * 
+     * @param sample
+     *            - sample of text, for example words of a dictionary
+     * @return alphabet of the sample
+     */
+    public static TableAlphabet of(Iterable<? extends CharSequence> sample) {
+	BitSet met = new BitSet();
+
+	for (CharSequence text : sample) {
+	    for (int i = 0; i < text.length(); i++) {
+		met.set(text.charAt(i));
+	    }
+	}
+
+	StringBuilder characters = new StringBuilder(met.cardinality());
+
+	for (int character = met.nextSetBit(0); character >= 0; character = met.nextSetBit(character + 1)) {
+	    characters.append((char) character);
+	}
+
+	return new TableAlphabet(characters.toString());
+    }
+
+    /**
+     * Returns alphabet that also maps upper case of every character to the
+     * position of the character, so words are kept in the case of this
+     * alphabet
+     * 
+     * @return alphabet that ignores case
+     */
+    public TableAlphabet ignoreCase() {
+	int largest = positions.length - 1;
+
+	for (char character : characters) {
+	    largest = Math.max(largest, Character.toUpperCase(character));
+	}
+
+	int[] folded = Arrays.copyOf(positions, largest + 1);
+	Arrays.fill(folded, positions.length, folded.length, UNMAPPED);
+
+	for (int i = 0; i < characters.length; i++) {
+	    char upper = Character.toUpperCase(characters[i]);
+
+	    if (folded[upper] == UNMAPPED) {
+		folded[upper] = i;
+	    }
+	}
+
+	return new TableAlphabet(characters, folded);
+    }
+
+    /**
+     * Returns the size of alphabet
+     * 
+     * @return the size of alphabet
+     */
+    @Override
+    public int size() {
+	return characters.length;
+    }
+
+    /**
+     * Return the position of specified symbol in alphabet
+     * 
+     * @param character
+     *            - specified symbol
+     * @return position in alphabet or UNMAPPED
+     */
+    @Override
+    public int position(char character) {
+	return character < positions.length ? positions[character] : UNMAPPED;
+    }
+
+    /**
+     * Returns true if the specified symbol is in alphabet
+     * 
+     * @param character
+     *            - specified symbol
+     * @return true if the symbol has a position
+     */
+    @Override
+    public boolean accepts(char character) {
+	return character < positions.length && positions[character] != UNMAPPED;
+    }
+
+    /**
+     * Return the character from specified position in alphabet
+     * 
+     * @param position
+     *            - specified position
+     * @return character of the position
+     */
+    @Override
+    public char character(int position) {
+	if (position < 0 || position >= characters.length) {
+	    throw new IndexOutOfBoundsException();
+	}
+
+	return characters[position];
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.study.task1.trie.alphabet;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Alphabet of 256 byte values, characters with codes from 0 to 255. Any text is
+ * kept in trie by its UTF-8 bytes: encode method turns every byte into one
+ * character of this alphabet and decode method turns such characters back
+ * into text. Encoded words keep the order of code points of the text.
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class Utf8Alphabet extends TableAlphabet {
+    private static final int SIZE = 256;
+
+    /**
+     * Constructs alphabet of all byte values
+     */
+    public Utf8Alphabet() {
+	super(bytes());
+    }
+
+    private static String bytes() {
+	char[] characters = new char[SIZE];
+
+	for (int i = 0; i < SIZE; i++) {
+	    characters[i] = (char) i;
+	}
+
+	return new String(characters);
+    }
+
+    /**
+     * Returns the UTF-8 bytes of the specified text as characters of this
+     * alphabet
+     * 
+     * @param text
+     *            - the specified text
+     * @return word of this alphabet
+     */
+    public static String encode(String text) {
+	return new String(text.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Returns the text of the specified word of this alphabet
+     * 
+     * @param word
+     *            - word made by encode method
+     * @return the decoded text
+     */
+    public static String decode(String word) {
+	return new String(word.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+    }
+
+}
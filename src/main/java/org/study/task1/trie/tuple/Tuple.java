@@ -1,16 +1,40 @@
 package org.study.task1.trie.tuple;
 
+import java.util.Comparator;
+
 /**
- * Immutable tuple class for storage of word and its weight.
+ * Immutable tuple class for storage of word and its weight. Any weight,
+ * including zero, is a valid weight of a present word.
  * 
  * @author Andrii_Lehuta
  *
  */
 public class Tuple {
+    /**
+     * Order of ranked completion: heavier tuples first, then shorter words,
+     * then words in natural order
+     */
+    public static final Comparator<Tuple> RANK_ORDER = new Comparator<Tuple>() {
+
+	@Override
+	public int compare(Tuple first, Tuple second) {
+	    if (first.weight != second.weight) {
+		return first.weight > second.weight ? -1 : 1;
+	    }
+
+	    if (first.word.length() != second.word.length()) {
+		return first.word.length() - second.word.length();
+	    }
+
+	    return first.word.compareTo(second.word);
+	}
+
+    };
+
     private String word;
-    private int weight;
+    private long weight;
 
-    public Tuple(String word, int weight) {
+    public Tuple(String word, long weight) {
 	this.word = word;
 	this.weight = weight;
     }
@@ -25,7 +49,7 @@ public class Tuple {
     /**
      * @return the weight
      */
-    public int getWeight() {
+    public long getWeight() {
 	return weight;
     }
 
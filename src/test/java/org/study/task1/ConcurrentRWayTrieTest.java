@@ -0,0 +1,263 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.study.task1.trie.ConcurrentRWayTrie;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.alphabet.TableAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of ConcurrentRWayTrie trie
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class ConcurrentRWayTrieTest {
+
+    private static final String AUX_STRING = "aaaaaaaaaaaaaaaaaa";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String[] WORDS = { "associated", "drill", "drink", "spelling", "respond", "seriousness",
+	    "singers", "en", "end", "ends", "ended" };
+    private static final int THREADS = 4;
+    private ConcurrentRWayTrie trie;
+
+    /**
+     * Fill trie for every test
+     */
+    @Before
+    public void trieInit() {
+	trie = new ConcurrentRWayTrie(new EnglishAlphabet());
+
+	for (String word : WORDS) {
+	    trie.add(new Tuple(word, 1));
+	}
+    }
+
+    /**
+     * Checks that words with zero and 64-bit weights are present
+     */
+    @Test
+    public void longWeightsTest() {
+	trie.add(new Tuple("zero", 0));
+	trie.add(new Tuple("zest", 5627187200L));
+
+	assertEquals(trie.size(), WORDS.length + 2);
+	assertTrue(trie.contains("zero"));
+	assertEquals(trie.weight("zero"), 0);
+	assertEquals(trie.weight("zest"), 5627187200L);
+
+	assertTrue(trie.delete("zero"));
+	assertFalse(trie.contains("zero"));
+	assertEquals(trie.size(), WORDS.length + 1);
+    }
+
+    /**
+     * Checks that words with characters out of alphabet are skipped and
+     * lookups of such words find nothing
+     */
+    @Test
+    public void unmappedWordsTest() {
+	ConcurrentRWayTrie loaded = new ConcurrentRWayTrie(new TableAlphabet(LETTERS));
+	loaded.add(new Tuple("word", 1));
+	loaded.add(new Tuple("Hello", 2));
+	loaded.add(new Tuple("it's", 3));
+	loaded.add(new Tuple("wor2", 4));
+
+	assertEquals(loaded.size(), 1);
+	assertTrue(loaded.contains("word"));
+	assertFalse(loaded.contains("Hello"));
+	assertEquals(loaded.weight("it's"), 0);
+	assertFalse(loaded.wordsWithPrefix("wor2").iterator().hasNext());
+	assertTrue(loaded.wordsWithPrefix("wor").iterator().hasNext());
+	assertEquals(loaded.addWeight("it's", 5), 0);
+	assertFalse(loaded.delete("wor2"));
+	assertEquals(loaded.size(), 1);
+    }
+
+    /**
+     * Checks add, contains and delete methods in one thread
+     */
+    @Test
+    public void addContainsDeleteMethodsTest() {
+	assertEquals(trie.size(), WORDS.length);
+
+	for (String word : WORDS) {
+	    assertTrue(trie.contains(word));
+	    assertFalse(trie.contains(word + AUX_STRING));
+	}
+
+	trie.add(new Tuple("drill", 5));
+	assertEquals(trie.size(), WORDS.length);
+	assertEquals(trie.weight("drill"), 5);
+
+	assertTrue(trie.delete("end"));
+	assertFalse(trie.delete("end"));
+	assertFalse(trie.contains("end"));
+	assertTrue(trie.contains("ends"));
+	assertEquals(trie.size(), WORDS.length - 1);
+    }
+
+    /**
+     * Checks addWeight method on present and absent words
+     */
+    @Test
+    public void addWeightMethodTest() {
+	assertEquals(trie.addWeight("drill", 4), 5);
+	assertEquals(trie.addWeight("drills", 2), 2);
+	assertEquals(trie.size(), WORDS.length + 1);
+
+	assertEquals(trie.addWeight("drills", -2), 0);
+	assertTrue(trie.contains("drills"));
+	assertEquals(trie.size(), WORDS.length + 1);
+
+	assertTrue(trie.delete("drills"));
+	assertEquals(trie.addWeight("drills", 5000000000L), 5000000000L);
+	assertEquals(trie.weight("drills"), 5000000000L);
+    }
+
+    /**
+     * Checks that Long.MIN_VALUE is kept as an ordinary weight and that an
+     * overflowing addWeight fails without changing the word
+     */
+    @Test
+    public void extremeWeightsTest() {
+	trie.add("min", Long.MIN_VALUE);
+	assertTrue(trie.contains("min"));
+	assertEquals(trie.weight("min"), Long.MIN_VALUE);
+	assertEquals(trie.size(), WORDS.length + 1);
+	assertTrue(trie.wordsWithPrefix("min").iterator().hasNext());
+
+	trie.add("max", Long.MAX_VALUE - 1);
+	assertEquals(trie.addWeight("max", 1), Long.MAX_VALUE);
+
+	try {
+	    trie.addWeight("max", 1);
+	    fail();
+	} catch (ArithmeticException e) {
+	    assertEquals(trie.weight("max"), Long.MAX_VALUE);
+	}
+
+	try {
+	    trie.addWeight("min", -1);
+	    fail();
+	} catch (ArithmeticException e) {
+	    assertEquals(trie.weight("min"), Long.MIN_VALUE);
+	}
+
+	assertEquals(trie.size(), WORDS.length + 2);
+	assertTrue(trie.delete("min"));
+	assertEquals(trie.size(), WORDS.length + 1);
+    }
+
+    /**
+     * Checks that words are returned in the same order as RWayTrie returns
+     * them, also after deletion
+     */
+    @Test
+    public void wordsMethodOrderTest() {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+
+	for (String word : WORDS) {
+	    rwayTrie.add(new Tuple(word, 1));
+	}
+
+	rwayTrie.delete("drink");
+	trie.delete("drink");
+
+	Iterator<String> expected = rwayTrie.words().iterator();
+
+	for (String word : trie.words()) {
+	    assertEquals(expected.next(), word);
+	}
+
+	assertFalse(expected.hasNext());
+    }
+
+    /**
+     * Checks if empty trie iterator throws the exception
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void wordsMethodExceptionThrowOnEmptyTrieTest() {
+	new ConcurrentRWayTrie(new EnglishAlphabet()).words().iterator().next();
+    }
+
+    /**
+     * Checks that iterator does not fail when the trie is changed
+     */
+    @Test
+    public void iteratorWeaklyConsistentTest() {
+	Iterator<String> iter = trie.wordsWithPrefix("en").iterator();
+
+	assertEquals(iter.next(), "en");
+	assertTrue(trie.delete("ends"));
+	trie.add(new Tuple("entry", 1));
+
+	assertEquals(iter.next(), "end");
+	assertEquals(iter.next(), "ended");
+	assertEquals(iter.next(), "entry");
+	assertFalse(iter.hasNext());
+    }
+
+    /**
+     * Checks that concurrent additions of the same and different words are
+     * not lost
+     */
+    @Test
+    public void concurrentAddTest() throws InterruptedException {
+	List<Thread> threads = new ArrayList<Thread>();
+
+	for (int t = 0; t < THREADS; t++) {
+	    int thread = t;
+
+	    threads.add(new Thread(new Runnable() {
+
+		@Override
+		public void run() {
+		    for (int i = 0; i < 1000; i++) {
+			trie.addWeight("shared", 1);
+			trie.add(new Tuple(word(thread, i), 1));
+		    }
+		}
+
+	    }));
+	}
+
+	for (Thread thread : threads) {
+	    thread.start();
+	}
+
+	for (Thread thread : threads) {
+	    thread.join();
+	}
+
+	assertEquals(trie.weight("shared"), THREADS * 1000);
+
+	for (int t = 0; t < THREADS; t++) {
+	    for (int i = 0; i < 1000; i++) {
+		assertTrue(trie.contains(word(t, i)));
+	    }
+	}
+
+	int count = 0;
+
+	for (Iterator<String> iter = trie.words().iterator(); iter.hasNext(); iter.next()) {
+	    count++;
+	}
+
+	assertEquals(trie.size(), count);
+    }
+
+    private static String word(int thread, int i) {
+	return "" + (char) ('a' + thread) + (char) ('a' + i % 26) + (char) ('a' + i / 26 % 26) + (char) ('a' + i / 676);
+    }
+
+}
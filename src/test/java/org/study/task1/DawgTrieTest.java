@@ -0,0 +1,277 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.study.task1.trie.DawgTrie;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.WordVisitor;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.alphabet.TableAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of DawgTrie trie
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class DawgTrieTest {
+
+    private static final String AUX_STRING = "aaaaaaaaaaaaaaaaaa";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String[] WORDS = { "associated", "drill", "drink", "spelling", "respond", "seriousness",
+	    "singers", "en", "end", "ends", "ended", "mended", "mends", "tending", "spending" };
+    private DawgTrie trie;
+
+    /**
+     * Fill trie for every test
+     */
+    @Before
+    public void trieInit() {
+	List<Tuple> tuples = new ArrayList<Tuple>();
+
+	for (int i = 0; i < WORDS.length; i++) {
+	    tuples.add(new Tuple(WORDS[i], i + 1));
+	}
+
+	trie = new DawgTrie(new EnglishAlphabet(), tuples);
+    }
+
+    /**
+     * Checks that words with zero and 64-bit weights are present
+     */
+    @Test
+    public void longWeightsTest() {
+	DawgTrie loaded = new DawgTrie(new EnglishAlphabet(), Arrays.asList(new Tuple("zero", 0), new Tuple("zest", 5627187200L)));
+
+	assertEquals(loaded.size(), 2);
+	assertTrue(loaded.contains("zero"));
+	assertEquals(loaded.weight("zero"), 0);
+	assertEquals(loaded.weight("zest"), 5627187200L);
+    }
+
+    /**
+     * Checks that words with characters out of alphabet are skipped and
+     * lookups of such words find nothing
+     */
+    @Test
+    public void unmappedWordsTest() {
+	DawgTrie loaded = new DawgTrie(new TableAlphabet(LETTERS), Arrays.asList(new Tuple("word", 1), new Tuple("Hello", 2),
+		new Tuple("it's", 3), new Tuple("wor2", 4)));
+
+	assertEquals(loaded.size(), 1);
+	assertTrue(loaded.contains("word"));
+	assertFalse(loaded.contains("Hello"));
+	assertEquals(loaded.weight("it's"), 0);
+	assertFalse(loaded.wordsWithPrefix("wor2").iterator().hasNext());
+	assertTrue(loaded.wordsWithPrefix("wor").iterator().hasNext());
+	assertEquals(loaded.size(), 1);
+    }
+
+    /**
+     * Checks contains and weight methods on existing and non existing words
+     */
+    @Test
+    public void containsMethodTest() {
+	assertEquals(trie.size(), WORDS.length);
+
+	for (int i = 0; i < WORDS.length; i++) {
+	    assertTrue(trie.contains(WORDS[i]));
+	    assertEquals(trie.weight(WORDS[i]), i + 1);
+	    assertFalse(trie.contains(WORDS[i] + AUX_STRING));
+	}
+
+	assertFalse(trie.contains("e"));
+	assertFalse(trie.contains("mend"));
+	assertFalse(trie.contains(""));
+	assertEquals(trie.weight("pending"), 0);
+    }
+
+    /**
+     * Checks that common suffixes are stored once
+     */
+    @Test
+    public void suffixSharingTest() {
+	DawgTrie shared = new DawgTrie(new EnglishAlphabet(),
+		Arrays.asList(new Tuple("walking", 1), new Tuple("talking", 2), new Tuple("balking", 3)));
+
+	assertEquals(shared.stateCount(), 8);
+	assertEquals(shared.weight("talking"), 2);
+    }
+
+    /**
+     * Checks that words are returned shortest first like in RWayTrie
+     */
+    @Test
+    public void wordWithPrefixMethodOnSpecificPrefixTest() {
+	Iterator<String> iterator = trie.wordsWithPrefix("en").iterator();
+
+	assertEquals(iterator.next(), "en");
+	assertEquals(iterator.next(), "end");
+	assertEquals(iterator.next(), "ends");
+	assertEquals(iterator.next(), "ended");
+	assertFalse(iterator.hasNext());
+	assertFalse(trie.wordsWithPrefix("x").iterator().hasNext());
+    }
+
+    /**
+     * Checks that forEachWithPrefix method passes weights of words
+     */
+    @Test
+    public void forEachWithPrefixMethodTest() {
+	List<String> visited = new ArrayList<String>();
+
+	trie.forEachWithPrefix("s", new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		String string = new String(word, 0, length);
+		assertEquals(trie.weight(string), weight);
+		visited.add(string);
+		return true;
+	    }
+
+	});
+
+	assertEquals(visited, Arrays.asList("singers", "spelling", "spending", "seriousness"));
+    }
+
+    /**
+     * Checks that automaton built from wiktionary words contains the same
+     * words with the same weights as RWayTrie and returns them in the same
+     * order
+     */
+    @Test
+    public void buildFromWiktionaryTest() throws IOException {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+	int weight = 0;
+
+	try (BufferedReader reader = new BufferedReader(
+		new InputStreamReader(getClass().getResourceAsStream("/wiktionary.txt"), StandardCharsets.UTF_8))) {
+	    String line;
+
+	    while ((line = reader.readLine()) != null) {
+		String word = line.trim().split("\\s+")[1];
+
+		if (word.matches("[a-z]+")) {
+		    rwayTrie.add(new Tuple(word, ++weight));
+		}
+	    }
+	}
+
+	DawgTrie dawgTrie = new DawgTrie(rwayTrie);
+	Iterator<String> expected = rwayTrie.words().iterator();
+
+	for (String word : dawgTrie.words()) {
+	    assertEquals(expected.next(), word);
+	    assertEquals(rwayTrie.weight(word), dawgTrie.weight(word));
+	}
+
+	assertFalse(expected.hasNext());
+	assertEquals(rwayTrie.size(), dawgTrie.size());
+
+	for (String prefix : new String[] { "co", "inter", "un" }) {
+	    expected = rwayTrie.wordsWithPrefix(prefix).iterator();
+
+	    for (String word : dawgTrie.wordsWithPrefix(prefix)) {
+		assertEquals(expected.next(), word);
+	    }
+
+	    assertFalse(expected.hasNext());
+	}
+    }
+
+    /**
+     * Checks that empty trie has no words
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void wordsMethodOnEmptyTrieTest() {
+	DawgTrie empty = new DawgTrie(new EnglishAlphabet(), Arrays.<Tuple> asList());
+
+	assertEquals(empty.size(), 0);
+	assertFalse(empty.contains("any"));
+	empty.words().iterator().next();
+    }
+
+    /**
+     * Checks that trie can not be modified
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void deleteMethodTest() {
+	trie.delete("drill");
+    }
+
+    /**
+     * Checks that PrefixMatches works on top of DawgTrie
+     */
+    @Test
+    public void prefixMatchesOnDawgTrieTest() {
+	Iterator<String> iterator = new PrefixMatches(trie).wordsWithPrefix("en", 2).iterator();
+
+	assertEquals(iterator.next(), "en");
+	assertEquals(iterator.next(), "end");
+	assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Checks that stream gives words in alphabet order and every part of
+     * every split knows its exact size
+     */
+    @Test
+    public void streamMethodTest() {
+	List<String> sorted = new ArrayList<String>(Arrays.asList(WORDS));
+	Collections.sort(sorted);
+
+	assertEquals(trie.stream().collect(Collectors.toList()), sorted);
+	assertEquals(trie.stream().parallel().collect(Collectors.toList()), sorted);
+	assertEquals(split(trie.stream().spliterator(), 5), sorted);
+	assertEquals(trie.streamWithPrefix("en").collect(Collectors.toList()),
+		Arrays.asList("en", "end", "ended", "ends"));
+	assertEquals(split(trie.streamWithPrefix("en").spliterator(), 3), Arrays.asList("en", "end", "ended", "ends"));
+	assertEquals(trie.streamWithPrefix("sp").spliterator().getExactSizeIfKnown(), 2);
+	assertEquals(trie.streamWithPrefix("x").count(), 0);
+    }
+
+    /**
+     * Splits the spliterator the specified number of times and returns words
+     * of all parts in order, checking that every part knows its size
+     */
+    private static List<String> split(Spliterator<String> spliterator, int times) {
+	List<String> words = new ArrayList<String>();
+	Spliterator<String> prefix = times > 0 ? spliterator.trySplit() : null;
+
+	if (prefix != null) {
+	    words.addAll(split(prefix, times - 1));
+	    words.addAll(split(spliterator, times - 1));
+	    return words;
+	}
+	long size = spliterator.getExactSizeIfKnown();
+	assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+
+	Iterator<String> iterator = Spliterators.iterator(spliterator);
+
+	while (iterator.hasNext()) {
+	    words.add(iterator.next());
+	}
+	assertEquals(words.size(), size);
+
+	return words;
+    }
+
+}
@@ -0,0 +1,172 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.study.task1.DictionaryLoader.Report;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of DictionaryLoader
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class DictionaryLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String content) throws IOException {
+	Path file = folder.newFile().toPath();
+	Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	return file;
+    }
+
+    /**
+     * Checks that valid lines are loaded with their counts as weights
+     */
+    @Test
+    public void loadMethodTest() throws IOException {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	Report report = new DictionaryLoader(new EnglishAlphabet())
+		.load(write("    5627187200\tthe\n  1742063600\tin  \r\n15\tdrill\n7 drink"), trie);
+
+	assertEquals(report.getLines(), 4);
+	assertEquals(report.getWords(), 4);
+	assertEquals(report.getSkipped(), 0);
+	assertEquals(trie.weight("the"), 5627187200L);
+	assertEquals(trie.weight("in"), 1742063600);
+	assertEquals(trie.weight("drill"), 15);
+	assertEquals(trie.weight("drink"), 7);
+    }
+
+    /**
+     * Checks that counts out of range of long are limited to its largest value
+     */
+    @Test
+    public void countOverflowTest() throws IOException {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	new DictionaryLoader(new EnglishAlphabet()).load(write("9223372036854775807\tmax\n99999999999999999999\tover\n"),
+		trie);
+
+	assertEquals(trie.weight("max"), Long.MAX_VALUE);
+	assertEquals(trie.weight("over"), Long.MAX_VALUE);
+    }
+
+    /**
+     * Checks that malformed lines and words outside of the alphabet are
+     * skipped
+     */
+    @Test
+    public void skipInvalidLinesTest() throws IOException {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	Report report = new DictionaryLoader(new EnglishAlphabet()).load(
+		write("12\tcafé\n\n12a\tdrill\n12\n13\tdrill now\n14\tDrill\n0\tzero\n15\tend\n"), trie);
+
+	assertEquals(report.getLines(), 8);
+	assertEquals(report.getWords(), 2);
+	assertEquals(trie.size(), 2);
+	assertEquals(trie.weight("zero"), 0);
+	assertTrue(trie.contains("zero"));
+	assertEquals(trie.weight("end"), 15);
+    }
+
+    /**
+     * Checks that words with characters of several bytes are decoded when the
+     * bytes are split between reads
+     */
+    @Test
+    public void multiByteCharactersTest() throws IOException {
+	RWayTrie trie = new RWayTrie(new FrenchAlphabet());
+	Report report = new DictionaryLoader(new FrenchAlphabet(), 3).load(write("3\tcafé\n4\tnaïve\n"), trie);
+
+	assertEquals(report.getWords(), 2);
+	assertEquals(trie.weight("café"), 3);
+	assertEquals(trie.weight("naïve"), 4);
+    }
+
+    /**
+     * Checks that loader with small buffer loads wiktionary words with the
+     * same weights as BufferedReader with split
+     */
+    @Test
+    public void loadWiktionaryTest() throws IOException, URISyntaxException {
+	Path file = Paths.get(getClass().getResource("/wiktionary.txt").toURI());
+	RWayTrie expected = new RWayTrie(new EnglishAlphabet());
+
+	try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+	    String line;
+
+	    while ((line = reader.readLine()) != null) {
+		String[] fields = line.trim().split("\\s+");
+
+		if (fields[1].matches("[a-z]+")) {
+		    expected.add(new Tuple(fields[1], Long.parseLong(fields[0])));
+		}
+	    }
+	}
+
+	DictionaryLoader loader = new DictionaryLoader(new EnglishAlphabet(), 100);
+
+	for (int i = 0; i < 2; i++) {
+	    RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	    Report report = loader.load(file, trie);
+
+	    assertEquals(report.getLines(), 10000);
+	    assertEquals(trie.size(), expected.size());
+
+	    Iterator<String> words = expected.words().iterator();
+
+	    for (String word : trie.words()) {
+		assertEquals(words.next(), word);
+		assertEquals(expected.weight(word), trie.weight(word));
+	    }
+
+	    assertFalse(words.hasNext());
+	}
+    }
+
+    /**
+     * Alphabet of English letters with two French letters
+     */
+    private static class FrenchAlphabet implements RWayTrie.Alphabet {
+	private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzéï";
+
+	@Override
+	public int size() {
+	    return LETTERS.length();
+	}
+
+	@Override
+	public int position(char character) {
+	    int position = LETTERS.indexOf(character);
+
+	    if (position < 0) {
+		throw new IndexOutOfBoundsException();
+	    }
+
+	    return position;
+	}
+
+	@Override
+	public char character(int position) {
+	    return LETTERS.charAt(position);
+	}
+
+    }
+
+}
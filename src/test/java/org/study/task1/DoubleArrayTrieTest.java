@@ -0,0 +1,209 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.study.task1.trie.DoubleArrayTrie;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.alphabet.TableAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of DoubleArrayTrie trie
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class DoubleArrayTrieTest {
+
+    private static final String AUX_STRING = "aaaaaaaaaaaaaaaaaa";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String[] WORDS = { "associated", "drill", "drink", "spelling", "respond", "seriousness",
+	    "singers", "en", "end", "ends", "ended" };
+    private DoubleArrayTrie trie;
+
+    /**
+     * Fill trie for every test
+     */
+    @Before
+    public void trieInit() {
+	List<Tuple> tuples = new ArrayList<Tuple>();
+
+	for (String word : WORDS) {
+	    tuples.add(new Tuple(word, word.length()));
+	}
+
+	trie = new DoubleArrayTrie(new EnglishAlphabet(), tuples);
+    }
+
+    /**
+     * Checks that words with zero and 64-bit weights are present
+     */
+    @Test
+    public void longWeightsTest() {
+	DoubleArrayTrie loaded = new DoubleArrayTrie(new EnglishAlphabet(), Arrays.asList(new Tuple("zero", 0), new Tuple("zest", 5627187200L)));
+
+	assertEquals(loaded.size(), 2);
+	assertTrue(loaded.contains("zero"));
+	assertEquals(loaded.weight("zero"), 0);
+	assertEquals(loaded.weight("zest"), 5627187200L);
+    }
+
+    /**
+     * Checks that words with characters out of alphabet are skipped and
+     * lookups of such words find nothing
+     */
+    @Test
+    public void unmappedWordsTest() {
+	DoubleArrayTrie loaded = new DoubleArrayTrie(new TableAlphabet(LETTERS), Arrays.asList(new Tuple("word", 1), new Tuple("Hello", 2),
+		new Tuple("it's", 3), new Tuple("wor2", 4)));
+
+	assertEquals(loaded.size(), 1);
+	assertTrue(loaded.contains("word"));
+	assertFalse(loaded.contains("Hello"));
+	assertEquals(loaded.weight("it's"), 0);
+	assertFalse(loaded.wordsWithPrefix("wor2").iterator().hasNext());
+	assertTrue(loaded.wordsWithPrefix("wor").iterator().hasNext());
+	assertEquals(loaded.size(), 1);
+    }
+
+    /**
+     * Checks size of trie built from word list
+     */
+    @Test
+    public void sizeTest() {
+	assertEquals(trie.size(), WORDS.length);
+    }
+
+    /**
+     * Checks contains method on existing and non existing words
+     */
+    @Test
+    public void containsMethodTest() {
+	for (String word : WORDS) {
+	    assertTrue(trie.contains(word));
+	    assertFalse(trie.contains(word + AUX_STRING));
+	}
+
+	assertFalse(trie.contains("e"));
+	assertFalse(trie.contains(""));
+    }
+
+    /**
+     * Checks that words are returned shortest first like in RWayTrie
+     */
+    @Test
+    public void wordWithPrefixMethodOnSpecificPrefixTest() {
+	Iterator<String> iterator = trie.wordsWithPrefix("en").iterator();
+
+	assertEquals(iterator.next(), "en");
+	assertEquals(iterator.next(), "end");
+	assertEquals(iterator.next(), "ends");
+	assertEquals(iterator.next(), "ended");
+	assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Checks that trie built from RWayTrie returns the same words in the same
+     * order
+     */
+    @Test
+    public void buildFromRWayTrieTest() {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+
+	for (String word : WORDS) {
+	    rwayTrie.add(new Tuple(word, 1));
+	}
+
+	List<String> expected = new ArrayList<String>();
+	List<String> actual = new ArrayList<String>();
+
+	for (String word : rwayTrie.words()) {
+	    expected.add(word);
+	}
+
+	for (String word : new DoubleArrayTrie(rwayTrie).words()) {
+	    actual.add(word);
+	}
+
+	assertEquals(expected, actual);
+    }
+
+    /**
+     * Checks that trie built from wiktionary words contains the same words as
+     * RWayTrie
+     */
+    @Test
+    public void buildFromWiktionaryTest() throws IOException {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+
+	try (BufferedReader reader = new BufferedReader(
+		new InputStreamReader(getClass().getResourceAsStream("/wiktionary.txt"), StandardCharsets.UTF_8))) {
+	    String line;
+
+	    while ((line = reader.readLine()) != null) {
+		String word = line.trim().split("\\s+")[1];
+
+		if (word.matches("[a-z]+")) {
+		    rwayTrie.add(new Tuple(word, 1));
+		}
+	    }
+	}
+
+	DoubleArrayTrie doubleArrayTrie = new DoubleArrayTrie(rwayTrie);
+	Iterator<String> expected = rwayTrie.words().iterator();
+
+	for (String word : doubleArrayTrie.words()) {
+	    assertEquals(expected.next(), word);
+	    assertTrue(doubleArrayTrie.contains(word));
+	}
+
+	assertFalse(expected.hasNext());
+	assertEquals(rwayTrie.size(), doubleArrayTrie.size());
+    }
+
+    /**
+     * Checks that empty trie has no words
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void wordsMethodOnEmptyTrieTest() {
+	DoubleArrayTrie empty = new DoubleArrayTrie(new EnglishAlphabet(), Arrays.<Tuple> asList());
+
+	assertEquals(empty.size(), 0);
+	assertFalse(empty.contains("any"));
+	empty.words().iterator().next();
+    }
+
+    /**
+     * Checks that trie can not be modified
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void addMethodTest() {
+	trie.add(new Tuple("drills", 1));
+    }
+
+    /**
+     * Checks that PrefixMatches works on top of DoubleArrayTrie
+     */
+    @Test
+    public void prefixMatchesOnDoubleArrayTrieTest() {
+	Iterator<String> iterator = new PrefixMatches(trie).wordsWithPrefix("en", 2).iterator();
+
+	assertEquals(iterator.next(), "en");
+	assertEquals(iterator.next(), "end");
+	assertFalse(iterator.hasNext());
+    }
+
+}
@@ -29,6 +29,16 @@ public class EnglishAlphabetTest {
     }
 
     
+    @Test
+    public void acceptsMethodTest() {
+	assertTrue(alphabet.accepts('a'));
+	assertTrue(alphabet.accepts('z'));
+	assertFalse(alphabet.accepts('A'));
+	assertFalse(alphabet.accepts('{'));
+	assertTrue(alphabet.accepts("word"));
+	assertFalse(alphabet.accepts("it's"));
+    }
+
     @Test
     public void characterWithPositionInAlphabetTest() {
 	int inAlphabetPosition = 0;
@@ -0,0 +1,273 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.study.task1.trie.MappedTrie;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.WordVisitor;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.alphabet.TableAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of MappedTrie trie
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class MappedTrieTest {
+
+    private static final String AUX_STRING = "aaaaaaaaaaaaaaaaaa";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String[] WORDS = { "associated", "drill", "drink", "spelling", "respond", "seriousness",
+	    "singers", "en", "end", "ends", "ended", "mended", "mends", "tending", "spending" };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MappedTrie trie;
+
+    /**
+     * Write and map trie for every test
+     */
+    @Before
+    public void trieInit() throws IOException {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+
+	for (int i = 0; i < WORDS.length; i++) {
+	    rwayTrie.add(new Tuple(WORDS[i], i + 1));
+	}
+
+	trie = map(rwayTrie);
+    }
+
+    private MappedTrie map(RWayTrie rwayTrie) throws IOException {
+	Path file = folder.newFile().toPath();
+	MappedTrie.write(rwayTrie, file);
+	return new MappedTrie(file);
+    }
+
+    /**
+     * Checks that words with zero and 64-bit weights are present
+     */
+    @Test
+    public void longWeightsTest() throws IOException {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+	rwayTrie.addAll(Arrays.asList(new Tuple("zero", 0), new Tuple("zest", 5627187200L)));
+	MappedTrie loaded = map(rwayTrie);
+
+	assertEquals(loaded.size(), 2);
+	assertTrue(loaded.contains("zero"));
+	assertEquals(loaded.weight("zero"), 0);
+	assertEquals(loaded.weight("zest"), 5627187200L);
+    }
+
+    /**
+     * Checks that words with characters out of alphabet are skipped and
+     * lookups of such words find nothing
+     */
+    @Test
+    public void unmappedWordsTest() throws IOException {
+	RWayTrie rwayTrie = new RWayTrie(new TableAlphabet(LETTERS));
+	rwayTrie.addAll(Arrays.asList(new Tuple("word", 1), new Tuple("Hello", 2), new Tuple("it's", 3), new Tuple("wor2", 4)));
+	MappedTrie loaded = map(rwayTrie);
+
+	assertEquals(loaded.size(), 1);
+	assertTrue(loaded.contains("word"));
+	assertFalse(loaded.contains("Hello"));
+	assertEquals(loaded.weight("it's"), 0);
+	assertFalse(loaded.wordsWithPrefix("wor2").iterator().hasNext());
+	assertTrue(loaded.wordsWithPrefix("wor").iterator().hasNext());
+	assertEquals(loaded.size(), 1);
+    }
+
+    /**
+     * Checks contains and weight methods on existing and non existing words
+     */
+    @Test
+    public void containsMethodTest() {
+	assertEquals(trie.size(), WORDS.length);
+
+	for (int i = 0; i < WORDS.length; i++) {
+	    assertTrue(trie.contains(WORDS[i]));
+	    assertEquals(trie.weight(WORDS[i]), i + 1);
+	    assertFalse(trie.contains(WORDS[i] + AUX_STRING));
+	}
+
+	assertFalse(trie.contains("e"));
+	assertFalse(trie.contains("mend"));
+	assertFalse(trie.contains(""));
+	assertEquals(trie.weight("pending"), 0);
+    }
+
+    /**
+     * Checks that words are returned shortest first like in RWayTrie
+     */
+    @Test
+    public void wordWithPrefixMethodOnSpecificPrefixTest() {
+	Iterator<String> iterator = trie.wordsWithPrefix("en").iterator();
+
+	assertEquals(iterator.next(), "en");
+	assertEquals(iterator.next(), "end");
+	assertEquals(iterator.next(), "ends");
+	assertEquals(iterator.next(), "ended");
+	assertFalse(iterator.hasNext());
+	assertFalse(trie.wordsWithPrefix("x").iterator().hasNext());
+    }
+
+    /**
+     * Checks that forEachWithPrefix method passes weights of words
+     */
+    @Test
+    public void forEachWithPrefixMethodTest() {
+	List<String> visited = new ArrayList<String>();
+
+	trie.forEachWithPrefix("s", new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		String string = new String(word, 0, length);
+		assertEquals(trie.weight(string), weight);
+		visited.add(string);
+		return true;
+	    }
+
+	});
+
+	assertEquals(visited, Arrays.asList("singers", "spelling", "spending", "seriousness"));
+    }
+
+    /**
+     * Checks that file written from wiktionary words contains the same words
+     * with the same weights as RWayTrie and returns them in the same order
+     */
+    @Test
+    public void writeWiktionaryTest() throws IOException {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+	int weight = 0;
+
+	try (BufferedReader reader = new BufferedReader(
+		new InputStreamReader(getClass().getResourceAsStream("/wiktionary.txt"), StandardCharsets.UTF_8))) {
+	    String line;
+
+	    while ((line = reader.readLine()) != null) {
+		String word = line.trim().split("\\s+")[1];
+
+		if (word.matches("[a-z]+")) {
+		    rwayTrie.add(new Tuple(word, ++weight));
+		}
+	    }
+	}
+
+	MappedTrie mappedTrie = map(rwayTrie);
+	Iterator<String> expected = rwayTrie.words().iterator();
+
+	for (String word : mappedTrie.words()) {
+	    assertEquals(expected.next(), word);
+	    assertEquals(rwayTrie.weight(word), mappedTrie.weight(word));
+	}
+
+	assertFalse(expected.hasNext());
+	assertEquals(rwayTrie.size(), mappedTrie.size());
+
+	for (String prefix : new String[] { "co", "inter", "un" }) {
+	    expected = rwayTrie.wordsWithPrefix(prefix).iterator();
+
+	    for (String word : mappedTrie.wordsWithPrefix(prefix)) {
+		assertEquals(expected.next(), word);
+	    }
+
+	    assertFalse(expected.hasNext());
+	}
+    }
+
+    /**
+     * Checks that empty trie is written and mapped
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void wordsMethodOnEmptyTrieTest() throws IOException {
+	MappedTrie empty = map(new RWayTrie(new EnglishAlphabet()));
+
+	assertEquals(empty.size(), 0);
+	assertFalse(empty.contains("any"));
+	empty.words().iterator().next();
+    }
+
+    /**
+     * Checks that file of other format is rejected
+     */
+    @Test(expected = IOException.class)
+    public void wrongFormatTest() throws IOException {
+	Path file = folder.newFile().toPath();
+	Files.write(file, "not a trie file at all".getBytes(StandardCharsets.UTF_8));
+
+	new MappedTrie(file);
+    }
+
+    /**
+     * Checks that truncated file is rejected
+     */
+    @Test(expected = IOException.class)
+    public void truncatedFileTest() throws IOException {
+	Path file = folder.newFile().toPath();
+	MappedTrie.write(new RWayTrie(new EnglishAlphabet()), file);
+	byte[] bytes = Files.readAllBytes(file);
+	Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+	new MappedTrie(file);
+    }
+
+    /**
+     * Checks that trie can not be modified
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void addMethodTest() {
+	trie.add(new Tuple("drill", 1));
+    }
+
+    /**
+     * Checks that PrefixMatches works on top of MappedTrie
+     */
+    @Test
+    public void prefixMatchesOnMappedTrieTest() {
+	Iterator<String> iterator = new PrefixMatches(trie).wordsWithPrefix("en", 2).iterator();
+
+	assertEquals(iterator.next(), "en");
+	assertEquals(iterator.next(), "end");
+	assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Checks that stream gives words in alphabet order and knows its size
+     */
+    @Test
+    public void streamMethodTest() {
+	List<String> sorted = new ArrayList<String>(Arrays.asList(WORDS));
+	Collections.sort(sorted);
+
+	assertEquals(trie.stream().collect(Collectors.toList()), sorted);
+	assertEquals(trie.stream().parallel().collect(Collectors.toList()), sorted);
+	assertEquals(trie.stream().spliterator().getExactSizeIfKnown(), WORDS.length);
+	assertEquals(trie.streamWithPrefix("dri").collect(Collectors.toList()), Arrays.asList("drill", "drink"));
+	assertEquals(trie.streamWithPrefix("x").count(), 0);
+    }
+
+}
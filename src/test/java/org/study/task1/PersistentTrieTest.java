@@ -0,0 +1,305 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.study.task1.trie.PersistentTrie;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.WordVisitor;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.alphabet.TableAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of PersistentTrie trie
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class PersistentTrieTest {
+
+    private static final String AUX_STRING = "aaaaaaaaaaaaaaaaaa";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String[] WORDS = { "associated", "drill", "drink", "spelling", "respond", "seriousness",
+	    "singers", "en", "end", "ends", "ended" };
+    private PersistentTrie trie;
+
+    /**
+     * Fill trie for every test
+     */
+    @Before
+    public void trieInit() {
+	trie = new PersistentTrie(new EnglishAlphabet());
+
+	for (String word : WORDS) {
+	    trie.add(new Tuple(word, word.length()));
+	}
+    }
+
+    /**
+     * Checks that words with zero and 64-bit weights are present
+     */
+    @Test
+    public void longWeightsTest() {
+	trie.add(new Tuple("zero", 0));
+	trie.add(new Tuple("zest", 5627187200L));
+
+	assertEquals(trie.size(), WORDS.length + 2);
+	assertTrue(trie.contains("zero"));
+	assertEquals(trie.weight("zero"), 0);
+	assertEquals(trie.weight("zest"), 5627187200L);
+
+	assertTrue(trie.delete("zero"));
+	assertFalse(trie.contains("zero"));
+	assertEquals(trie.size(), WORDS.length + 1);
+    }
+
+    /**
+     * Checks that words with characters out of alphabet are skipped and
+     * lookups of such words find nothing
+     */
+    @Test
+    public void unmappedWordsTest() {
+	PersistentTrie loaded = new PersistentTrie(new TableAlphabet(LETTERS));
+	loaded.add(new Tuple("word", 1));
+	loaded.add(new Tuple("Hello", 2));
+	loaded.add(new Tuple("it's", 3));
+	loaded.add(new Tuple("wor2", 4));
+
+	assertEquals(loaded.size(), 1);
+	assertTrue(loaded.contains("word"));
+	assertFalse(loaded.contains("Hello"));
+	assertEquals(loaded.weight("it's"), 0);
+	assertFalse(loaded.wordsWithPrefix("wor2").iterator().hasNext());
+	assertTrue(loaded.wordsWithPrefix("wor").iterator().hasNext());
+	assertFalse(loaded.delete("wor2"));
+	assertEquals(loaded.size(), 1);
+    }
+
+    /**
+     * Checks add method with new and repeated words
+     */
+    @Test
+    public void addMethodTest() {
+	assertEquals(trie.size(), WORDS.length);
+
+	trie.add(new Tuple("drill", 7));
+	trie.add(new Tuple("", 1));
+
+	assertEquals(trie.size(), WORDS.length);
+	assertEquals(trie.weight("drill"), 7);
+    }
+
+    /**
+     * Checks contains method on existing and non existing words
+     */
+    @Test
+    public void containsMethodTest() {
+	for (String word : WORDS) {
+	    assertTrue(trie.contains(word));
+	    assertFalse(trie.contains(word + AUX_STRING));
+	}
+
+	assertFalse(trie.contains("e"));
+	assertFalse(trie.contains(""));
+    }
+
+    /**
+     * Checks delete method on existing and non existing words
+     */
+    @Test
+    public void deleteMethodTest() {
+	for (String word : WORDS) {
+	    assertFalse(trie.delete(word + AUX_STRING));
+	}
+
+	assertTrue(trie.delete("end"));
+	assertTrue(trie.contains("ends"));
+	assertTrue(trie.contains("en"));
+
+	for (String word : WORDS) {
+	    trie.delete(word);
+	    assertFalse(trie.contains(word));
+	}
+
+	assertEquals(trie.size(), 0);
+	assertFalse(trie.words().iterator().hasNext());
+    }
+
+    /**
+     * Checks that words are returned in the same order as RWayTrie returns
+     * them
+     */
+    @Test
+    public void wordsMethodOrderTest() {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+
+	for (String word : WORDS) {
+	    rwayTrie.add(new Tuple(word, 1));
+	}
+
+	Iterator<String> expected = rwayTrie.words().iterator();
+
+	for (String word : trie.words()) {
+	    assertEquals(expected.next(), word);
+	}
+
+	assertFalse(expected.hasNext());
+    }
+
+    /**
+     * Checks that only words of the asked number of the smallest lengths are
+     * returned and visited
+     */
+    @Test
+    public void wordsWithPrefixLengthsMethodTest() {
+	List<String> visited = new ArrayList<String>();
+
+	for (String word : trie.wordsWithPrefix("en", 2)) {
+	    visited.add(word);
+	}
+
+	assertEquals(visited, Arrays.asList("en", "end"));
+	assertFalse(trie.wordsWithPrefix("en", 0).iterator().hasNext());
+
+	visited.clear();
+	trie.forEachWithPrefix("", 1, new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		visited.add(new String(word, 0, length));
+		return true;
+	    }
+
+	});
+
+	assertEquals(visited, Arrays.asList("en"));
+    }
+
+    /**
+     * Checks wordWithPrefix method on specific prefix
+     */
+    @Test
+    public void wordWithPrefixMethodOnSpecificPrefixTest() {
+	Iterator<String> iterator = trie.wordsWithPrefix("en").iterator();
+
+	assertEquals(iterator.next(), "en");
+	assertEquals(iterator.next(), "end");
+	assertEquals(iterator.next(), "ends");
+	assertEquals(iterator.next(), "ended");
+	assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Checks if empty trie iterator throws the exception
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void wordsMethodExceptionThrowOnEmptyTrieTest() {
+	new PersistentTrie(new EnglishAlphabet()).words().iterator().next();
+    }
+
+    /**
+     * Checks that iterator walks the snapshot taken when it was created
+     */
+    @Test
+    public void iteratorSnapshotTest() {
+	Iterator<String> iter = trie.wordsWithPrefix("en").iterator();
+
+	assertEquals(iter.next(), "en");
+	assertTrue(trie.delete("ends"));
+	trie.add(new Tuple("enter", 5));
+
+	assertEquals(iter.next(), "end");
+	assertEquals(iter.next(), "ends");
+	assertEquals(iter.next(), "ended");
+	assertFalse(iter.hasNext());
+
+	assertFalse(trie.contains("ends"));
+	assertTrue(trie.contains("enter"));
+    }
+
+    /**
+     * Checks that readers see consistent snapshots while writers change the
+     * trie
+     */
+    @Test
+    public void concurrentReadersAndWritersTest() throws InterruptedException {
+	AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+	List<Thread> threads = new ArrayList<Thread>();
+
+	for (int t = 0; t < 2; t++) {
+	    String suffix = t == 0 ? "x" : "y";
+
+	    threads.add(new Thread(new Runnable() {
+
+		@Override
+		public void run() {
+		    for (int i = 0; i < 2000; i++) {
+			String word = "en" + suffix + (char) ('a' + i % 26);
+
+			if (i % 3 == 2) {
+			    trie.delete(word);
+			} else {
+			    trie.add(new Tuple(word, 1));
+			}
+		    }
+		}
+
+	    }));
+	}
+
+	for (int t = 0; t < 2; t++) {
+	    threads.add(new Thread(new Runnable() {
+
+		@Override
+		public void run() {
+		    try {
+			for (int i = 0; i < 500; i++) {
+			    int length = 0;
+
+			    for (String word : trie.wordsWithPrefix("en")) {
+				assertTrue(word.startsWith("en"));
+				assertTrue(word.length() >= length);
+				length = word.length();
+			    }
+
+			    for (String word : WORDS) {
+				assertTrue(trie.contains(word));
+			    }
+			}
+		    } catch (Throwable e) {
+			failure.set(e);
+		    }
+		}
+
+	    }));
+	}
+
+	for (Thread thread : threads) {
+	    thread.start();
+	}
+
+	for (Thread thread : threads) {
+	    thread.join();
+	}
+
+	assertNull(failure.get());
+
+	int count = 0;
+
+	for (Iterator<String> iter = trie.words().iterator(); iter.hasNext(); iter.next()) {
+	    count++;
+	}
+
+	assertEquals(trie.size(), count);
+    }
+
+}
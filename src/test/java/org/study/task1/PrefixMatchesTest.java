@@ -1,375 +1,685 @@
-package org.study.task1;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
-
-import java.util.Iterator;
-import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.TreeSet;
-import org.junit.Before;
-import org.junit.Test;
-import org.junit.runner.RunWith;
-
-import static org.mockito.Mockito.*;
-
-import org.mockito.ArgumentMatcher;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.runners.MockitoJUnitRunner;
-import org.study.task1.trie.RWayTrie;
-import org.study.task1.trie.Trie;
-import org.study.task1.trie.alphabet.EnglishAlphabet;
-import org.study.task1.trie.tuple.Tuple;
-
-/**
- * Class for testing of PrefixMatches table
- * 
- * @author Andrii_Lehuta
- *
- */
-@RunWith(MockitoJUnitRunner.class)
-public class PrefixMatchesTest {
-
-    private static final String AUX_STRING = "aaaaaaaaaaaaaaaaaa";
-    private PrefixMatches dictionary;
-
-    @Mock
-    private Trie mockTrie;
-
-    @InjectMocks
-    private PrefixMatches mockPrefixMatches;
-
-    /**
-     * Fill table for every test
-     */
-    @Before
-    public void trieInit() {
-	dictionary = new PrefixMatches(new RWayTrie(new EnglishAlphabet()));
-    }
-
-    /**
-     * Test if PrefixMatches calls trie add method fixed number of times
-     */
-    @Test
-    public void prefixMatchesAddMehtodCallsTrieAddThreeTimes() {
-	mockPrefixMatches.add("one", "two", "three");
-	verify(mockTrie, times(3)).add((Tuple) argThat(new ArgumentMatcher<Tuple>() {
-	    public boolean matches(Object list) {
-		return list.getClass().equals(Tuple.class);
-	    }
-	}));
-    }
-
-    /**
-     * Checks add method of PrefixMatches by filling it with prepared words
-     */
-    @Test
-    public void addMethodOnGroupOfWordsTest() {
-
-	int expectedSize = 7;
-	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
-
-	assertEquals(dictionary.size(), expectedSize);
-    }
-
-    /**
-     * Checks add method of PrefixMatches by adding one word
-     */
-    @Test
-    public void addMethodOneWordTest() {
-
-	int expectedSize = 1;
-	dictionary.add("associated");
-
-	assertEquals(dictionary.size(), expectedSize);
-    }
-
-    /**
-     * Checks add method of PrefixMatches by adding empty string
-     */
-    @Test
-    public void addMethodEmptyStringTest() {
-
-	int expectedSize = 0;
-	dictionary.add("");
-
-	assertEquals(dictionary.size(), expectedSize);
-    }
-
-    /**
-     * Checks delete method of PrefixMatches by filling it with prepared words
-     * and tries to delete existing words
-     */
-    @Test
-    public void deleteMethodOnExistingWordsTest() {
-
-	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
-
-	Set<String> testWords = new TreeSet<String>() {
-	    {
-		add("associated");
-		add("drill");
-		add("drink");
-		add("spelling");
-		add("respond");
-		add("seriousness");
-		add("singers");
-	    }
-	};
-
-	for (String word : testWords) {
-	    assertTrue(dictionary.delete(word));
-	}
-
-	assertEquals(dictionary.size(), 0);
-
-    }
-
-    /**
-     * Checks delete method of PrefixMatches on one word
-     */
-    @Test
-    public void deleteMethodOnOneWordTest() {
-
-	String word = "associated";
-
-	dictionary.add(word);
-
-	assertTrue(dictionary.delete(word));
-
-	assertEquals(dictionary.size(), 0);
-
-    }
-
-    /**
-     * Checks delete method of PrefixMatches by filling it with prepared words
-     * and tries to delete non existing words
-     */
-    @Test
-    public void deleteMethodOnNonExistingWordsTest() {
-
-	int expectedSize = 7;
-	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
-
-	Set<String> testWords = new TreeSet<String>() {
-	    {
-		add("associated");
-		add("drill");
-		add("drink");
-		add("spelling");
-		add("respond");
-		add("seriousness");
-		add("singers");
-	    }
-	};
-
-	for (String word : testWords) {
-	    assertFalse(dictionary.delete(word + AUX_STRING));
-	}
-
-	assertEquals(dictionary.size(), expectedSize);
-
-    }
-
-    /**
-     * Checks contains method of PrefixMatches on one word
-     */
-    @Test
-    public void containsMethodOnOneWordTest() {
-
-	String word = "associated";
-
-	dictionary.add(word);
-
-	assertTrue(dictionary.contains(word));
-
-    }
-
-    /**
-     * Checks contains method of PrefixMatches on empty line
-     */
-    @Test
-    public void containsMethodOnEmptylineTest() {
-
-	String word = "";
-
-	dictionary.add(word);
-
-	assertFalse(dictionary.contains(word));
-
-    }
-
-    /**
-     * Checks contains method of PrefixMatches by filling it with prepared words
-     * and testing if word exist in table
-     */
-    @Test
-    public void containsMethodOnExistingWordsTest() {
-
-	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
-
-	Set<String> testWords = new TreeSet<String>() {
-	    {
-		add("associated");
-		add("drill");
-		add("drink");
-		add("spelling");
-		add("respond");
-		add("seriousness");
-		add("singers");
-	    }
-	};
-
-	for (String word : testWords) {
-	    assertTrue(dictionary.contains(word));
-	}
-
-    }
-
-    /**
-     * Checks contains method of PrefixMatches by filling it with prepared words
-     * and testing if existing and non existing word exist
-     */
-    @Test
-    public void containsMethodOnNonExistingWordsTest() {
-
-	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
-
-	Set<String> testWords = new TreeSet<String>() {
-	    {
-		add("associated");
-		add("drill");
-		add("drink");
-		add("spelling");
-		add("respond");
-		add("seriousness");
-		add("singers");
-	    }
-	};
-
-	for (String word : testWords) {
-	    assertFalse(dictionary.contains(word + AUX_STRING));
-	}
-    }
-
-    /**
-     * Checks wordWithPrefix method of PrefixMatches by filling it with prepared
-     * words and testing if the size of batch of words with specified prefix is
-     * correct
-     */
-    @Test
-    public void wordWithPrefixMethodGroupSizeTest() {
-
-	int counter = 0;
-	int expectedNumberOfWords = 7;
-
-	String prefix = "en";
-	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy", "enable", "ending", "enabled", "endless",
-		"endowed", "encamped", "enclosed", "encoding");
-
-	for (String word : dictionary.wordsWithPrefix(prefix, 4)) {
-	    counter++;
-	}
-
-	assertTrue(counter == expectedNumberOfWords);
-    }
-
-    /**
-     * Checks wordWithPrefix method of PrefixMatches with zero k parameter
-     */
-    @Test
-    public void wordWithPrefixMethodZeroKTest() {
-	String prefix = "en";
-	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy", "enable", "ending", "enabled", "endless",
-		"endowed", "encamped", "enclosed", "encoding");
-
-	Iterator<String> iterator = dictionary.wordsWithPrefix(prefix, 0).iterator();
-
-	assertFalse(iterator.hasNext());
-    }
-
-    /**
-     * Checks wordWithPrefix method of PrefixMatches with small prefix
-     */
-    @Test
-    public void wordWithPrefixMethodSmallPrefixTest() {
-	String prefix = "e";
-	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy", "enable", "ending", "enabled", "endless",
-		"endowed", "encamped", "enclosed", "encoding");
-
-	Iterator<String> iterator = dictionary.wordsWithPrefix(prefix).iterator();
-
-	assertFalse(iterator.hasNext());
-    }
-
-    /**
-     * Checks wordWithPrefix method of PrefixMatches by filling it with prepared
-     * words and testing if the returned words are correct
-     */
-    @Test
-    public void wordWithPrefixMethodWordsCheckTest() {
-
-	String prefix = "en";
-	String[] expectedWords = { "en", "end", "ends", "envy", "ended", "entry", "envoy" };
-
-	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy", "enable", "ending", "enabled", "endless",
-		"endowed", "encamped", "enclosed", "encoding");
-
-	Iterator<String> iter = dictionary.wordsWithPrefix(prefix, 4).iterator();
-	assertEquals(iter.next(), expectedWords[0]);
-	assertEquals(iter.next(), expectedWords[1]);
-	assertEquals(iter.next(), expectedWords[2]);
-	assertEquals(iter.next(), expectedWords[3]);
-	assertEquals(iter.next(), expectedWords[4]);
-	assertEquals(iter.next(), expectedWords[5]);
-	assertEquals(iter.next(), expectedWords[6]);
-
-    }
-
-    /**
-     * Check if dictionary throws exception if it is empty
-     */
-    @Test(expected = NoSuchElementException.class)
-    public void wordWithPrefixMethodExceptionTest() {
-
-	Iterator<String> iter = dictionary.wordsWithPrefix("any").iterator();
-
-	iter.next();
-
-    }
-
-    /**
-     * Checks wordWithPrefix iterator on group of words
-     */
-    @Test
-    public void iteratorOnGroupOfWordsCheckTest() {
-
-	String[] expectedWords = { "en", "end", "ends", "envy", "ended", "entry", "envoy" };
-
-	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy");
-
-	Iterator<String> iter = dictionary.iterator();
-	assertEquals(iter.next(), expectedWords[0]);
-	assertEquals(iter.next(), expectedWords[1]);
-	assertEquals(iter.next(), expectedWords[2]);
-	assertEquals(iter.next(), expectedWords[3]);
-	assertEquals(iter.next(), expectedWords[4]);
-	assertEquals(iter.next(), expectedWords[5]);
-	assertEquals(iter.next(), expectedWords[6]);
-
-    }
-
-    /**
-     * Checks wordWithPrefix iterator on empty dictionary
-     */
-    @Test(expected = NoSuchElementException.class)
-    public void iteratorOnEmptyTest() {
-
-	Iterator<String> iter = dictionary.iterator();
-	iter.next();
-
-    }
-
-}
+package org.study.task1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.mockito.Mockito.*;
+
+import org.mockito.ArgumentMatcher;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.study.task1.PrefixMatches.Session;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.TernarySearchTrie;
+import org.study.task1.trie.Trie;
+import org.study.task1.trie.WordVisitor;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of PrefixMatches table
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PrefixMatchesTest {
+
+    private static final String AUX_STRING = "aaaaaaaaaaaaaaaaaa";
+    private PrefixMatches dictionary;
+
+    @Mock
+    private Trie mockTrie;
+
+    @InjectMocks
+    private PrefixMatches mockPrefixMatches;
+
+    /**
+     * Fill table for every test
+     */
+    @Before
+    public void trieInit() {
+	dictionary = new PrefixMatches(new RWayTrie(new EnglishAlphabet()));
+    }
+
+    /**
+     * Test if PrefixMatches calls trie add method fixed number of times
+     */
+    @Test
+    public void prefixMatchesAddMehtodCallsTrieAddThreeTimes() {
+	mockPrefixMatches.add("one", "two", "three");
+	verify(mockTrie, times(3)).add((Tuple) argThat(new ArgumentMatcher<Tuple>() {
+	    public boolean matches(Object list) {
+		return list.getClass().equals(Tuple.class);
+	    }
+	}));
+    }
+
+    /**
+     * Checks add method of PrefixMatches by filling it with prepared words
+     */
+    @Test
+    public void addMethodOnGroupOfWordsTest() {
+
+	int expectedSize = 7;
+	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
+
+	assertEquals(dictionary.size(), expectedSize);
+    }
+
+    /**
+     * Checks add method of PrefixMatches by adding one word
+     */
+    @Test
+    public void addMethodOneWordTest() {
+
+	int expectedSize = 1;
+	dictionary.add("associated");
+
+	assertEquals(dictionary.size(), expectedSize);
+    }
+
+    /**
+     * Checks that words out of alphabet are skipped while the rest of text is
+     * added
+     */
+    @Test
+    public void addMethodUnmappedWordsTest() {
+	assertEquals(dictionary.add("It's a sunny day, 25 degrees in the shade"), 5);
+	assertTrue(dictionary.contains("sunny"));
+	assertFalse(dictionary.contains("day,"));
+	assertFalse(dictionary.wordsWithPrefix("De").iterator().hasNext());
+    }
+
+    /**
+     * Checks add method of PrefixMatches by adding empty string
+     */
+    @Test
+    public void addMethodEmptyStringTest() {
+
+	int expectedSize = 0;
+	dictionary.add("");
+
+	assertEquals(dictionary.size(), expectedSize);
+    }
+
+    /**
+     * Checks delete method of PrefixMatches by filling it with prepared words
+     * and tries to delete existing words
+     */
+    @Test
+    public void deleteMethodOnExistingWordsTest() {
+
+	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
+
+	Set<String> testWords = new TreeSet<String>() {
+	    {
+		add("associated");
+		add("drill");
+		add("drink");
+		add("spelling");
+		add("respond");
+		add("seriousness");
+		add("singers");
+	    }
+	};
+
+	for (String word : testWords) {
+	    assertTrue(dictionary.delete(word));
+	}
+
+	assertEquals(dictionary.size(), 0);
+
+    }
+
+    /**
+     * Checks delete method of PrefixMatches on one word
+     */
+    @Test
+    public void deleteMethodOnOneWordTest() {
+
+	String word = "associated";
+
+	dictionary.add(word);
+
+	assertTrue(dictionary.delete(word));
+
+	assertEquals(dictionary.size(), 0);
+
+    }
+
+    /**
+     * Checks delete method of PrefixMatches by filling it with prepared words
+     * and tries to delete non existing words
+     */
+    @Test
+    public void deleteMethodOnNonExistingWordsTest() {
+
+	int expectedSize = 7;
+	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
+
+	Set<String> testWords = new TreeSet<String>() {
+	    {
+		add("associated");
+		add("drill");
+		add("drink");
+		add("spelling");
+		add("respond");
+		add("seriousness");
+		add("singers");
+	    }
+	};
+
+	for (String word : testWords) {
+	    assertFalse(dictionary.delete(word + AUX_STRING));
+	}
+
+	assertEquals(dictionary.size(), expectedSize);
+
+    }
+
+    /**
+     * Checks contains method of PrefixMatches on one word
+     */
+    @Test
+    public void containsMethodOnOneWordTest() {
+
+	String word = "associated";
+
+	dictionary.add(word);
+
+	assertTrue(dictionary.contains(word));
+
+    }
+
+    /**
+     * Checks contains method of PrefixMatches on empty line
+     */
+    @Test
+    public void containsMethodOnEmptylineTest() {
+
+	String word = "";
+
+	dictionary.add(word);
+
+	assertFalse(dictionary.contains(word));
+
+    }
+
+    /**
+     * Checks contains method of PrefixMatches by filling it with prepared words
+     * and testing if word exist in table
+     */
+    @Test
+    public void containsMethodOnExistingWordsTest() {
+
+	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
+
+	Set<String> testWords = new TreeSet<String>() {
+	    {
+		add("associated");
+		add("drill");
+		add("drink");
+		add("spelling");
+		add("respond");
+		add("seriousness");
+		add("singers");
+	    }
+	};
+
+	for (String word : testWords) {
+	    assertTrue(dictionary.contains(word));
+	}
+
+    }
+
+    /**
+     * Checks contains method of PrefixMatches by filling it with prepared words
+     * and testing if existing and non existing word exist
+     */
+    @Test
+    public void containsMethodOnNonExistingWordsTest() {
+
+	dictionary.add("associated", "drill", "drink", "spelling", "respond", "seriousness", "singers");
+
+	Set<String> testWords = new TreeSet<String>() {
+	    {
+		add("associated");
+		add("drill");
+		add("drink");
+		add("spelling");
+		add("respond");
+		add("seriousness");
+		add("singers");
+	    }
+	};
+
+	for (String word : testWords) {
+	    assertFalse(dictionary.contains(word + AUX_STRING));
+	}
+    }
+
+    /**
+     * Checks wordWithPrefix method of PrefixMatches by filling it with prepared
+     * words and testing if the size of batch of words with specified prefix is
+     * correct
+     */
+    @Test
+    public void wordWithPrefixMethodGroupSizeTest() {
+
+	int counter = 0;
+	int expectedNumberOfWords = 7;
+
+	String prefix = "en";
+	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy", "enable", "ending", "enabled", "endless",
+		"endowed", "encamped", "enclosed", "encoding");
+
+	for (String word : dictionary.wordsWithPrefix(prefix, 4)) {
+	    counter++;
+	}
+
+	assertTrue(counter == expectedNumberOfWords);
+    }
+
+    /**
+     * Checks wordWithPrefix method of PrefixMatches with zero k parameter
+     */
+    @Test
+    public void wordWithPrefixMethodZeroKTest() {
+	String prefix = "en";
+	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy", "enable", "ending", "enabled", "endless",
+		"endowed", "encamped", "enclosed", "encoding");
+
+	Iterator<String> iterator = dictionary.wordsWithPrefix(prefix, 0).iterator();
+
+	assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Checks wordWithPrefix method of PrefixMatches with small prefix
+     */
+    @Test
+    public void wordWithPrefixMethodSmallPrefixTest() {
+	String prefix = "e";
+	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy", "enable", "ending", "enabled", "endless",
+		"endowed", "encamped", "enclosed", "encoding");
+
+	Iterator<String> iterator = dictionary.wordsWithPrefix(prefix).iterator();
+
+	assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Checks wordWithPrefix method of PrefixMatches by filling it with prepared
+     * words and testing if the returned words are correct
+     */
+    @Test
+    public void wordWithPrefixMethodWordsCheckTest() {
+
+	String prefix = "en";
+	String[] expectedWords = { "en", "end", "ends", "envy", "ended", "entry", "envoy" };
+
+	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy", "enable", "ending", "enabled", "endless",
+		"endowed", "encamped", "enclosed", "encoding");
+
+	Iterator<String> iter = dictionary.wordsWithPrefix(prefix, 4).iterator();
+	assertEquals(iter.next(), expectedWords[0]);
+	assertEquals(iter.next(), expectedWords[1]);
+	assertEquals(iter.next(), expectedWords[2]);
+	assertEquals(iter.next(), expectedWords[3]);
+	assertEquals(iter.next(), expectedWords[4]);
+	assertEquals(iter.next(), expectedWords[5]);
+	assertEquals(iter.next(), expectedWords[6]);
+
+    }
+
+    /**
+     * Check if dictionary throws exception if it is empty
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void wordWithPrefixMethodExceptionTest() {
+
+	Iterator<String> iter = dictionary.wordsWithPrefix("any").iterator();
+
+	iter.next();
+
+    }
+
+    /**
+     * Checks wordWithPrefix iterator on group of words
+     */
+    @Test
+    public void iteratorOnGroupOfWordsCheckTest() {
+
+	String[] expectedWords = { "en", "end", "ends", "envy", "ended", "entry", "envoy" };
+
+	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy");
+
+	Iterator<String> iter = dictionary.iterator();
+	assertEquals(iter.next(), expectedWords[0]);
+	assertEquals(iter.next(), expectedWords[1]);
+	assertEquals(iter.next(), expectedWords[2]);
+	assertEquals(iter.next(), expectedWords[3]);
+	assertEquals(iter.next(), expectedWords[4]);
+	assertEquals(iter.next(), expectedWords[5]);
+	assertEquals(iter.next(), expectedWords[6]);
+
+    }
+
+    /**
+     * Checks wordWithPrefix iterator on empty dictionary
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void iteratorOnEmptyTest() {
+
+	Iterator<String> iter = dictionary.iterator();
+	iter.next();
+
+    }
+
+    /**
+     * Checks add method of PrefixMatches with weighted words
+     */
+    @Test
+    public void addMethodOnTuplesTest() {
+
+	int expectedSize = 2;
+
+	assertEquals(dictionary.add(new Tuple("the", 100), new Tuple("a", 50), new Tuple("them", 60)), expectedSize);
+	assertEquals(dictionary.size(), expectedSize);
+    }
+
+    /**
+     * Checks topK method of PrefixMatches orders words by weight
+     */
+    @Test
+    public void topKMethodTest() {
+
+	dictionary = new PrefixMatches(new RWayTrie(new EnglishAlphabet(), 2));
+	dictionary.add(new Tuple("the", 100), new Tuple("they", 40), new Tuple("them", 60), new Tuple("then", 50));
+
+	assertEquals(dictionary.topK("th", 2), Arrays.asList("the", "them"));
+	assertEquals(dictionary.topK("th", 3), Arrays.asList("the", "them", "then"));
+	assertTrue(dictionary.topK("t", 2).isEmpty());
+    }
+
+    /**
+     * Checks that forEachWithPrefix method of PrefixMatches visits the same k
+     * groups of words as wordsWithPrefix method
+     */
+    @Test
+    public void forEachWithPrefixMethodTest() {
+	dictionary.add("en", "end", "ends", "envy", "ended", "entry", "envoy", "enable", "ending", "enabled", "endless",
+		"endowed", "encamped", "enclosed", "encoding");
+
+	for (int k = 0; k <= 6; k++) {
+	    List<String> expected = new ArrayList<String>();
+	    List<String> visited = new ArrayList<String>();
+
+	    for (String word : dictionary.wordsWithPrefix("en", k)) {
+		expected.add(word);
+	    }
+
+	    dictionary.forEachWithPrefix("en", k, new WordVisitor() {
+
+		@Override
+		public boolean visit(char[] word, int length, long weight) {
+		    visited.add(new String(word, 0, length));
+		    return true;
+		}
+
+	    });
+
+	    assertEquals(expected, visited);
+	}
+
+	List<String> visited = new ArrayList<String>();
+	dictionary.forEachWithPrefix("e", new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		visited.add(new String(word, 0, length));
+		return true;
+	    }
+
+	});
+
+	assertTrue(visited.isEmpty());
+    }
+
+    /**
+     * Checks that cached results are the same as walked ones and that changes
+     * of trie invalidate them
+     */
+    @Test
+    public void wordsWithPrefixCacheTest() {
+	PrefixMatches cached = PrefixMatches.withCache(new RWayTrie(new EnglishAlphabet()), 2);
+	String[] words = { "en", "end", "ends", "envy", "ended", "entry", "drill", "drink", "drinks" };
+	dictionary.add(words);
+	cached.add(words);
+
+	for (int i = 0; i < 2; i++) {
+	    for (int k = 1; k <= 2; k++) {
+		assertEquals(list(dictionary.wordsWithPrefix("en", k)), list(cached.wordsWithPrefix("en", k)));
+	    }
+	}
+
+	assertEquals(cached.cacheMisses(), 2);
+	assertEquals(cached.cacheHits(), 2);
+
+	assertEquals(list(cached.wordsWithPrefix("en", 2)), Arrays.asList("en", "end"));
+	cached.delete("end");
+	assertEquals(list(cached.wordsWithPrefix("en", 2)), Arrays.asList("en", "ends", "envy"));
+	cached.add("enemy");
+	assertEquals(list(cached.wordsWithPrefix("dr")), Arrays.asList("drill", "drink", "drinks"));
+	assertEquals(list(cached.wordsWithPrefix("en")), Arrays.asList("en", "ends", "envy", "ended", "enemy", "entry"));
+	assertEquals(list(cached.wordsWithPrefix("dr")), Arrays.asList("drill", "drink", "drinks"));
+
+	assertEquals(cached.cacheHits(), 4);
+	assertEquals(cached.cacheMisses(), 5);
+
+	cached.wordsWithPrefix("en", 1).iterator();
+	cached.wordsWithPrefix("en").iterator();
+
+	assertEquals(cached.cacheMisses(), 7);
+	assertEquals(dictionary.cacheHits(), 0);
+    }
+
+    /**
+     * Checks fuzzy search on mistyped prefixes
+     */
+    @Test
+    public void fuzzyWordsWithPrefixMethodTest() {
+	dictionary.add("en", "end", "ends", "envy", "entry", "drill");
+
+	assertEquals(dictionary.fuzzyWordsWithPrefix("edn", 1, 3), Arrays.asList("entry", "ends", "envy"));
+	assertEquals(dictionary.fuzzyWordsWithPrefix("dril", 0, 3), Arrays.asList("drill"));
+	assertEquals(dictionary.fuzzyWordsWithPrefix("drl", 1, 3), Arrays.asList("drill"));
+	assertTrue(dictionary.fuzzyWordsWithPrefix("d", 1, 3).isEmpty());
+    }
+
+    /**
+     * Checks that every keystroke of session returns the same words as
+     * wordsWithPrefix method on RWayTrie cursor and on default cursor
+     */
+    @Test
+    public void sessionMethodTest() {
+	String[] words = { "en", "end", "ends", "envy", "ended", "entry", "ending", "endless", "drill", "drink" };
+
+	for (PrefixMatches matches : Arrays.asList(dictionary,
+		new PrefixMatches(new TernarySearchTrie(new EnglishAlphabet())))) {
+	    matches.add(words);
+	    Session session = matches.session(2);
+
+	    assertTrue(session.extend('e').isEmpty());
+	    assertEquals(session.extend('n'), list(matches.wordsWithPrefix("en", 2)));
+	    assertEquals(session.extend('d'), Arrays.asList("end", "ends"));
+	    assertEquals(session.extend('l'), Arrays.asList("endless"));
+	    assertTrue(session.extend('x').isEmpty());
+	    assertTrue(session.extend('y').isEmpty());
+	    assertTrue(session.backspace().isEmpty());
+	    assertEquals(session.backspace(), Arrays.asList("endless"));
+	    assertEquals(session.backspace(), Arrays.asList("end", "ends"));
+
+	    matches.delete("ends");
+	    matches.add("endow");
+	    assertEquals(session.matches(), Arrays.asList("end", "ended", "endow"));
+	    assertEquals(session.extend('i'), Arrays.asList("ending"));
+	    assertEquals(session.prefix(), "endi");
+
+	    for (int i = 0; i < 5; i++) {
+		session.backspace();
+	    }
+
+	    assertEquals(session.prefix(), "");
+	    assertEquals(session.extend('d'), Arrays.asList());
+	    assertEquals(session.extend('r'), Arrays.asList("drill", "drink"));
+	}
+    }
+
+    /**
+     * Checks that completeAll method returns the same words as wordsWithPrefix
+     * method in the order of prefixes
+     */
+    @Test
+    public void completeAllMethodTest() {
+	dictionary.add("associated", "drill", "drink", "driven", "spelling", "respond", "seriousness", "singers");
+	List<String> prefixes = Arrays.asList("dr", "s", "se", "xyz", "dr", "as");
+	ExecutorService executor = Executors.newFixedThreadPool(3);
+
+	try {
+	    List<List<String>> result = dictionary.completeAll(prefixes, 2, executor);
+
+	    assertEquals(result.size(), prefixes.size());
+
+	    for (int i = 0; i < prefixes.size(); i++) {
+		assertEquals(result.get(i), list(dictionary.wordsWithPrefix(prefixes.get(i), 2)));
+	    }
+	} finally {
+	    executor.shutdown();
+	}
+
+	assertEquals(dictionary.completeAll(prefixes, 1).get(0), Arrays.asList("drill", "drink"));
+	assertTrue(dictionary.completeAll(new ArrayList<String>(), 3).isEmpty());
+    }
+
+    /**
+     * Checks that a cache split into segments keeps results of parallel
+     * completeAll calls and counts their hits and misses
+     */
+    @Test
+    public void completeAllMethodCacheTest() {
+	PrefixMatches cached = PrefixMatches.withCache(new RWayTrie(new EnglishAlphabet()), 1024);
+	String[] words = { "associated", "drill", "drink", "driven", "spelling", "respond", "seriousness", "singers" };
+	List<String> prefixes = new ArrayList<String>();
+	dictionary.add(words);
+	cached.add(words);
+
+	for (char first = 'a'; first < 'i'; first++) {
+	    for (char second = 'a'; second < 'z'; second++) {
+		prefixes.add("" + first + second);
+	    }
+	}
+
+	prefixes.addAll(Arrays.asList("dri", "se", "sp", "re"));
+	ExecutorService executor = Executors.newFixedThreadPool(3);
+
+	try {
+	    for (int i = 0; i < 2; i++) {
+		List<List<String>> result = cached.completeAll(prefixes, 2, executor);
+
+		for (int j = 0; j < prefixes.size(); j++) {
+		    assertEquals(result.get(j), list(dictionary.wordsWithPrefix(prefixes.get(j), 2)));
+		}
+	    }
+	} finally {
+	    executor.shutdown();
+	}
+
+	assertEquals(cached.cacheMisses(), prefixes.size());
+	assertEquals(cached.cacheHits(), prefixes.size());
+    }
+
+    /**
+     * Checks that completeAll method finds words again while the version of
+     * trie changes and gives up after three attempts
+     */
+    @Test
+    public void completeAllMethodVersionTest() {
+	when(mockTrie.wordsWithPrefix(anyString(), anyInt())).thenReturn(Arrays.asList("ab"));
+	when(mockTrie.version()).thenReturn(1L, 2L, 3L, 3L);
+
+	assertEquals(mockPrefixMatches.completeAll(Arrays.asList("ab", "ab"), 1),
+		Arrays.asList(Arrays.asList("ab"), Arrays.asList("ab")));
+	verify(mockTrie, times(4)).wordsWithPrefix("ab", 1);
+
+	when(mockTrie.version()).thenReturn(4L, 5L, 6L, 7L, 8L, 9L);
+
+	try {
+	    mockPrefixMatches.completeAll(Arrays.asList("ab"), 1);
+	    fail();
+	} catch (ConcurrentModificationException e) {
+	    verify(mockTrie, times(7)).wordsWithPrefix("ab", 1);
+	}
+    }
+
+    /**
+     * Checks that completeAll method finds words again when a walk of trie
+     * fails with ConcurrentModificationException, both in the calling thread
+     * and in a task, and passes other exceptions through
+     */
+    @Test
+    public void completeAllMethodConcurrentModificationTest() {
+	ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	when(mockTrie.version()).thenReturn(1L);
+	when(mockTrie.wordsWithPrefix("ab", 1)).thenThrow(new ConcurrentModificationException())
+		.thenReturn(Arrays.asList("ab"));
+	when(mockTrie.wordsWithPrefix("cd", 1)).thenThrow(new ConcurrentModificationException())
+		.thenReturn(Arrays.asList("cd"));
+
+	try {
+	    assertEquals(mockPrefixMatches.completeAll(Arrays.asList("ab", "cd"), 1, executor),
+		    Arrays.asList(Arrays.asList("ab"), Arrays.asList("cd")));
+
+	    when(mockTrie.wordsWithPrefix("cd", 1)).thenThrow(new IllegalStateException());
+
+	    try {
+		mockPrefixMatches.completeAll(Arrays.asList("ab", "cd"), 1, executor);
+		fail();
+	    } catch (IllegalStateException e) {
+		verify(mockTrie, times(3)).wordsWithPrefix("cd", 1);
+	    }
+	} finally {
+	    executor.shutdown();
+	}
+    }
+
+    private static List<String> list(Iterable<String> words) {
+	List<String> list = new ArrayList<String>();
+
+	for (String word : words) {
+	    list.add(word);
+	}
+
+	return list;
+    }
+
+}
@@ -2,14 +2,28 @@ package org.study.task1;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
 import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.TrieStats;
+import org.study.task1.trie.TernarySearchTrie;
+import org.study.task1.trie.TrieCursor;
+import org.study.task1.trie.WordVisitor;
 import org.study.task1.trie.alphabet.EnglishAlphabet;
 import org.study.task1.trie.tuple.Tuple;
 
@@ -75,6 +89,117 @@ public class RWayTrieTest {
 	assertEquals(trie.size(), oldSize);
     }
 
+    /**
+     * Checks that words with characters out of alphabet are skipped by every
+     * method of RWayTrie without exceptions
+     */
+    @Test
+    public void unmappedWordsTest() {
+	List<Tuple> tuples = Arrays.asList(new Tuple("Hello", 1), new Tuple("world", 2), new Tuple("it's", 3),
+		new Tuple("r2d2", 4), new Tuple("word", 5));
+
+	for (Tuple tuple : tuples) {
+	    trie.add(tuple);
+	}
+
+	RWayTrie sorted = new RWayTrie(new EnglishAlphabet(), 2);
+	sorted.addSorted(tuples);
+	RWayTrie grouped = new RWayTrie(new EnglishAlphabet());
+	grouped.addAll(tuples);
+	RWayTrie parallel = new RWayTrie(new EnglishAlphabet());
+	parallel.addParallel(tuples);
+
+	for (RWayTrie loaded : Arrays.asList(trie, sorted, grouped, parallel)) {
+	    assertEquals(loaded.size(), 2);
+	    assertEquals(loaded.topK("wor", 3), Arrays.asList("word", "world"));
+	    assertFalse(loaded.contains("Hello"));
+	    assertEquals(loaded.weight("it's"), 0);
+	    assertFalse(loaded.wordsWithPrefix("W").iterator().hasNext());
+	    assertFalse(loaded.delete("r2d2"));
+	}
+
+	TrieCursor cursor = trie.cursor();
+	cursor.extend('W');
+	final List<String> found = new ArrayList<String>();
+	WordVisitor visitor = new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		found.add(new String(word, 0, length));
+		return true;
+	    }
+
+	};
+
+	cursor.forEachWord(Integer.MAX_VALUE, visitor);
+	assertTrue(found.isEmpty());
+
+	cursor.backspace();
+	cursor.extend('w');
+	cursor.forEachWord(Integer.MAX_VALUE, visitor);
+	assertEquals(found, Arrays.asList("word", "world"));
+    }
+
+    /**
+     * Checks nodes, fill of child arrays, depths, chains and size of a walk
+     * of the trie
+     */
+    @Test
+    public void statsMethodTest() {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	trie.add(new Tuple("ab", 1));
+	trie.add(new Tuple("abc", 2));
+	trie.add(new Tuple("b", 3));
+
+	TrieStats stats = trie.stats();
+
+	assertEquals(stats.getWords(), 3);
+	assertEquals(stats.getNodes(), 5);
+	assertArrayEquals(stats.getFillHistogram(), new int[] { 5, 0, 0, 0, 0, 0, 0, 0, 0, 0 });
+	assertArrayEquals(stats.getDepthHistogram(), new int[] { 1, 2, 1, 1 });
+	assertEquals(stats.getChains(), 1);
+	assertEquals(stats.getChainNodes(), 1);
+	assertEquals(stats.getBytes(), 5 * (48 + 120));
+
+	RWayTrie ranked = new RWayTrie(new EnglishAlphabet(), 1);
+	ranked.add(new Tuple("ab", 1));
+	ranked.add(new Tuple("abc", 2));
+	ranked.add(new Tuple("b", 3));
+
+	assertTrue(ranked.stats().getBytes() > stats.getBytes());
+	assertEquals(new RWayTrie(new EnglishAlphabet()).stats().getNodes(), 1);
+    }
+
+    /**
+     * Checks that words with zero and 64-bit weights are present and keep
+     * their weights, also in caches of the heaviest words
+     */
+    @Test
+    public void longWeightsTest() {
+	RWayTrie ranked = new RWayTrie(new EnglishAlphabet(), 2);
+
+	for (RWayTrie loaded : Arrays.asList(trie, ranked)) {
+	    loaded.add("zero", 0);
+	    loaded.add(new StringBuilder("zest"), 5627187200L);
+	    loaded.add(new Tuple("zen", 3000000000L));
+
+	    assertEquals(loaded.size(), 3);
+	    assertTrue(loaded.contains("zero"));
+	    assertFalse(loaded.contains("ze"));
+	    assertEquals(loaded.weight("zero"), 0);
+	    assertEquals(loaded.weight("zest"), 5627187200L);
+	    assertEquals(loaded.topK("ze", 3), Arrays.asList("zest", "zen", "zero"));
+
+	    loaded.add("zest", 0);
+	    assertEquals(loaded.size(), 3);
+	    assertEquals(loaded.topK("ze", 2), Arrays.asList("zen", "zero"));
+
+	    assertTrue(loaded.delete("zero"));
+	    assertFalse(loaded.contains("zero"));
+	    assertEquals(loaded.size(), 2);
+	}
+    }
+
     /**
      * Checks add method of RWayTrie with same word
      */
@@ -176,6 +301,109 @@ public class RWayTrieTest {
 
     }
 
+    /**
+     * Checks that deleteWithPrefix removes the whole subtree of the prefix
+     * and keeps size, words and nodes of the rest of trie
+     */
+    @Test
+    public void deleteWithPrefixMethodTest() {
+	for (String word : new String[] { "en", "end", "ends", "ended", "envy", "e", "drill", "drink" }) {
+	    trie.add(new Tuple(word, 1));
+	}
+
+	assertEquals(trie.deleteWithPrefix("x"), 0);
+	assertEquals(trie.deleteWithPrefix("endless"), 0);
+	assertEquals(trie.deleteWithPrefix("end"), 3);
+	assertEquals(trie.size(), 5);
+	assertEquals(list(trie.words()), Arrays.asList("e", "en", "envy", "drill", "drink"));
+	assertEquals(trie.nodeCount(), 12);
+	assertEquals(trie.deleteWithPrefix("e"), 3);
+	assertEquals(list(trie.wordsWithPrefix("dri", 1)), Arrays.asList("drill", "drink"));
+	assertEquals(trie.nodeCount(), 8);
+	assertEquals(trie.deleteWithPrefix(""), 2);
+	assertEquals(trie.size(), 0);
+	assertEquals(trie.nodeCount(), 1);
+    }
+
+    /**
+     * Checks delete and deleteWithPrefix methods against a set of words
+     * after random operations, with caches of the heaviest words and masks of
+     * lengths kept up to date
+     */
+    @Test
+    public void deleteWithPrefixRandomTest() {
+	int rankCapacity = 3;
+	RWayTrie ranked = new RWayTrie(new EnglishAlphabet(), rankCapacity);
+	TernarySearchTrie expected = new TernarySearchTrie(new EnglishAlphabet());
+	TreeSet<String> words = new TreeSet<String>();
+	Random random = new Random(25);
+	List<Tuple> tuples = new ArrayList<Tuple>();
+
+	for (int i = 0; i < 2000; i++) {
+	    StringBuilder word = new StringBuilder();
+	    int length = 1 + random.nextInt(7);
+
+	    for (int j = 0; j < length; j++) {
+		word.append((char) ('a' + random.nextInt(4)));
+	    }
+
+	    tuples.add(new Tuple(word.toString(), random.nextInt(100)));
+	}
+
+	trie.addAll(tuples);
+	ranked.addAll(tuples);
+
+	for (Tuple tuple : tuples) {
+	    expected.add(tuple);
+	    words.add(tuple.getWord());
+	}
+
+	for (int i = 0; i < 300; i++) {
+	    StringBuilder prefix = new StringBuilder();
+	    int length = 1 + random.nextInt(4);
+
+	    for (int j = 0; j < length; j++) {
+		prefix.append((char) ('a' + random.nextInt(4)));
+	    }
+
+	    String pref = prefix.toString();
+
+	    if (random.nextBoolean()) {
+		assertEquals(trie.delete(pref), words.remove(pref));
+		ranked.delete(pref);
+		expected.delete(pref);
+	    } else if (random.nextInt(4) == 0) {
+		Tuple tuple = new Tuple(pref, random.nextInt(100));
+		trie.add(tuple);
+		ranked.add(tuple);
+		expected.add(tuple);
+		words.add(pref);
+	    } else {
+		Set<String> removed = words.subSet(pref, pref + Character.MAX_VALUE);
+
+		for (String word : removed) {
+		    expected.delete(word);
+		}
+
+		assertEquals(trie.deleteWithPrefix(pref), removed.size());
+		assertEquals(ranked.deleteWithPrefix(pref), removed.size());
+		removed.clear();
+	    }
+
+	    assertEquals(trie.size(), words.size());
+	    assertEquals(ranked.size(), words.size());
+
+	    for (String top : new String[] { "", "a", "b", "ab", pref }) {
+		assertEquals(ranked.topK(top, rankCapacity), trie.topK(top, rankCapacity));
+	    }
+	}
+
+	assertEquals(list(trie.words()), list(expected.words()));
+	assertEquals(trie.stream().collect(Collectors.toList()), new ArrayList<String>(words));
+	assertEquals(split(trie.stream().spliterator(), 6), new ArrayList<String>(words));
+	assertSameLengths(expected, trie, ranked);
+    }
+
     /**
      * Checks words method of RWayTrie by filling it with prepared words and
      * checking if all words are saved correctly
@@ -409,4 +637,776 @@ public class RWayTrieTest {
 
     }
 
+    /**
+     * Checks that topK returns the heaviest words with prefix
+     */
+    @Test
+    public void topKMethodTest() {
+	RWayTrie ranked = new RWayTrie(new EnglishAlphabet(), 3);
+
+	ranked.add(new Tuple("the", 100));
+	ranked.add(new Tuple("they", 40));
+	ranked.add(new Tuple("them", 60));
+	ranked.add(new Tuple("then", 50));
+	ranked.add(new Tuple("theory", 10));
+	ranked.add(new Tuple("of", 90));
+
+	assertEquals(Arrays.asList("the", "them", "then"), ranked.topK("th", 3));
+	assertEquals(Arrays.asList("them", "then"), ranked.topK("the", 3).subList(1, 3));
+	assertEquals(Arrays.asList("the", "of"), ranked.topK("", 2));
+	assertEquals(Arrays.asList("the", "them", "then", "they", "theory"), ranked.topK("th", 10));
+	assertTrue(ranked.topK("x", 3).isEmpty());
+    }
+
+    /**
+     * Checks that cached topK gives the same result as walking all words after
+     * random additions, weight changes and deletions
+     */
+    @Test
+    public void topKMethodRandomOperationsTest() {
+	int rankCapacity = 4;
+	RWayTrie ranked = new RWayTrie(new EnglishAlphabet(), rankCapacity);
+	RWayTrie plain = new RWayTrie(new EnglishAlphabet());
+	Random random = new Random(42);
+	String[] prefixes = { "", "a", "b", "ab", "ba", "abc" };
+
+	for (int i = 0; i < 3000; i++) {
+	    StringBuilder word = new StringBuilder();
+	    int length = 1 + random.nextInt(5);
+
+	    for (int j = 0; j < length; j++) {
+		word.append((char) ('a' + random.nextInt(3)));
+	    }
+
+	    if (random.nextInt(4) == 0) {
+		assertEquals(plain.delete(word.toString()), ranked.delete(word.toString()));
+	    } else {
+		Tuple tuple = new Tuple(word.toString(), 1 + random.nextInt(20));
+		plain.add(tuple);
+		ranked.add(tuple);
+	    }
+
+	    for (String prefix : prefixes) {
+		for (int k = 1; k <= rankCapacity; k++) {
+		    assertEquals(plain.topK(prefix, k), ranked.topK(prefix, k));
+		}
+	    }
+	}
+    }
+
+    /**
+     * Checks that forEachWithPrefix visits the same words as wordsWithPrefix
+     * with their weights and stops when the visitor returns false
+     */
+    @Test
+    public void forEachWithPrefixMethodTest() {
+	String[] words = { "en", "end", "ends", "envy", "ended", "entry", "envoy", "drill" };
+
+	for (String word : words) {
+	    trie.add(new Tuple(word, word.length() * 10));
+	}
+
+	List<String> expected = new ArrayList<String>();
+	List<String> visited = new ArrayList<String>();
+
+	for (String word : trie.wordsWithPrefix("en")) {
+	    expected.add(word);
+	}
+
+	trie.forEachWithPrefix("en", new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		assertEquals(length * 10, weight);
+		visited.add(new String(word, 0, length));
+		return true;
+	    }
+
+	});
+
+	assertEquals(expected, visited);
+
+	visited.clear();
+	trie.forEachWithPrefix("", new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		visited.add(new String(word, 0, length));
+		return visited.size() < 3;
+	    }
+
+	});
+
+	assertEquals(Arrays.asList("en", "end", "ends"), visited);
+    }
+
+    /**
+     * Checks that a full walk, whose words after the first length are found in
+     * one walk of all levels, returns words shortest first and in alphabet
+     * order within one length, with their weights
+     */
+    @Test
+    public void wordsMethodRandomOrderTest() {
+	Random random = new Random(7);
+	Set<String> words = new TreeSet<String>();
+
+	for (int i = 0; i < 2000; i++) {
+	    StringBuilder word = new StringBuilder();
+	    int length = 1 + random.nextInt(9);
+
+	    for (int j = 0; j < length; j++) {
+		word.append((char) ('a' + random.nextInt(4)));
+	    }
+
+	    words.add(word.toString());
+	    trie.add(new Tuple(word.toString(), word.toString().hashCode()));
+	}
+
+	for (String prefix : new String[] { "", "a", "bc", "dddd" }) {
+	    List<String> expected = new ArrayList<String>();
+	    List<String> visited = new ArrayList<String>();
+
+	    for (String word : words) {
+		if (word.startsWith(prefix)) {
+		    expected.add(word);
+		}
+	    }
+
+	    Collections.sort(expected, new Comparator<String>() {
+
+		@Override
+		public int compare(String first, String second) {
+		    int diff = first.length() - second.length();
+		    return diff != 0 ? diff : first.compareTo(second);
+		}
+
+	    });
+
+	    for (String word : trie.wordsWithPrefix(prefix)) {
+		visited.add(word);
+	    }
+
+	    assertEquals(visited, expected);
+
+	    visited.clear();
+	    trie.forEachWithPrefix(prefix, new WordVisitor() {
+
+		@Override
+		public boolean visit(char[] word, int length, long weight) {
+		    String found = new String(word, 0, length);
+		    assertEquals(weight, found.hashCode());
+		    visited.add(found);
+		    return true;
+		}
+
+	    });
+
+	    assertEquals(visited, expected);
+	}
+    }
+
+    /**
+     * Checks that cursor finds words of the typed prefix after the nodes of
+     * the prefix are removed and added again
+     */
+    @Test
+    public void cursorMethodTest() {
+	trie.add(new Tuple("ending", 1));
+	trie.add(new Tuple("endings", 1));
+
+	TrieCursor cursor = trie.cursor();
+	List<String> words = new ArrayList<String>();
+	WordVisitor visitor = new WordVisitor() {
+
+	    @Override
+	    public boolean visit(char[] word, int length, long weight) {
+		words.add(new String(word, 0, length));
+		return true;
+	    }
+
+	};
+
+	for (char character : "endi".toCharArray()) {
+	    cursor.extend(character);
+	}
+
+	cursor.forEachWord(Integer.MAX_VALUE, visitor);
+	assertEquals(words, Arrays.asList("ending", "endings"));
+
+	trie.delete("ending");
+	trie.delete("endings");
+	words.clear();
+	cursor.forEachWord(Integer.MAX_VALUE, visitor);
+	assertTrue(words.isEmpty());
+
+	trie.add(new Tuple("endive", 1));
+	cursor.forEachWord(Integer.MAX_VALUE, visitor);
+	assertEquals(words, Arrays.asList("endive"));
+
+	assertTrue(cursor.backspace());
+	assertEquals(cursor.prefix(), "end");
+	assertEquals(cursor.length(), 3);
+
+	trie.add(new Tuple("ends", 1));
+	trie.add(new Tuple("endure", 1));
+	words.clear();
+	cursor.forEachWord(1, visitor);
+	assertEquals(words, Arrays.asList("ends"));
+
+	words.clear();
+	cursor.forEachWord(2, visitor);
+	assertEquals(words, Arrays.asList("ends", "endive", "endure"));
+	assertFalse(new RWayTrie(new EnglishAlphabet()).cursor().backspace());
+    }
+
+    /**
+     * Checks fuzzy search on mistyped prefixes
+     */
+    @Test
+    public void fuzzyWordsWithPrefixMethodTest() {
+	trie.add(new Tuple("hello", 5));
+	trie.add(new Tuple("help", 9));
+	trie.add(new Tuple("yellow", 7));
+	trie.add(new Tuple("jelly", 3));
+	trie.add(new Tuple("world", 1));
+
+	assertEquals(trie.fuzzyWordsWithPrefix("hel", 0, 5), Arrays.asList("help", "hello"));
+	assertEquals(trie.fuzzyWordsWithPrefix("hwl", 1, 5), Arrays.asList("help", "hello"));
+	assertEquals(trie.fuzzyWordsWithPrefix("hwl", 1, 1), Arrays.asList("help"));
+	assertEquals(trie.fuzzyWordsWithPrefix("ello", 1, 5), Arrays.asList("yellow", "hello"));
+	assertEquals(trie.fuzzyWordsWithPrefix("jel", 1, 5), Arrays.asList("jelly", "help", "yellow", "hello"));
+	assertEquals(trie.fuzzyWordsWithPrefix("xyz", 1, 5), Arrays.asList());
+	assertEquals(trie.fuzzyWordsWithPrefix("hel", -1, 5), Arrays.asList());
+	assertEquals(trie.fuzzyWordsWithPrefix("hel", 1, 0), Arrays.asList());
+    }
+
+    /**
+     * Checks that fuzzy search of a trie with ranking, which skips subtrees by
+     * their caches of the heaviest words, finds the same words as the scan of
+     * every word
+     */
+    @Test
+    public void fuzzyWordsWithPrefixRankedTest() {
+	Random random = new Random(3);
+
+	for (int rankCapacity : new int[] { 1, 3, 8 }) {
+	    RWayTrie ranked = new RWayTrie(new EnglishAlphabet(), rankCapacity);
+	    TernarySearchTrie scan = new TernarySearchTrie(new EnglishAlphabet());
+
+	    for (int i = 0; i < 1500; i++) {
+		StringBuilder word = new StringBuilder();
+		int length = 1 + random.nextInt(7);
+
+		for (int j = 0; j < length; j++) {
+		    word.append((char) ('a' + random.nextInt(4)));
+		}
+
+		Tuple tuple = new Tuple(word.toString(), random.nextInt(30));
+		ranked.add(tuple);
+		scan.add(tuple);
+	    }
+
+	    for (String prefix : new String[] { "a", "ab", "bdc", "ddda", "e" }) {
+		for (int maxEdits = 0; maxEdits <= 2; maxEdits++) {
+		    for (int k : new int[] { 1, 2, 5, 12 }) {
+			assertEquals(ranked.fuzzyWordsWithPrefix(prefix, maxEdits, k),
+				scan.fuzzyWordsWithPrefix(prefix, maxEdits, k));
+		    }
+		}
+	    }
+	}
+    }
+
+    /**
+     * Checks that fuzzy search walking the trie finds the same words as
+     * checking every word and as default implementation
+     */
+    @Test
+    public void fuzzyWordsWithPrefixRandomTest() {
+	TernarySearchTrie ternary = new TernarySearchTrie(new EnglishAlphabet());
+	Random random = new Random(5);
+
+	for (int i = 0; i < 3000; i++) {
+	    StringBuilder word = new StringBuilder();
+	    int length = 1 + random.nextInt(8);
+
+	    for (int j = 0; j < length; j++) {
+		word.append((char) ('a' + random.nextInt(6)));
+	    }
+
+	    Tuple tuple = new Tuple(word.toString(), 1 + random.nextInt(20));
+	    trie.add(tuple);
+	    ternary.add(tuple);
+	}
+
+	for (String prefix : new String[] { "", "a", "fab", "abcde", "zz", "cafeface" }) {
+	    for (int maxEdits = 0; maxEdits <= 2; maxEdits++) {
+		for (int k : new int[] { 1, 10, 100 }) {
+		    List<String> expected = fuzzy(trie, prefix, maxEdits, k);
+
+		    assertEquals(expected, trie.fuzzyWordsWithPrefix(prefix, maxEdits, k));
+		    assertEquals(expected, ternary.fuzzyWordsWithPrefix(prefix, maxEdits, k));
+		}
+	    }
+	}
+    }
+
+    private static List<String> fuzzy(RWayTrie trie, String prefix, int maxEdits, int k) {
+	List<Tuple> tuples = new ArrayList<Tuple>();
+	List<Integer> distances = new ArrayList<Integer>();
+
+	for (String word : trie.words()) {
+	    int distance = Integer.MAX_VALUE;
+
+	    for (int i = 0; i <= word.length(); i++) {
+		distance = Math.min(distance, distance(prefix, word.substring(0, i)));
+	    }
+
+	    if (distance <= maxEdits) {
+		tuples.add(new Tuple(word, trie.weight(word)));
+		distances.add(distance);
+	    }
+	}
+
+	List<Integer> order = new ArrayList<Integer>();
+
+	for (int i = 0; i < tuples.size(); i++) {
+	    order.add(i);
+	}
+
+	Collections.sort(order, new Comparator<Integer>() {
+
+	    @Override
+	    public int compare(Integer first, Integer second) {
+		int result = distances.get(first) - distances.get(second);
+		return result != 0 ? result : Tuple.RANK_ORDER.compare(tuples.get(first), tuples.get(second));
+	    }
+
+	});
+
+	List<String> result = new ArrayList<String>();
+
+	for (int i = 0; i < k && i < order.size(); i++) {
+	    result.add(tuples.get(order.get(i)).getWord());
+	}
+
+	return result;
+    }
+
+    private static int distance(String first, String second) {
+	int[][] table = new int[first.length() + 1][second.length() + 1];
+
+	for (int i = 0; i <= first.length(); i++) {
+	    for (int j = 0; j <= second.length(); j++) {
+		if (i == 0 || j == 0) {
+		    table[i][j] = i + j;
+		} else {
+		    int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+		    table[i][j] = Math.min(Math.min(table[i - 1][j], table[i][j - 1]) + 1, table[i - 1][j - 1] + cost);
+		}
+	    }
+	}
+
+	return table[first.length()][second.length()];
+    }
+
+    /**
+     * Checks that bulk loading of sorted and unsorted tuples builds the same
+     * trie as adding them one by one
+     */
+    @Test
+    public void addSortedMethodTest() {
+	int rankCapacity = 3;
+	RWayTrie expected = new RWayTrie(new EnglishAlphabet(), rankCapacity);
+	RWayTrie sorted = new RWayTrie(new EnglishAlphabet(), rankCapacity);
+	RWayTrie unsorted = new RWayTrie(new EnglishAlphabet(), rankCapacity);
+	Random random = new Random(7);
+	List<Tuple> tuples = new ArrayList<Tuple>();
+
+	for (int i = 0; i < 2000; i++) {
+	    StringBuilder word = new StringBuilder();
+	    int length = 1 + random.nextInt(6);
+
+	    for (int j = 0; j < length; j++) {
+		word.append((char) ('a' + random.nextInt(4)));
+	    }
+
+	    tuples.add(new Tuple(word.toString(), 1 + random.nextInt(50)));
+	}
+
+	sorted.add(new Tuple("zebra", 5));
+	unsorted.add(new Tuple("zebra", 5));
+	expected.add(new Tuple("zebra", 5));
+
+	for (Tuple tuple : tuples) {
+	    expected.add(tuple);
+	}
+
+	unsorted.addAll(tuples);
+
+	List<Tuple> ordered = new ArrayList<Tuple>(tuples);
+	Collections.sort(ordered, new Comparator<Tuple>() {
+
+	    @Override
+	    public int compare(Tuple first, Tuple second) {
+		return first.getWord().compareTo(second.getWord());
+	    }
+
+	});
+
+	sorted.addSorted(ordered);
+
+	for (RWayTrie trie : Arrays.asList(sorted, unsorted)) {
+	    assertEquals(expected.size(), trie.size());
+
+	    Iterator<String> words = expected.words().iterator();
+
+	    for (String word : trie.words()) {
+		String next = words.next();
+		assertEquals(next, word);
+		assertEquals(expected.weight(next), trie.weight(word));
+	    }
+
+	    assertFalse(words.hasNext());
+
+	    for (String prefix : new String[] { "", "a", "ab", "dd" }) {
+		assertEquals(expected.topK(prefix, rankCapacity), trie.topK(prefix, rankCapacity));
+	    }
+	}
+    }
+
+    /**
+     * Checks that addAll sorts long words with long common prefixes and
+     * repeated words in any order and builds the same trie as adding them one
+     * by one, the last tuple winning for repeated words
+     */
+    @Test
+    public void addAllMethodUnsortedTest() {
+	RWayTrie expected = new RWayTrie(new EnglishAlphabet(), 2);
+	RWayTrie loaded = new RWayTrie(new EnglishAlphabet(), 2);
+	Random random = new Random(5);
+	List<Tuple> tuples = new ArrayList<Tuple>();
+
+	for (int i = 0; i < 3000; i++) {
+	    StringBuilder word = new StringBuilder("inter");
+	    int length = random.nextInt(12);
+
+	    for (int j = 0; j < length; j++) {
+		word.append((char) ('a' + random.nextInt(3)));
+	    }
+
+	    tuples.add(new Tuple(word.toString(), random.nextInt(1000)));
+	}
+
+	Collections.shuffle(tuples, random);
+
+	for (Tuple tuple : tuples) {
+	    expected.add(tuple);
+	}
+
+	loaded.addAll(tuples);
+
+	assertEquals(loaded.size(), expected.size());
+
+	Iterator<String> words = expected.words().iterator();
+
+	for (String word : loaded.words()) {
+	    assertEquals(word, words.next());
+	    assertEquals(loaded.weight(word), expected.weight(word));
+	}
+
+	assertFalse(words.hasNext());
+
+	for (String prefix : new String[] { "", "inter", "interab", "intercc" }) {
+	    assertEquals(loaded.topK(prefix, 2), expected.topK(prefix, 2));
+	}
+    }
+
+    /**
+     * Checks that the trie is left as it was when one task of parallel
+     * loading fails, filled subtrees included
+     */
+    @Test
+    public void addParallelMethodFailureTest() {
+	RWayTrie failing = new RWayTrie(new EnglishAlphabet() {
+
+	    @Override
+	    public char character(int position) {
+		if (position == 'q' - 'a') {
+		    throw new IllegalStateException();
+		}
+
+		return super.character(position);
+	    }
+
+	}, 3);
+
+	failing.add(new Tuple("apple", 5));
+	failing.add(new Tuple("zoo", 7));
+
+	long version = failing.version();
+	List<Tuple> tuples = Arrays.asList(new Tuple("apricot", 9), new Tuple("appl", 8), new Tuple("apple", 1),
+		new Tuple("banana", 3), new Tuple("queen", 4), new Tuple("zebra", 2));
+	ForkJoinPool pool = new ForkJoinPool(4);
+
+	try {
+	    failing.addParallel(tuples, pool);
+	    fail();
+	} catch (IllegalStateException e) {
+	    // The task of "queen" fails when caches of its subtree are built
+	} finally {
+	    pool.shutdown();
+	}
+
+	assertEquals(failing.size(), 2);
+	assertEquals(failing.version(), version);
+	assertEquals(failing.weight("apple"), 5);
+	assertFalse(failing.contains("apricot"));
+	assertFalse(failing.contains("appl"));
+	assertFalse(failing.contains("banana"));
+	assertEquals(failing.topK("", 3), Arrays.asList("zoo", "apple"));
+	assertEquals(failing.topK("ap", 3), Arrays.asList("apple"));
+
+	List<String> words = new ArrayList<String>();
+
+	for (String word : failing.words()) {
+	    words.add(word);
+	}
+
+	assertEquals(words, Arrays.asList("zoo", "apple"));
+	assertFalse(failing.wordsWithPrefix("b").iterator().hasNext());
+    }
+
+    /**
+     * Checks that parallel loading into empty and filled subtrees builds the
+     * same trie as adding tuples one by one
+     */
+    @Test
+    public void addParallelMethodTest() {
+	int rankCapacity = 3;
+	RWayTrie expected = new RWayTrie(new EnglishAlphabet(), rankCapacity);
+	RWayTrie parallel = new RWayTrie(new EnglishAlphabet(), rankCapacity);
+	Random random = new Random(11);
+	List<Tuple> tuples = new ArrayList<Tuple>();
+
+	for (int i = 0; i < 2000; i++) {
+	    StringBuilder word = new StringBuilder();
+	    int length = 1 + random.nextInt(6);
+
+	    for (int j = 0; j < length; j++) {
+		word.append((char) ('a' + random.nextInt(5)));
+	    }
+
+	    tuples.add(new Tuple(word.toString(), 1 + random.nextInt(50)));
+	}
+
+	tuples.add(new Tuple("", 3));
+
+	for (Tuple tuple : Arrays.asList(new Tuple("zebra", 5), new Tuple("abba", 99), new Tuple("b", 1))) {
+	    expected.add(tuple);
+	    parallel.add(tuple);
+	}
+
+	for (Tuple tuple : tuples) {
+	    expected.add(tuple);
+	}
+
+	ForkJoinPool pool = new ForkJoinPool(4);
+
+	try {
+	    parallel.addParallel(tuples, pool);
+	} finally {
+	    pool.shutdown();
+	}
+
+	assertEquals(expected.size(), parallel.size());
+
+	Iterator<String> words = expected.words().iterator();
+
+	for (String word : parallel.words()) {
+	    String next = words.next();
+	    assertEquals(next, word);
+	    assertEquals(expected.weight(next), parallel.weight(word));
+	}
+
+	assertFalse(words.hasNext());
+
+	for (String prefix : new String[] { "", "a", "ab", "ee", "z" }) {
+	    assertEquals(expected.topK(prefix, rankCapacity), parallel.topK(prefix, rankCapacity));
+	}
+    }
+
+    /**
+     * Checks that words of the first lengths with a prefix are the same as
+     * the first words of wordsWithPrefix method after adding in every way,
+     * deleting and for words longer than masks of lengths
+     */
+    @Test
+    public void wordsWithPrefixLengthsRandomTest() {
+	Random random = new Random(13);
+	List<Tuple> tuples = new ArrayList<Tuple>();
+
+	for (int i = 0; i < 1500; i++) {
+	    StringBuilder word = new StringBuilder();
+	    int length = 1 + 2 * random.nextInt(5);
+
+	    for (int j = 0; j < length; j++) {
+		word.append((char) ('a' + random.nextInt(4)));
+	    }
+
+	    tuples.add(new Tuple(word.toString(), i));
+	}
+
+	for (int length : new int[] { 62, 63, 64, 70, 71, 90 }) {
+	    tuples.add(new Tuple(String.join("", Collections.nCopies(length, "d")), length));
+	}
+
+	RWayTrie added = new RWayTrie(new EnglishAlphabet());
+	RWayTrie sorted = new RWayTrie(new EnglishAlphabet());
+	RWayTrie parallel = new RWayTrie(new EnglishAlphabet());
+	TernarySearchTrie expected = new TernarySearchTrie(new EnglishAlphabet());
+	ForkJoinPool pool = new ForkJoinPool(2);
+
+	try {
+	    parallel.addParallel(tuples, pool);
+	} finally {
+	    pool.shutdown();
+	}
+
+	sorted.addAll(tuples);
+
+	for (Tuple tuple : tuples) {
+	    added.add(tuple);
+	    expected.add(tuple);
+	}
+
+	assertSameLengths(expected, added, sorted, parallel);
+
+	for (int i = 0; i < tuples.size(); i += 2) {
+	    String word = tuples.get(i).getWord();
+	    expected.delete(word);
+	    added.delete(word);
+	    sorted.delete(word);
+	    parallel.delete(word);
+	}
+
+	assertSameLengths(expected, added, sorted, parallel);
+    }
+
+    private static void assertSameLengths(TernarySearchTrie expected, RWayTrie... tries) {
+	String[] prefixes = { "", "a", "ab", "cab", "dddd", String.join("", Collections.nCopies(63, "d")), "x" };
+
+	for (String prefix : prefixes) {
+	    for (int k = 0; k <= 4; k++) {
+		List<String> words = list(expected.wordsWithPrefix(prefix, k));
+
+		for (RWayTrie trie : tries) {
+		    List<String> visited = new ArrayList<String>();
+
+		    trie.forEachWithPrefix(prefix, k, new WordVisitor() {
+
+			@Override
+			public boolean visit(char[] word, int length, long weight) {
+			    visited.add(new String(word, 0, length));
+			    return true;
+			}
+
+		    });
+
+		    assertEquals(list(trie.wordsWithPrefix(prefix, k)), words);
+		    assertEquals(visited, words);
+		}
+	    }
+	}
+    }
+
+    private static List<String> list(Iterable<String> words) {
+	List<String> list = new ArrayList<String>();
+
+	for (String word : words) {
+	    list.add(word);
+	}
+
+	return list;
+    }
+
+    /**
+     * Checks that streams give words in alphabet order, split on subtrees
+     * and know the size of all words
+     */
+    @Test
+    public void streamMethodTest() {
+	Random random = new Random(17);
+	TreeSet<String> expected = new TreeSet<String>();
+
+	for (int i = 0; i < 3000; i++) {
+	    StringBuilder word = new StringBuilder();
+	    int length = 1 + random.nextInt(8);
+
+	    for (int j = 0; j < length; j++) {
+		word.append((char) ('a' + random.nextInt(6)));
+	    }
+
+	    expected.add(word.toString());
+	    trie.add(new Tuple(word.toString(), i));
+	}
+
+	List<String> sorted = new ArrayList<String>(expected);
+
+	assertEquals(trie.stream().collect(Collectors.toList()), sorted);
+	assertEquals(trie.stream().parallel().collect(Collectors.toList()), sorted);
+	assertEquals(trie.stream().spliterator().getExactSizeIfKnown(), trie.size());
+	assertEquals(split(trie.stream().spliterator(), 6), sorted);
+	assertEquals(trie.streamWithPrefix("ab").collect(Collectors.toList()),
+		new ArrayList<String>(expected.subSet("ab", "ac")));
+	assertEquals(split(trie.streamWithPrefix("ab").spliterator(), 6),
+		new ArrayList<String>(expected.subSet("ab", "ac")));
+	assertEquals(trie.streamWithPrefix("ab").spliterator().getExactSizeIfKnown(),
+		expected.subSet("ab", "ac").size());
+	assertEquals(trie.streamWithPrefix("z").count(), 0);
+	assertEquals(new RWayTrie(new EnglishAlphabet()).stream().count(), 0);
+    }
+
+    /**
+     * Checks that stream throws exception if trie is changed
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void streamConcurrentModificationTest() {
+	trie.add(new Tuple("first", 1));
+	trie.add(new Tuple("second", 2));
+
+	Iterator<String> iterator = trie.stream().iterator();
+
+	while (iterator.hasNext()) {
+	    trie.add(new Tuple(iterator.next() + "s", 3));
+	}
+    }
+
+    /**
+     * Splits the spliterator the specified number of times and returns words
+     * of all parts in order, checking that every part knows its size
+     */
+    private static List<String> split(Spliterator<String> spliterator, int times) {
+	List<String> words = new ArrayList<String>();
+	Spliterator<String> prefix = times > 0 ? spliterator.trySplit() : null;
+
+	if (prefix != null) {
+	    words.addAll(split(prefix, times - 1));
+	    words.addAll(split(spliterator, times - 1));
+	    return words;
+	}
+
+	long size = spliterator.getExactSizeIfKnown();
+	assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+
+	Iterator<String> iterator = Spliterators.iterator(spliterator);
+
+	while (iterator.hasNext()) {
+	    words.add(iterator.next());
+	}
+
+	assertEquals(words.size(), size);
+	return words;
+    }
+
 }
@@ -0,0 +1,244 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.RadixTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.alphabet.TableAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of RadixTrie trie
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class RadixTrieTest {
+
+    private static final String AUX_STRING = "aaaaaaaaaaaaaaaaaa";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String[] WORDS = { "associated", "drill", "drink", "spelling", "respond", "seriousness",
+	    "singers", "en", "end", "ends", "ended" };
+    private RadixTrie trie;
+
+    /**
+     * Fill trie for every test
+     */
+    @Before
+    public void trieInit() {
+	trie = new RadixTrie(new EnglishAlphabet());
+
+	for (String word : WORDS) {
+	    trie.add(new Tuple(word, 1));
+	}
+    }
+
+    /**
+     * Checks that words with zero and 64-bit weights are present
+     */
+    @Test
+    public void longWeightsTest() {
+	trie.add(new Tuple("zero", 0));
+	trie.add(new Tuple("zest", 5627187200L));
+
+	assertEquals(trie.size(), WORDS.length + 2);
+	assertTrue(trie.contains("zero"));
+	assertEquals(trie.weight("zero"), 0);
+	assertEquals(trie.weight("zest"), 5627187200L);
+
+	assertTrue(trie.delete("zero"));
+	assertFalse(trie.contains("zero"));
+	assertEquals(trie.size(), WORDS.length + 1);
+    }
+
+    /**
+     * Checks that words with characters out of alphabet are skipped and
+     * lookups of such words find nothing
+     */
+    @Test
+    public void unmappedWordsTest() {
+	RadixTrie loaded = new RadixTrie(new TableAlphabet(LETTERS));
+	loaded.add(new Tuple("word", 1));
+	loaded.add(new Tuple("Hello", 2));
+	loaded.add(new Tuple("it's", 3));
+	loaded.add(new Tuple("wor2", 4));
+
+	assertEquals(loaded.size(), 1);
+	assertTrue(loaded.contains("word"));
+	assertFalse(loaded.contains("Hello"));
+	assertEquals(loaded.weight("it's"), 0);
+	assertFalse(loaded.wordsWithPrefix("wor2").iterator().hasNext());
+	assertTrue(loaded.wordsWithPrefix("wor").iterator().hasNext());
+	assertFalse(loaded.delete("wor2"));
+	assertEquals(loaded.size(), 1);
+    }
+
+    /**
+     * Checks add method with new and repeated words
+     */
+    @Test
+    public void addMethodTest() {
+	assertEquals(trie.size(), WORDS.length);
+
+	trie.add(new Tuple("drill", 1));
+	trie.add(new Tuple("", 1));
+
+	assertEquals(trie.size(), WORDS.length);
+    }
+
+    /**
+     * Checks that a long word is kept in one node and split when another word
+     * leaves its edge
+     */
+    @Test
+    public void addMethodSplitsEdgeTest() {
+	RadixTrie single = new RadixTrie(new EnglishAlphabet());
+
+	single.add(new Tuple("seriousness", 1));
+	assertEquals(single.nodeCount(), 2);
+
+	single.add(new Tuple("serious", 1));
+	assertEquals(single.nodeCount(), 3);
+
+	single.add(new Tuple("series", 1));
+	assertEquals(single.nodeCount(), 5);
+
+	assertTrue(single.contains("seriousness"));
+	assertTrue(single.contains("serious"));
+	assertTrue(single.contains("series"));
+	assertFalse(single.contains("seri"));
+	assertFalse(single.contains("seriousnes"));
+    }
+
+    /**
+     * Checks contains method on existing and non existing words
+     */
+    @Test
+    public void containsMethodTest() {
+	for (String word : WORDS) {
+	    assertTrue(trie.contains(word));
+	    assertFalse(trie.contains(word + AUX_STRING));
+	}
+
+	assertFalse(trie.contains("e"));
+	assertFalse(trie.contains("dri"));
+	assertFalse(trie.contains(""));
+    }
+
+    /**
+     * Checks delete method on existing and non existing words
+     */
+    @Test
+    public void deleteMethodTest() {
+	for (String word : WORDS) {
+	    assertFalse(trie.delete(word + AUX_STRING));
+	}
+
+	for (String word : WORDS) {
+	    assertTrue(trie.delete(word));
+	    assertFalse(trie.contains(word));
+	}
+
+	assertEquals(trie.size(), 0);
+	assertEquals(trie.nodeCount(), 1);
+	assertFalse(trie.words().iterator().hasNext());
+    }
+
+    /**
+     * Checks that deletion merges edges back
+     */
+    @Test
+    public void deleteMethodMergesEdgesTest() {
+	RadixTrie single = new RadixTrie(new EnglishAlphabet());
+
+	single.add(new Tuple("seriousness", 1));
+	single.add(new Tuple("serious", 1));
+	single.add(new Tuple("series", 1));
+
+	assertTrue(single.delete("series"));
+	assertEquals(single.nodeCount(), 3);
+
+	assertTrue(single.delete("serious"));
+	assertEquals(single.nodeCount(), 2);
+
+	assertTrue(single.contains("seriousness"));
+	assertEquals(single.size(), 1);
+    }
+
+    /**
+     * Checks that words are returned in the same order as RWayTrie returns
+     * them
+     */
+    @Test
+    public void wordsMethodOrderTest() {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+
+	for (String word : WORDS) {
+	    rwayTrie.add(new Tuple(word, 1));
+	}
+
+	Iterator<String> expected = rwayTrie.words().iterator();
+
+	for (String word : trie.words()) {
+	    assertEquals(expected.next(), word);
+	}
+
+	assertFalse(expected.hasNext());
+    }
+
+    /**
+     * Checks wordWithPrefix method on specific prefix
+     */
+    @Test
+    public void wordWithPrefixMethodOnSpecificPrefixTest() {
+	Iterator<String> iterator = trie.wordsWithPrefix("en").iterator();
+
+	assertEquals(iterator.next(), "en");
+	assertEquals(iterator.next(), "end");
+	assertEquals(iterator.next(), "ends");
+	assertEquals(iterator.next(), "ended");
+	assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Checks wordWithPrefix method on prefix that ends in the middle of an
+     * edge
+     */
+    @Test
+    public void wordWithPrefixMethodInsideEdgeTest() {
+	Iterator<String> iterator = trie.wordsWithPrefix("serio").iterator();
+
+	assertEquals(iterator.next(), "seriousness");
+	assertFalse(iterator.hasNext());
+
+	assertFalse(trie.wordsWithPrefix("seriz").iterator().hasNext());
+	assertFalse(trie.wordsWithPrefix("seriousnesss").iterator().hasNext());
+    }
+
+    /**
+     * Checks if empty trie iterator throws the exception
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void wordsMethodExceptionThrowOnEmptyTrieTest() {
+	new RadixTrie(new EnglishAlphabet()).words().iterator().next();
+    }
+
+    /**
+     * Checks if iterator throws the exception on successful deletion
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorConcurrentModificationOnDeletionTest() {
+	Iterator<String> iter = trie.words().iterator();
+	iter.next();
+	assertTrue(trie.delete("drill"));
+	iter.next();
+    }
+
+}
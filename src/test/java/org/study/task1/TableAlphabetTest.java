@@ -0,0 +1,122 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.alphabet.TableAlphabet;
+import org.study.task1.trie.alphabet.Utf8Alphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of TableAlphabet and Utf8Alphabet
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class TableAlphabetTest {
+
+    @Test
+    public void positionMethodTest() {
+	TableAlphabet alphabet = new TableAlphabet("cab");
+
+	assertEquals(alphabet.size(), 3);
+	assertEquals(alphabet.position('c'), 0);
+	assertEquals(alphabet.position('b'), 2);
+	assertEquals(alphabet.position('d'), RWayTrie.Alphabet.UNMAPPED);
+	assertEquals(alphabet.position('中'), RWayTrie.Alphabet.UNMAPPED);
+	assertEquals(alphabet.character(1), 'a');
+	assertTrue(alphabet.accepts("abc"));
+	assertFalse(alphabet.accepts("abcd"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void characterWithPositionNotInAlphabetTest() {
+	new TableAlphabet("abc").character(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void repeatedCharacterTest() {
+	new TableAlphabet("abca");
+    }
+
+    /**
+     * Checks that alphabet of a sample has every character of the sample in
+     * the order of codes
+     */
+    @Test
+    public void ofMethodTest() {
+	TableAlphabet alphabet = TableAlphabet.of(Arrays.asList("café", "it's", "naïve"));
+
+	assertEquals(alphabet.size(), 12);
+	assertEquals(alphabet.character(0), '\'');
+	assertEquals(alphabet.character(11), 'ï');
+	assertTrue(alphabet.accepts("vie"));
+	assertFalse(alphabet.accepts("Café"));
+    }
+
+    /**
+     * Checks that words in upper case are kept in lower case
+     */
+    @Test
+    public void ignoreCaseMethodTest() {
+	TableAlphabet alphabet = new TableAlphabet("abcé").ignoreCase();
+	RWayTrie trie = new RWayTrie(alphabet);
+
+	assertEquals(alphabet.position('B'), alphabet.position('b'));
+	assertEquals(alphabet.position('É'), alphabet.position('é'));
+	assertEquals(alphabet.size(), 4);
+
+	trie.add(new Tuple("CAB", 3));
+	trie.add(new Tuple("Abé", 2));
+
+	assertTrue(trie.contains("cab"));
+	assertTrue(trie.contains("CaB"));
+	assertEquals(list(trie.words()), Arrays.asList("abé", "cab"));
+    }
+
+    /**
+     * Checks that any text is kept by its bytes in the order of code points
+     */
+    @Test
+    public void utf8AlphabetTest() {
+	RWayTrie trie = new RWayTrie(new Utf8Alphabet());
+	String[] texts = { "zebra", "Zürich", "日本", "naïve", "it's 2" };
+
+	for (String text : texts) {
+	    trie.add(new Tuple(Utf8Alphabet.encode(text), 1));
+	}
+
+	assertEquals(trie.size(), texts.length);
+	assertTrue(trie.contains(Utf8Alphabet.encode("日本")));
+	assertFalse(trie.contains("日本"));
+
+	assertEquals(decoded(trie.wordsWithPrefix(Utf8Alphabet.encode("n"))), Arrays.asList("naïve"));
+	assertEquals(decoded(trie.words()), Arrays.asList("zebra", "it's 2", "naïve", "日本", "Zürich"));
+    }
+
+    private static List<String> list(Iterable<String> words) {
+	List<String> result = new ArrayList<String>();
+
+	for (String word : words) {
+	    result.add(word);
+	}
+
+	return result;
+    }
+
+    private static List<String> decoded(Iterable<String> words) {
+	List<String> result = new ArrayList<String>();
+
+	for (String word : words) {
+	    result.add(Utf8Alphabet.decode(word));
+	}
+
+	return result;
+    }
+
+}
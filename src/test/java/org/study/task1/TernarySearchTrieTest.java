@@ -0,0 +1,232 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.TernarySearchTrie;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.alphabet.TableAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of TernarySearchTrie trie
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class TernarySearchTrieTest {
+
+    private static final String AUX_STRING = "aaaaaaaaaaaaaaaaaa";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String[] WORDS = { "associated", "drill", "drink", "spelling", "respond", "seriousness",
+	    "singers", "en", "end", "ends", "ended" };
+    private TernarySearchTrie trie;
+
+    /**
+     * Fill trie for every test
+     */
+    @Before
+    public void trieInit() {
+	trie = new TernarySearchTrie(new EnglishAlphabet());
+
+	for (String word : WORDS) {
+	    trie.add(new Tuple(word, 1));
+	}
+    }
+
+    /**
+     * Checks that words with zero and 64-bit weights are present
+     */
+    @Test
+    public void longWeightsTest() {
+	trie.add(new Tuple("zero", 0));
+	trie.add(new Tuple("zest", 5627187200L));
+
+	assertEquals(trie.size(), WORDS.length + 2);
+	assertTrue(trie.contains("zero"));
+	assertEquals(trie.weight("zero"), 0);
+	assertEquals(trie.weight("zest"), 5627187200L);
+
+	assertTrue(trie.delete("zero"));
+	assertFalse(trie.contains("zero"));
+	assertEquals(trie.size(), WORDS.length + 1);
+    }
+
+    /**
+     * Checks that words with characters out of alphabet are skipped and
+     * lookups of such words find nothing
+     */
+    @Test
+    public void unmappedWordsTest() {
+	TernarySearchTrie loaded = new TernarySearchTrie(new TableAlphabet(LETTERS));
+	loaded.add(new Tuple("word", 1));
+	loaded.add(new Tuple("Hello", 2));
+	loaded.add(new Tuple("it's", 3));
+	loaded.add(new Tuple("wor2", 4));
+
+	assertEquals(loaded.size(), 1);
+	assertTrue(loaded.contains("word"));
+	assertFalse(loaded.contains("Hello"));
+	assertEquals(loaded.weight("it's"), 0);
+	assertFalse(loaded.wordsWithPrefix("wor2").iterator().hasNext());
+	assertTrue(loaded.wordsWithPrefix("wor").iterator().hasNext());
+	assertFalse(loaded.delete("wor2"));
+	assertEquals(loaded.size(), 1);
+    }
+
+    /**
+     * Checks add method with new and repeated words
+     */
+    @Test
+    public void addMethodTest() {
+	assertEquals(trie.size(), WORDS.length);
+
+	trie.add(new Tuple("drill", 1));
+	trie.add(new Tuple("", 1));
+
+	assertEquals(trie.size(), WORDS.length);
+    }
+
+    /**
+     * Checks contains method on existing and non existing words
+     */
+    @Test
+    public void containsMethodTest() {
+	for (String word : WORDS) {
+	    assertTrue(trie.contains(word));
+	    assertFalse(trie.contains(word + AUX_STRING));
+	}
+
+	assertFalse(trie.contains("e"));
+	assertFalse(trie.contains("dri"));
+    }
+
+    /**
+     * Checks delete method on existing and non existing words
+     */
+    @Test
+    public void deleteMethodTest() {
+	for (String word : WORDS) {
+	    assertFalse(trie.delete(word + AUX_STRING));
+	}
+
+	for (String word : WORDS) {
+	    assertTrue(trie.delete(word));
+	    assertFalse(trie.contains(word));
+	}
+
+	assertEquals(trie.size(), 0);
+	assertFalse(trie.words().iterator().hasNext());
+    }
+
+    /**
+     * Checks that deletion of a word keeps its siblings and continuations
+     */
+    @Test
+    public void deleteMethodKeepsOtherWordsTest() {
+	assertTrue(trie.delete("end"));
+	assertTrue(trie.delete("drill"));
+	assertTrue(trie.delete("respond"));
+
+	assertTrue(trie.contains("en"));
+	assertTrue(trie.contains("ends"));
+	assertTrue(trie.contains("ended"));
+	assertTrue(trie.contains("drink"));
+	assertTrue(trie.contains("seriousness"));
+	assertTrue(trie.contains("associated"));
+	assertEquals(trie.size(), WORDS.length - 3);
+    }
+
+    /**
+     * Checks that words are returned in the same order as RWayTrie returns
+     * them
+     */
+    @Test
+    public void wordsMethodOrderTest() {
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+
+	for (String word : WORDS) {
+	    rwayTrie.add(new Tuple(word, 1));
+	}
+
+	Iterator<String> expected = rwayTrie.words().iterator();
+
+	for (String word : trie.words()) {
+	    assertEquals(expected.next(), word);
+	}
+
+	assertFalse(expected.hasNext());
+    }
+
+    /**
+     * Checks wordWithPrefix method on specific prefix
+     */
+    @Test
+    public void wordWithPrefixMethodOnSpecificPrefixTest() {
+	Iterator<String> iterator = trie.wordsWithPrefix("en").iterator();
+
+	assertEquals(iterator.next(), "en");
+	assertEquals(iterator.next(), "end");
+	assertEquals(iterator.next(), "ends");
+	assertEquals(iterator.next(), "ended");
+	assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Checks if empty trie iterator throws the exception
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void wordsMethodExceptionThrowOnEmptyTrieTest() {
+	new TernarySearchTrie(new EnglishAlphabet()).words().iterator().next();
+    }
+
+    /**
+     * Checks if iterator throws the exception on successful deletion
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorConcurrentModificationOnDeletionTest() {
+	Iterator<String> iter = trie.words().iterator();
+	iter.next();
+	assertTrue(trie.delete("drill"));
+	iter.next();
+    }
+
+    /**
+     * Checks if iterator throws the exception on add operation
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorConcurrentModificationOnAddTest() {
+	Iterator<String> iter = trie.words().iterator();
+	iter.next();
+	trie.add(new Tuple("drills", 1));
+	iter.next();
+    }
+
+    /**
+     * Checks that stream gives words in the order of words method
+     */
+    @Test
+    public void streamMethodTest() {
+	List<String> words = new ArrayList<String>();
+
+	for (String word : trie.words()) {
+	    words.add(word);
+	}
+
+	assertEquals(trie.stream().collect(Collectors.toList()), words);
+	assertEquals(trie.stream().parallel().collect(Collectors.toList()), words);
+	assertEquals(trie.stream().spliterator().getExactSizeIfKnown(), trie.size());
+	assertEquals(trie.streamWithPrefix("dri").collect(Collectors.toList()), Arrays.asList("drill", "drink"));
+    }
+
+}
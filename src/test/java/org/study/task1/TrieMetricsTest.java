@@ -0,0 +1,225 @@
+package org.study.task1;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.study.task1.metrics.Latency;
+import org.study.task1.metrics.LatencyHistogram;
+import org.study.task1.metrics.TrieMetrics;
+import org.study.task1.trie.ConcurrentRWayTrie;
+import org.study.task1.trie.DawgTrie;
+import org.study.task1.trie.DoubleArrayTrie;
+import org.study.task1.trie.MappedTrie;
+import org.study.task1.trie.PersistentTrie;
+import org.study.task1.trie.RWayTrie;
+import org.study.task1.trie.RadixTrie;
+import org.study.task1.trie.TernarySearchTrie;
+import org.study.task1.trie.Trie;
+import org.study.task1.trie.TrieStats;
+import org.study.task1.trie.alphabet.EnglishAlphabet;
+import org.study.task1.trie.tuple.Tuple;
+
+/**
+ * Class for testing of metrics of PrefixMatches
+ * 
+ * @author Andrii_Lehuta
+ *
+ */
+public class TrieMetricsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Checks that percentiles are found with error of at most a quarter
+     */
+    @Test
+    public void latencyHistogramTest() {
+	LatencyHistogram histogram = new LatencyHistogram();
+
+	assertEquals(histogram.snapshot().getCount(), 0);
+	assertEquals(histogram.snapshot().getP99(), 0);
+
+	for (long nanos = 1; nanos <= 1000; nanos++) {
+	    histogram.record(nanos * 1000);
+	}
+
+	Latency latency = histogram.snapshot();
+
+	assertEquals(latency.getCount(), 1000);
+	assertEquals(latency.getMean(), 500500);
+	assertInRange(latency.getP50(), 500000);
+	assertInRange(latency.getP99(), 990000);
+	assertInRange(latency.getP999(), 999000);
+
+	histogram.record(3);
+	assertEquals(histogram.snapshot().getCount(), 1001);
+    }
+
+    private static void assertInRange(long actual, long expected) {
+	assertTrue(actual + " for " + expected, actual >= expected && actual <= expected * 5 / 4);
+    }
+
+    /**
+     * Checks that operations of PrefixMatches are published through the
+     * platform MBean server
+     */
+    @Test
+    public void enableMetricsMethodTest() throws JMException {
+	RWayTrie trie = new RWayTrie(new EnglishAlphabet());
+	PrefixMatches matches = new PrefixMatches(trie);
+	MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+	matches.add("before metrics");
+	ObjectName name = matches.enableMetrics("test");
+
+	try {
+	    matches.add("drill drink", "end");
+	    matches.contains("drill");
+	    matches.contains("none");
+	    matches.delete("end");
+
+	    for (String word : matches.wordsWithPrefix("dr")) {
+		assertTrue(word.startsWith("dr"));
+	    }
+
+	    assertTrue(server.isRegistered(name));
+	    assertEquals(((CompositeData) server.getAttribute(name, "Add")).get("count"), 3L);
+	    assertEquals(((CompositeData) server.getAttribute(name, "Contains")).get("count"), 2L);
+	    assertEquals(((CompositeData) server.getAttribute(name, "Delete")).get("count"), 1L);
+	    assertEquals(((CompositeData) server.getAttribute(name, "WordsWithPrefix")).get("count"), 1L);
+	    assertEquals(server.getAttribute(name, "WordCount"), 4);
+	    assertEquals(server.getAttribute(name, "NodeCount"), trie.nodeCount());
+	    assertEquals(server.getAttribute(name, "Version"), trie.version());
+	    assertEquals(matches.metrics().getContains().getCount(), 2);
+	} finally {
+	    matches.disableMetrics();
+	}
+
+	assertFalse(server.isRegistered(name));
+	assertNull(matches.metrics());
+
+	matches.contains("drill");
+	matches.enableMetrics("test");
+	assertEquals(matches.metrics().getContains().getCount(), 0);
+	matches.disableMetrics();
+    }
+
+    /**
+     * Checks that two tables can not be registered with the same name
+     */
+    @Test(expected = JMException.class)
+    public void sameNameTest() throws JMException {
+	PrefixMatches first = new PrefixMatches(new RWayTrie(new EnglishAlphabet()));
+	first.enableMetrics("same");
+
+	try {
+	    new PrefixMatches(new RWayTrie(new EnglishAlphabet())).enableMetrics("same");
+	} finally {
+	    first.disableMetrics();
+	}
+    }
+
+    /**
+     * Checks that a bare trie is published and its nodes are counted again
+     * only after it is changed
+     */
+    @Test
+    public void nodeCountCacheTest() throws JMException {
+	RWayTrie trie = spy(new RWayTrie(new EnglishAlphabet()));
+	trie.add(new Tuple("ab", 1));
+	TrieMetrics metrics = new TrieMetrics(trie);
+	MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+	ObjectName name = metrics.register("bare");
+
+	try {
+	    assertEquals(server.getAttribute(name, "NodeCount"), 3);
+	    assertEquals(server.getAttribute(name, "NodeCount"), 3);
+	    verify(trie, times(1)).nodeCount();
+
+	    trie.add(new Tuple("ac", 2));
+	    assertEquals(server.getAttribute(name, "NodeCount"), 4);
+	    assertEquals(server.getAttribute(name, "WordCount"), 2);
+	    verify(trie, times(2)).nodeCount();
+	} finally {
+	    metrics.unregister();
+	}
+    }
+
+    /**
+     * Checks node count of every trie with the same words
+     */
+    @Test
+    public void nodeCountMethodTest() throws IOException {
+	List<Tuple> tuples = Arrays.asList(new Tuple("ab", 1), new Tuple("ac", 2));
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+	rwayTrie.addAll(tuples);
+	Path file = folder.newFile().toPath();
+	MappedTrie.write(rwayTrie, file);
+
+	assertEquals(rwayTrie.nodeCount(), 4);
+	assertEquals(fill(new TernarySearchTrie(new EnglishAlphabet()), tuples).nodeCount(), 3);
+	assertEquals(fill(new RadixTrie(new EnglishAlphabet()), tuples).nodeCount(), 4);
+	assertEquals(fill(new PersistentTrie(new EnglishAlphabet()), tuples).nodeCount(), 4);
+	assertEquals(fill(new ConcurrentRWayTrie(new EnglishAlphabet()), tuples).nodeCount(), 4);
+	assertEquals(new DoubleArrayTrie(new EnglishAlphabet(), tuples).nodeCount(), 4);
+	assertEquals(new DawgTrie(new EnglishAlphabet(), tuples).nodeCount(), 3);
+	assertEquals(new MappedTrie(file).nodeCount(), 3);
+	assertEquals(new RWayTrie(new EnglishAlphabet()).nodeCount(), 1);
+    }
+
+    /**
+     * Checks that stats of every trie agree with its size and node count
+     */
+    @Test
+    public void statsMethodTest() throws IOException {
+	List<Tuple> tuples = Arrays.asList(new Tuple("a", 1), new Tuple("abc", 2), new Tuple("abd", 3),
+		new Tuple("bcd", 4));
+	RWayTrie rwayTrie = new RWayTrie(new EnglishAlphabet());
+	rwayTrie.addAll(tuples);
+	Path file = folder.newFile().toPath();
+	MappedTrie.write(rwayTrie, file);
+
+	Trie[] tries = { rwayTrie, fill(new TernarySearchTrie(new EnglishAlphabet()), tuples),
+		fill(new RadixTrie(new EnglishAlphabet()), tuples), fill(new PersistentTrie(new EnglishAlphabet()), tuples),
+		fill(new ConcurrentRWayTrie(new EnglishAlphabet()), tuples), new DoubleArrayTrie(new EnglishAlphabet(), tuples),
+		new DawgTrie(new EnglishAlphabet(), tuples), new MappedTrie(file) };
+
+	for (Trie trie : tries) {
+	    TrieStats stats = trie.stats();
+
+	    assertEquals(stats.getWords(), 4);
+	    assertEquals(stats.getNodes(), trie.nodeCount());
+	    assertTrue(stats.getBytes() > 0);
+	}
+
+	TrieStats radix = tries[2].stats();
+	assertEquals(radix.getChains(), 0);
+	assertArrayEquals(radix.getDepthHistogram(), new int[] { 1, 2, 1, 2 });
+	assertEquals(rwayTrie.stats().getChains(), 1);
+	assertEquals(rwayTrie.stats().getChainNodes(), 2);
+    }
+
+    private static Trie fill(Trie trie, List<Tuple> tuples) {
+	for (Tuple tuple : tuples) {
+	    trie.add(tuple);
+	}
+
+	return trie;
+    }
+
+}